@@ -17,6 +17,10 @@
 
 package org.opengroup.osdu.core.common.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface ICache<K, O> {
 
     void put(K k, O o);
@@ -26,4 +30,35 @@ public interface ICache<K, O> {
     void delete(K k);
 
     void clearAll();
+
+    /**
+     * Removes every entry whose key starts with {@code prefix}, for caches keyed by String. Caches that
+     * cannot enumerate their keys clear everything instead, which only costs misses.
+     */
+    default void deleteByPrefix(String prefix) {
+        clearAll();
+    }
+
+    /**
+     * Looks up several keys at once. Keys without a value are left out of the returned map.
+     * Remote caches override this to fetch the batch in a single round trip.
+     */
+    default Map<K, O> getAll(Collection<K> keys) {
+        Map<K, O> values = new HashMap<>();
+        for (K k : keys) {
+            O o = get(k);
+            if (o != null) {
+                values.put(k, o);
+            }
+        }
+        return values;
+    }
+
+    default void putAll(Map<K, O> values) {
+        values.forEach(this::put);
+    }
+
+    default void deleteAll(Collection<K> keys) {
+        keys.forEach(this::delete);
+    }
 }
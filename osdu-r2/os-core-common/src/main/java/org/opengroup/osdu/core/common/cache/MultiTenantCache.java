@@ -19,12 +19,12 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class MultiTenantCache<V> {
     private final ICache<String, V> wrappedCache;
-    private final Map<String, TenantSafeCache> tenantCaches = new HashMap<>();
+    private final ConcurrentMap<String, TenantSafeCache<V>> tenantCaches = new ConcurrentHashMap<>();
 
     public MultiTenantCache(ICache<String, V> cache) {
         this.wrappedCache = cache;
@@ -34,14 +34,16 @@ public class MultiTenantCache<V> {
         String tenantName = partition;
         if (StringUtils.isBlank(tenantName))
             invalidTenantGivenException(tenantName);
-        if (!tenantCaches.containsKey(tenantName)) {
-            addCache(tenantName);
+        // plain get first: computeIfAbsent locks the bin even when the tenant is already registered
+        TenantSafeCache<V> cache = tenantCaches.get(tenantName);
+        if (cache == null) {
+            cache = tenantCaches.computeIfAbsent(tenantName, this::createCache);
         }
-        return tenantCaches.get(tenantName);
+        return cache;
     }
 
-    private void addCache(String tenantName) {
-        tenantCaches.put(tenantName, new TenantSafeCache<>(tenantName, wrappedCache));
+    private TenantSafeCache<V> createCache(String tenantName) {
+        return new TenantSafeCache<>(tenantName, wrappedCache);
     }
 
     private void invalidTenantGivenException(String tenantName) {
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * {@link TieredCache} of a local {@link VmCache} in front of a cache shared by every node, typically a
+ * {@link RedisCache}. Writes are broadcast on an {@link IInvalidationChannel} so the other nodes drop their
+ * local copy; messages carry the cache name, so caches with different names can share a channel. Local
+ * entries also expire {@link NearCacheConfig#getMaxStalenessSeconds()} after they were loaded, so a lost
+ * message can only leave a node stale for that long.
+ */
+public class NearCache<K, V> extends TieredCache<K, V> implements AutoCloseable {
+
+    private final String name;
+    private final IInvalidationChannel channel;
+    private final Class<K> classOfK;
+    private final Consumer<String> listener = this::onInvalidation;
+    private final String origin = UUID.randomUUID().toString();
+    private final Gson gson = new Gson();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    public NearCache(String name, ICache<K, V> remote, IInvalidationChannel channel, Class<K> classOfK) {
+        this(name, remote, channel, classOfK, NearCacheConfig.Default());
+    }
+
+    public NearCache(String name, ICache<K, V> remote, IInvalidationChannel channel, Class<K> classOfK,
+                     NearCacheConfig config) {
+        super(new VmCache<>(config.getMaxStalenessSeconds(), config.getMaximumLocalSize(), true), remote);
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name cannot be empty");
+        }
+        if (channel == null) {
+            throw new IllegalArgumentException("invalidation channel must be given");
+        }
+        this.name = name;
+        this.channel = channel;
+        this.classOfK = classOfK;
+        this.channel.subscribe(listener);
+    }
+
+    @Override
+    public void put(K k, V v) {
+        super.put(k, v);
+        publish(Collections.singletonList(k), null, false);
+    }
+
+    @Override
+    public void putAll(Map<K, V> values) {
+        super.putAll(values);
+        publish(values.keySet(), null, false);
+    }
+
+    @Override
+    public void delete(K k) {
+        super.delete(k);
+        publish(Collections.singletonList(k), null, false);
+    }
+
+    @Override
+    public void deleteAll(Collection<K> keys) {
+        super.deleteAll(keys);
+        publish(keys, null, false);
+    }
+
+    @Override
+    public void clearAll() {
+        super.clearAll();
+        publish(Collections.emptyList(), null, true);
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        super.deleteByPrefix(prefix);
+        publish(Collections.emptyList(), prefix, false);
+    }
+
+    /**
+     * Stops listening for invalidations. The remote cache and the channel are left open as they are
+     * usually shared.
+     */
+    @Override
+    public void close() {
+        channel.unsubscribe(listener);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getInvalidationsReceived() {
+        return invalidationsReceived.sum();
+    }
+
+    private void publish(Collection<K> keys, String prefix, boolean all) {
+        InvalidationMessage message = new InvalidationMessage();
+        message.name = name;
+        message.origin = origin;
+        message.all = all;
+        message.prefix = prefix;
+        message.keys = new JsonArray();
+        for (K k : keys) {
+            message.keys.add(gson.toJsonTree(k));
+        }
+        channel.publish(gson.toJson(message));
+    }
+
+    private void onInvalidation(String payload) {
+        InvalidationMessage message;
+        try {
+            message = gson.fromJson(payload, InvalidationMessage.class);
+        } catch (JsonParseException e) {
+            message = null;
+        }
+        // the channel may be shared by several caches; only messages naming this one apply to it
+        if (message != null && (origin.equals(message.origin) || !name.equals(message.name))) {
+            return;
+        }
+        ICache<K, V> local = invalidateFirstLevel();
+        invalidationsReceived.increment();
+        if (message == null || message.all) {
+            // a message we cannot read may have been about any key
+            local.clearAll();
+        } else if (message.prefix != null) {
+            local.deleteByPrefix(message.prefix);
+        } else if (message.keys != null) {
+            List<K> keys = new ArrayList<>(message.keys.size());
+            try {
+                for (JsonElement key : message.keys) {
+                    keys.add(gson.fromJson(key, classOfK));
+                }
+            } catch (JsonParseException e) {
+                local.clearAll();
+                return;
+            }
+            local.deleteAll(keys);
+        }
+    }
+
+    private static class InvalidationMessage {
+        String name;
+        String origin;
+        boolean all;
+        String prefix;
+        JsonArray keys;
+    }
+}
@@ -17,33 +17,54 @@
 
 package org.opengroup.osdu.core.common.cache;
 
+import com.lambdaworks.redis.KeyScanCursor;
+import com.lambdaworks.redis.LettuceFutures;
 import com.lambdaworks.redis.RedisClient;
 import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.RedisFuture;
 import com.lambdaworks.redis.SetArgs;
 import com.lambdaworks.redis.api.StatefulRedisConnection;
+import com.lambdaworks.redis.api.async.RedisAsyncCommands;
 import com.lambdaworks.redis.api.sync.RedisCommands;
-import com.lambdaworks.redis.codec.CompressionCodec;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
 
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final long BATCH_TIMEOUT_SECONDS = 30;
+
     private final StatefulRedisConnection<K, V> connection;
     private final RedisClient client;
     private final RedisCommands<K, V> commands;
+    private final RedisAsyncCommands<K, V> asyncCommands;
     private final int expireLengthSeconds;
+    private final RedisCacheCodec<K, V> codec;
 
     public RedisCache(String host, int port, int expTimeSeconds, int database,
-                      Class<K> classOfK, Class<V> classOfV) {
+                      Class<K> classOfK, Class<V> classOfV, RedisCodecConfig codecConfig) {
         RedisURI uri = new RedisURI(host, port, 30, TimeUnit.SECONDS);
         uri.setDatabase(database);
         client = RedisClient.create(uri);
-        connection = client.connect(
-                CompressionCodec.valueCompressor(new JsonCodec<>(classOfK, classOfV), CompressionCodec.CompressionType.GZIP));
+        codec = new RedisCacheCodec<>(classOfK, classOfV, codecConfig);
+        connection = client.connect(codec);
         commands = connection.sync();
+        asyncCommands = connection.async();
         expireLengthSeconds = expTimeSeconds;
     }
 
+    public RedisCache(String host, int port, int expTimeSeconds, int database,
+                      Class<K> classOfK, Class<V> classOfV) {
+        this(host, port, expTimeSeconds, database, classOfK, classOfV, RedisCodecConfig.Default());
+    }
+
     public RedisCache(String host, int port, int expTimeSeconds, Class<K> classOfK, Class<V> classOfV) {
         this(host, port, expTimeSeconds, 0, classOfK, classOfV);
     }
@@ -65,6 +86,51 @@ public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
         commands.del(key);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> values = new HashMap<>();
+        if (keys.isEmpty()) {
+            return values;
+        }
+        K[] keyArray = (K[]) keys.toArray();
+        List<V> found = commands.mget(keyArray);
+        Iterator<V> it = found.iterator();
+        for (K k : keyArray) {
+            V v = it.next();
+            if (v != null) {
+                values.put(k, v);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sends every SET EX without waiting for the previous reply, so the batch costs about one round trip,
+     * then waits for all of them. The commands are not a transaction: on failure some entries may be set.
+     */
+    @Override
+    public void putAll(Map<K, V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        SetArgs args = new SetArgs();
+        args.ex(expireLengthSeconds);
+        List<RedisFuture<String>> futures = new ArrayList<>(values.size());
+        values.forEach((k, v) -> futures.add(asyncCommands.set(k, v, args)));
+        if (!LettuceFutures.awaitAll(BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS, futures.toArray(new RedisFuture[0]))) {
+            throw new IllegalStateException("Timed out writing batch to redis cache");
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void deleteAll(Collection<K> keys) {
+        if (!keys.isEmpty()) {
+            commands.del((K[]) keys.toArray());
+        }
+    }
+
     @Override
     public void close() {
         if (connection != null)
@@ -77,4 +143,20 @@ public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
     public void clearAll() {
         this.commands.flushdb();
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void deleteByPrefix(String prefix) {
+        ScanArgs args = ScanArgs.Builder.matches(codec.keyPrefixPattern(prefix)).limit(SCAN_BATCH_SIZE);
+        KeyScanCursor<K> cursor = commands.scan(args);
+        while (true) {
+            if (!cursor.getKeys().isEmpty()) {
+                commands.del((K[]) cursor.getKeys().toArray());
+            }
+            if (cursor.isFinished()) {
+                break;
+            }
+            cursor = commands.scan(cursor, args);
+        }
+    }
 }
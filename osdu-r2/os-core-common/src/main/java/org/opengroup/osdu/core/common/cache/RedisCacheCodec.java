@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.gson.Gson;
+import com.lambdaworks.redis.codec.RedisCodec;
+import lombok.extern.java.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keys are JSON, as they always were. Values go through the configured {@link ICacheValueCodec} and are
+ * then compressed when at least {@link RedisCodecConfig#getCompressionThresholdBytes()} long. GZIP values
+ * are stored as a bare GZIP stream, the legacy format; every other value starts with a format byte, which
+ * cannot be confused with the first byte of a GZIP stream.
+ */
+@Log
+class RedisCacheCodec<K, V> implements RedisCodec<K, V> {
+
+    private static final int GZIP_MAGIC = 0x1f;
+    private static final byte UNCOMPRESSED = 0;
+    private static final byte DEFLATE = 1;
+
+    private final Class<K> classOfK;
+    private final Class<V> classOfV;
+    private final ICacheValueCodec valueCodec;
+    private final RedisCodecConfig.CompressionType compression;
+    private final int compressionThreshold;
+    private final Gson gson = new Gson();
+
+    RedisCacheCodec(Class<K> classOfK, Class<V> classOfV, RedisCodecConfig config) {
+        this.classOfK = classOfK;
+        this.classOfV = classOfV;
+        this.valueCodec = config.getValueCodec();
+        this.compression = config.getCompression();
+        this.compressionThreshold = config.getCompressionThresholdBytes();
+    }
+
+    @Override
+    public K decodeKey(ByteBuffer bytes) {
+        return gson.fromJson(new InputStreamReader(toStream(bytes), StandardCharsets.UTF_8), classOfK);
+    }
+
+    @Override
+    public ByteBuffer encodeKey(K k) {
+        return k == null ? ByteBuffer.wrap(new byte[0]) : ByteBuffer.wrap(gson.toJson(k).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public V decodeValue(ByteBuffer bytes) {
+        if (!bytes.hasRemaining()) {
+            return null;
+        }
+        try {
+            int format = bytes.get(bytes.position()) & 0xff;
+            if (format == GZIP_MAGIC) {
+                try (InputStream in = new GZIPInputStream(toStream(bytes))) {
+                    return valueCodec.decode(in, classOfV);
+                }
+            }
+            bytes.get();
+            if (format == DEFLATE) {
+                try (InputStream in = new InflaterInputStream(toStream(bytes))) {
+                    return valueCodec.decode(in, classOfV);
+                }
+            }
+            return valueCodec.decode(toStream(bytes), classOfV);
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.WARNING, "Unexpected error decoding from redis cache", e);
+            return null;
+        }
+    }
+
+    @Override
+    public ByteBuffer encodeValue(V v) {
+        if (v == null) {
+            return ByteBuffer.wrap(new byte[0]);
+        }
+        try {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            valueCodec.encode(v, encoded);
+            if (encoded.size() < compressionThreshold) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream(encoded.size() + 1);
+                output.write(UNCOMPRESSED);
+                encoded.writeTo(output);
+                return ByteBuffer.wrap(output.toByteArray());
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream(encoded.size() / 2 + 16);
+            if (compression == RedisCodecConfig.CompressionType.GZIP) {
+                try (OutputStream out = new GZIPOutputStream(output)) {
+                    encoded.writeTo(out);
+                }
+            } else {
+                output.write(DEFLATE);
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try (OutputStream out = new DeflaterOutputStream(output, deflater)) {
+                    encoded.writeTo(out);
+                } finally {
+                    deflater.end();
+                }
+            }
+            return ByteBuffer.wrap(output.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected error encoding value for redis cache", e);
+        }
+    }
+
+    /**
+     * Glob pattern matching the encoded form of every String key starting with {@code prefix}.
+     */
+    String keyPrefixPattern(String prefix) {
+        String encoded = gson.toJson(prefix);
+        // drop the closing quote so the JSON string literal stays open
+        encoded = encoded.substring(0, encoded.length() - 1);
+        return encoded.replaceAll("([*?\\[\\]\\\\])", "\\\\$1") + "*";
+    }
+
+    // reads the buffer in place; Lettuce hands over heap buffers, so this normally avoids any copy
+    private static InputStream toStream(ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            return new ByteArrayInputStream(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        }
+        return new InputStream() {
+            @Override
+            public int read() {
+                return bytes.hasRemaining() ? bytes.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!bytes.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(len, bytes.remaining());
+                bytes.get(b, off, count);
+                return count;
+            }
+        };
+    }
+}
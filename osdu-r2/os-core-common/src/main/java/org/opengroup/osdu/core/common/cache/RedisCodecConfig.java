@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class RedisCodecConfig {
+    @Builder.Default
+    ICacheValueCodec valueCodec = new GsonValueCodec();
+    @Builder.Default
+    CompressionType compression = CompressionType.GZIP;
+    /**
+     * Encoded values smaller than this are stored uncompressed. The default of 0 compresses everything,
+     * which keeps the stored format readable by nodes running an older {@link RedisCache}.
+     */
+    @Builder.Default
+    int compressionThresholdBytes = 0;
+
+    public static RedisCodecConfig Default() {
+        return RedisCodecConfig.builder().build();
+    }
+
+    public enum CompressionType {
+        GZIP,
+        /**
+         * Deflate at its fastest level, cheaper than GZIP for a slightly larger payload.
+         */
+        DEFLATE
+    }
+}
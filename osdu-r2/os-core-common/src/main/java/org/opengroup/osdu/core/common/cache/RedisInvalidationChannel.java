@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.lambdaworks.redis.RedisClient;
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.api.StatefulRedisConnection;
+import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
+import com.lambdaworks.redis.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.java.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Invalidation channel backed by a Redis pub/sub channel. Publishing does not wait for Redis.
+ */
+@Log
+public class RedisInvalidationChannel implements IInvalidationChannel, AutoCloseable {
+
+    private final String channel;
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, String> publisher;
+    private final StatefulRedisPubSubConnection<String, String> subscriber;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisInvalidationChannel(String host, int port, String channel) {
+        if (channel == null || channel.isEmpty()) {
+            throw new IllegalArgumentException("channel cannot be empty");
+        }
+        this.channel = channel;
+        this.client = RedisClient.create(new RedisURI(host, port, 30, TimeUnit.SECONDS));
+        this.publisher = client.connect();
+        this.subscriber = client.connectPubSub();
+        this.subscriber.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                for (Consumer<String> listener : listeners) {
+                    // one failing cache must not keep the others from invalidating
+                    try {
+                        listener.accept(message);
+                    } catch (RuntimeException e) {
+                        log.log(Level.WARNING, "Invalidation listener failed on channel " + channel, e);
+                    }
+                }
+            }
+        });
+        this.subscriber.sync().subscribe(channel);
+    }
+
+    @Override
+    public void publish(String message) {
+        publisher.async().publish(channel, message);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void close() {
+        subscriber.close();
+        publisher.close();
+        client.shutdown();
+    }
+}
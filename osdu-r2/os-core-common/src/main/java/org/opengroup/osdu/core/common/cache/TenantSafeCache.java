@@ -19,9 +19,25 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Prefixes keys with the tenant name so tenants can share a cache. Keys are "&lt;tenant&gt;&lt;key&gt;" and
+ * are shared with every node through remote caches, so the format must not change. The prefixed keys of
+ * recently used keys are kept, so a repeated lookup does not build a new String.
+ */
 public class TenantSafeCache<V> implements ICache<String, V> {
+    private static final int MAX_TENANT_KEYS = 1024;
+
     private final String tenantName;
     private final ICache<String, V> wrapped;
+    private final ConcurrentMap<String, String> tenantKeys = new ConcurrentHashMap<>();
 
     public TenantSafeCache(String tenantName, ICache<String, V> wrapped) {
         if (StringUtils.isBlank(tenantName))
@@ -45,12 +61,59 @@ public class TenantSafeCache<V> implements ICache<String, V> {
         wrapped.delete(generateKey(k));
     }
 
+    @Override
+    public Map<String, V> getAll(Collection<String> keys) {
+        List<String> tenantKeys = new ArrayList<>(keys.size());
+        for (String k : keys) {
+            tenantKeys.add(generateKey(k));
+        }
+        Map<String, V> values = wrapped.getAll(tenantKeys);
+        Map<String, V> result = new HashMap<>(values.size() * 2);
+        int prefixLength = tenantName.length();
+        values.forEach((k, v) -> result.put(k.substring(prefixLength), v));
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<String, V> values) {
+        Map<String, V> tenantValues = new HashMap<>(values.size() * 2);
+        values.forEach((k, v) -> tenantValues.put(generateKey(k), v));
+        wrapped.putAll(tenantValues);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        List<String> tenantKeys = new ArrayList<>(keys.size());
+        for (String k : keys) {
+            tenantKeys.add(generateKey(k));
+        }
+        wrapped.deleteAll(tenantKeys);
+    }
+
+    /**
+     * Removes this tenant's entries from the shared cache. Keys have no delimiter, so the entries of
+     * tenants whose name starts with this one, "tenant10" for "tenant1", are removed as well and reloaded
+     * on their next miss. A wrapped cache that cannot delete by prefix is cleared entirely.
+     */
     @Override
     public void clearAll() {
-        this.wrapped.clearAll();
+        this.tenantKeys.clear();
+        this.wrapped.deleteByPrefix(tenantName);
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        this.wrapped.deleteByPrefix(tenantName.concat(prefix));
     }
 
     private String generateKey(String k) {
-        return tenantName + k;
+        String key = tenantKeys.get(k);
+        if (key == null) {
+            key = tenantName.concat(k);
+            if (tenantKeys.size() < MAX_TENANT_KEYS) {
+                tenantKeys.putIfAbsent(k, key);
+            }
+        }
+        return key;
     }
 }
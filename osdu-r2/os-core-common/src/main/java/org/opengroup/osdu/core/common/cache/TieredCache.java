@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.core.common.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two level cache, typically a {@link VmCache} in front of a shared {@link RedisCache}. Values found
+ * only in the second level are copied into the first so later lookups stay in-process. Writes go to the
+ * second level first, so the first level never holds a value the second level has not seen.
+ */
+public class TieredCache<K, V> implements ICache<K, V> {
+
+    private final ICache<K, V> firstLevel;
+    private final ICache<K, V> secondLevel;
+    // bumped whenever first level entries are invalidated from outside, so a value read from the second
+    // level while it was being invalidated is not copied up
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder firstLevelHits = new LongAdder();
+    private final LongAdder secondLevelHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TieredCache(ICache<K, V> firstLevel, ICache<K, V> secondLevel) {
+        if (firstLevel == null || secondLevel == null) {
+            throw new IllegalArgumentException("both cache levels must be given");
+        }
+        this.firstLevel = firstLevel;
+        this.secondLevel = secondLevel;
+    }
+
+    @Override
+    public void put(K k, V v) {
+        this.secondLevel.put(k, v);
+        this.firstLevel.put(k, v);
+    }
+
+    @Override
+    public V get(K k) {
+        V v = this.firstLevel.get(k);
+        if (v != null) {
+            this.firstLevelHits.increment();
+            return v;
+        }
+        long seen = this.generation.get();
+        v = this.secondLevel.get(k);
+        if (v == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.secondLevelHits.increment();
+        if (this.generation.get() == seen) {
+            this.firstLevel.put(k, v);
+        }
+        return v;
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> values = new HashMap<>(this.firstLevel.getAll(keys));
+        this.firstLevelHits.add(values.size());
+        if (values.size() == keys.size()) {
+            return values;
+        }
+        List<K> missing = new ArrayList<>(keys.size() - values.size());
+        for (K k : keys) {
+            if (!values.containsKey(k)) {
+                missing.add(k);
+            }
+        }
+        long seen = this.generation.get();
+        Map<K, V> loaded = this.secondLevel.getAll(missing);
+        this.secondLevelHits.add(loaded.size());
+        this.misses.add(missing.size() - loaded.size());
+        if (!loaded.isEmpty() && this.generation.get() == seen) {
+            this.firstLevel.putAll(loaded);
+        }
+        values.putAll(loaded);
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<K, V> values) {
+        this.secondLevel.putAll(values);
+        this.firstLevel.putAll(values);
+    }
+
+    @Override
+    public void deleteAll(Collection<K> keys) {
+        this.secondLevel.deleteAll(keys);
+        this.firstLevel.deleteAll(keys);
+    }
+
+    @Override
+    public void delete(K k) {
+        this.secondLevel.delete(k);
+        this.firstLevel.delete(k);
+    }
+
+    @Override
+    public void clearAll() {
+        this.secondLevel.clearAll();
+        this.firstLevel.clearAll();
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        this.secondLevel.deleteByPrefix(prefix);
+        this.firstLevel.deleteByPrefix(prefix);
+    }
+
+    public long getFirstLevelHits() {
+        return this.firstLevelHits.sum();
+    }
+
+    public long getSecondLevelHits() {
+        return this.secondLevelHits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Share of lookups answered by the first level, between 0 and 1; 0 before the first lookup.
+     */
+    public double getFirstLevelHitRatio() {
+        long hits = this.firstLevelHits.sum();
+        long total = hits + this.secondLevelHits.sum() + this.misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * The first level, for subclasses dropping entries that changed elsewhere. Lookups already reading
+     * the second level do not copy their value up after this was called.
+     */
+    protected ICache<K, V> invalidateFirstLevel() {
+        this.generation.incrementAndGet();
+        return this.firstLevel;
+    }
+}
@@ -20,6 +20,8 @@ package org.opengroup.osdu.core.common.cache;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class VmCache<K, V> implements ICache<K, V> {
@@ -27,9 +29,21 @@ public class VmCache<K, V> implements ICache<K, V> {
     private final Cache<K, V> cache;
 
     public VmCache(int cacheExpirationSeconds, int maximumCacheSize) {
+        this(cacheExpirationSeconds, maximumCacheSize, false);
+    }
 
-        this.cache = CacheBuilder.newBuilder().expireAfterAccess(cacheExpirationSeconds, TimeUnit.SECONDS)
-                .maximumSize(maximumCacheSize).build();
+    /**
+     * @param expireAfterWrite expire entries a fixed time after they were written instead of after their
+     *                         last access, for values that must not outlive a TTL however often they are read
+     */
+    public VmCache(int cacheExpirationSeconds, int maximumCacheSize, boolean expireAfterWrite) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (expireAfterWrite) {
+            builder.expireAfterWrite(cacheExpirationSeconds, TimeUnit.SECONDS);
+        } else {
+            builder.expireAfterAccess(cacheExpirationSeconds, TimeUnit.SECONDS);
+        }
+        this.cache = builder.maximumSize(maximumCacheSize).build();
     }
 
     @Override
@@ -51,4 +65,24 @@ public class VmCache<K, V> implements ICache<K, V> {
     public void clearAll() {
         this.cache.invalidateAll();
     }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        return this.cache.getAllPresent(keys);
+    }
+
+    @Override
+    public void putAll(Map<K, V> values) {
+        this.cache.putAll(values);
+    }
+
+    @Override
+    public void deleteAll(Collection<K> keys) {
+        this.cache.invalidateAll(keys);
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        this.cache.asMap().keySet().removeIf(k -> k instanceof String && ((String) k).startsWith(prefix));
+    }
 }
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryResponse;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.core.common.model.crs.Point;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent {@link #convertPoints} calls that share the same from/to CRS into one call
+ * on the wrapped service, then hands each caller back its own slice of the merged response.
+ * A batch is sent when its window elapses or it reaches the configured number of points. When a
+ * merged call fails, each request of the batch is retried on its own so one caller's bad input does
+ * not fail the others.
+ * <p>
+ * The converter service sends the caller's headers, so batches never mix caller identities.
+ * Created from an {@link ICrsConverterFactory}, one instance can be shared by every request:
+ * {@link #forCaller(DpsHeaders)} gives the view to use for a request, and only calls with the
+ * same partition and authorization share a batch. Created from a single
+ * {@link ICrsConverterService}, the instance is bound to the identity that service was created
+ * with and must not outlive that request.
+ */
+public class BatchingCrsConverterService implements ICrsConverterService, AutoCloseable {
+
+    private final ICrsConverterService delegate;
+    private final ICrsConverterFactory factory;
+    private final CrsBatchingConfig config;
+    private final ScheduledExecutorService windowScheduler;
+    private final ExecutorService dispatcher;
+    private final Map<String, Batch> openBatches = new HashMap<>();
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+    // guarded by openBatches
+    private boolean closed;
+
+    public BatchingCrsConverterService(ICrsConverterService delegate) {
+        this(delegate, CrsBatchingConfig.Default());
+    }
+
+    public BatchingCrsConverterService(ICrsConverterService delegate, CrsBatchingConfig config) {
+        this(notEmpty(delegate, "ICrsConverterService"), null, config);
+    }
+
+    public BatchingCrsConverterService(ICrsConverterFactory factory, CrsBatchingConfig config) {
+        this(null, notEmpty(factory, "ICrsConverterFactory"), config);
+    }
+
+    private BatchingCrsConverterService(ICrsConverterService delegate, ICrsConverterFactory factory,
+                                        CrsBatchingConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("CrsBatchingConfig cannot be empty");
+        }
+        this.delegate = delegate;
+        this.factory = factory;
+        this.config = config;
+        this.windowScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crs-batch-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        int inFlight = Math.max(1, config.getMaxInFlightBatches());
+        this.dispatcher = new ThreadPoolExecutor(inFlight, inFlight, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, config.getMaxQueuedBatches())), runnable -> {
+            Thread thread = new Thread(runnable, "crs-batch-dispatch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+        return await(submit(request));
+    }
+
+    /**
+     * Converter for one request's caller. Its point conversions are batched with those of other
+     * callers that have the same partition and authorization.
+     */
+    public ICrsConverterService forCaller(DpsHeaders headers) {
+        if (this.factory == null) {
+            throw new IllegalStateException("BatchingCrsConverterService was created for a single caller");
+        }
+        if (headers == null) {
+            throw new IllegalArgumentException("headers cannot be empty");
+        }
+        String identity = headers.getPartitionIdWithFallbackToAccountId() + '\n' + headers.getAuthorization();
+        return new ICrsConverterService() {
+            @Override
+            public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+                return await(submit(identity, () -> factory.create(headers), request));
+            }
+
+            @Override
+            public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request)
+                    throws CrsConverterException {
+                return factory.create(headers).convertTrajectory(request);
+            }
+        };
+    }
+
+    /**
+     * Queues the request for the next batch of its CRS pair. Requests that alone reach the
+     * batch size limit are sent on their own. The returned future fails with an
+     * {@link IllegalStateException} once this instance is closed.
+     */
+    public CompletableFuture<ConvertPointsResponse> submit(ConvertPointsRequest request) {
+        return submit("", this::singleCaller, request);
+    }
+
+    private ConvertPointsResponse await(CompletableFuture<ConvertPointsResponse> result)
+            throws CrsConverterException {
+        try {
+            return result.get(this.config.getAwaitTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new CrsConverterException("Timed out waiting for a CRS conversion batch", errorResponse(504));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a CRS conversion batch", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CrsConverterException) {
+                throw (CrsConverterException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private CompletableFuture<ConvertPointsResponse> submit(String identity, Supplier<ICrsConverterService> delegate,
+                                                            ConvertPointsRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("ConvertPointsRequest cannot be empty");
+        }
+        Pending pending = new Pending(request);
+        int size = pending.size();
+        String key = identity + '\n' + request.getFromCRS() + '\n' + request.getToCRS();
+        // dispatching under the lock keeps close() from shutting the dispatcher down in between
+        synchronized (this.openBatches) {
+            if (this.closed) {
+                pending.result.completeExceptionally(
+                        new IllegalStateException("BatchingCrsConverterService is closed"));
+                return pending.result;
+            }
+            if (size >= this.config.getMaxPointsPerBatch()) {
+                Batch single = new Batch(delegate.get(), request.getFromCRS(), request.getToCRS());
+                single.add(pending);
+                dispatch(single);
+                return pending.result;
+            }
+            Batch batch = this.openBatches.get(key);
+            if (batch != null && batch.points + size > this.config.getMaxPointsPerBatch()) {
+                this.openBatches.remove(key);
+                dispatch(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(delegate.get(), request.getFromCRS(), request.getToCRS());
+                this.openBatches.put(key, batch);
+                Batch scheduled = batch;
+                this.windowScheduler.schedule(() -> closeWindow(key, scheduled),
+                        this.config.getBatchWindowMillis(), TimeUnit.MILLISECONDS);
+            }
+            batch.add(pending);
+            if (batch.points >= this.config.getMaxPointsPerBatch()) {
+                this.openBatches.remove(key);
+                dispatch(batch);
+            }
+        }
+        return pending.result;
+    }
+
+    @Override
+    public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) throws CrsConverterException {
+        return singleCaller().convertTrajectory(request);
+    }
+
+    /**
+     * Number of calls made on the wrapped service so far.
+     */
+    public int getRemoteCallCount() {
+        return this.remoteCalls.get();
+    }
+
+    /**
+     * Sends every open batch and rejects new work; batches already sent still complete.
+     */
+    @Override
+    public void close() {
+        synchronized (this.openBatches) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.openBatches.values().forEach(this::dispatch);
+            this.openBatches.clear();
+        }
+        this.windowScheduler.shutdownNow();
+        this.dispatcher.shutdown();
+    }
+
+    private ICrsConverterService singleCaller() {
+        if (this.delegate == null) {
+            throw new IllegalStateException("BatchingCrsConverterService is shared; use forCaller(headers)");
+        }
+        return this.delegate;
+    }
+
+    private void closeWindow(String key, Batch batch) {
+        synchronized (this.openBatches) {
+            if (this.openBatches.remove(key, batch)) {
+                dispatch(batch);
+            }
+        }
+    }
+
+    private static <T> T notEmpty(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " cannot be empty");
+        }
+        return value;
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            this.dispatcher.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            CrsConverterException busy = new CrsConverterException(
+                    "Too many CRS conversion batches are waiting", errorResponse(503));
+            batch.requests.forEach(pending -> pending.result.completeExceptionally(busy));
+        }
+    }
+
+    private void send(Batch batch) {
+        if (batch.requests.size() == 1) {
+            sendAlone(batch, batch.requests.get(0));
+            return;
+        }
+        List<Point> points = new ArrayList<>(batch.points);
+        for (Pending pending : batch.requests) {
+            if (pending.request.getPoints() != null) {
+                points.addAll(pending.request.getPoints());
+            }
+        }
+        try {
+            this.remoteCalls.incrementAndGet();
+            ConvertPointsResponse merged = batch.delegate.convertPoints(
+                    new ConvertPointsRequest(batch.fromCRS, batch.toCRS, points));
+            split(batch, merged);
+        } catch (Exception e) {
+            // the failure may come from a single caller's points; give every request its own answer
+            batch.requests.forEach(pending -> sendAlone(batch, pending));
+        }
+    }
+
+    private void sendAlone(Batch batch, Pending pending) {
+        try {
+            this.remoteCalls.incrementAndGet();
+            pending.result.complete(batch.delegate.convertPoints(pending.request));
+        } catch (Exception e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private static HttpResponse errorResponse(int responseCode) {
+        HttpResponse response = new HttpResponse();
+        response.setResponseCode(responseCode);
+        return response;
+    }
+
+    private static void split(Batch batch, ConvertPointsResponse merged) throws CrsConverterException {
+        List<Point> converted = merged.getPoints();
+        if (converted == null || converted.size() != batch.points) {
+            throw new CrsConverterException(String.format(
+                    "CrsConverter returned %s points for a batch of %s",
+                    converted == null ? 0 : converted.size(), batch.points), null);
+        }
+        int offset = 0;
+        for (Pending pending : batch.requests) {
+            List<Point> slice = new ArrayList<>(converted.subList(offset, offset + pending.size()));
+            offset += pending.size();
+            int successCount = 0;
+            for (Point point : slice) {
+                if (Point.isValid(point)) {
+                    successCount++;
+                }
+            }
+            pending.result.complete(new ConvertPointsResponse(successCount, slice, merged.getOperationsApplied()));
+        }
+    }
+
+    private static class Batch {
+        // created with the headers of the first caller; every caller in the batch shares its identity
+        final ICrsConverterService delegate;
+        final String fromCRS;
+        final String toCRS;
+        final List<Pending> requests = new ArrayList<>();
+        int points;
+
+        Batch(ICrsConverterService delegate, String fromCRS, String toCRS) {
+            this.delegate = delegate;
+            this.fromCRS = fromCRS;
+            this.toCRS = toCRS;
+        }
+
+        void add(Pending pending) {
+            this.requests.add(pending);
+            this.points += pending.size();
+        }
+    }
+
+    private static class Pending {
+        final ConvertPointsRequest request;
+        final CompletableFuture<ConvertPointsResponse> result = new CompletableFuture<>();
+
+        Pending(ConvertPointsRequest request) {
+            this.request = request;
+        }
+
+        int size() {
+            return this.request.getPoints() == null ? 0 : this.request.getPoints().size();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class CrsBatchingConfig {
+    /**
+     * How long the first request of a batch waits for others with the same CRS pair.
+     */
+    @Builder.Default
+    long batchWindowMillis = 5;
+
+    /**
+     * A batch is sent as soon as it holds this many points.
+     */
+    @Builder.Default
+    int maxPointsPerBatch = 1000;
+
+    /**
+     * Number of merged calls that may be outstanding against the converter service at once.
+     */
+    @Builder.Default
+    int maxInFlightBatches = 8;
+
+    /**
+     * Batches waiting for a free slot. Further batches fail at once with a 503 so callers back off
+     * instead of piling up behind a slow converter service.
+     */
+    @Builder.Default
+    int maxQueuedBatches = 64;
+
+    /**
+     * How long {@link BatchingCrsConverterService#convertPoints} waits for its batch before failing
+     * with a 504.
+     */
+    @Builder.Default
+    long awaitTimeoutMillis = 30_000;
+
+    public static CrsBatchingConfig Default() {
+        return CrsBatchingConfig.builder().build();
+    }
+}
@@ -28,6 +28,13 @@ public class CrsConverterAPIConfig {
 
     String apiKey;
 
+    /**
+     * Converts points between well-known EPSG systems in process and only calls the
+     * service for everything else.
+     */
+    @Builder.Default
+    boolean localConversionEnabled = false;
+
     public static CrsConverterAPIConfig Default() {
         return CrsConverterAPIConfig.builder().build();
     }
@@ -19,16 +19,28 @@ package org.opengroup.osdu.core.common.crs;
 
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.IHttpClient;
 
 public class CrsConverterFactory implements ICrsConverterFactory {
 
     private final CrsConverterAPIConfig config;
+    private final IHttpClient httpClient;
 
     public CrsConverterFactory(CrsConverterAPIConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param httpClient shared client used by every created service, e.g. one wrapped by a
+     *                   {@link org.opengroup.osdu.core.common.http.ResilienceRegistry}; a new
+     *                   {@link HttpClient} is created per service when null
+     */
+    public CrsConverterFactory(CrsConverterAPIConfig config, IHttpClient httpClient) {
         if (config == null) {
             throw new IllegalArgumentException("CrsConverterAPIConfig cannot be empty");
         }
         this.config = config;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -36,6 +48,8 @@ public class CrsConverterFactory implements ICrsConverterFactory {
         if (headers == null) {
             throw new NullPointerException("headers cannot be null");
         }
-        return new CrsConverterService(this.config, new HttpClient(), headers);
+        ICrsConverterService service = new CrsConverterService(this.config,
+                this.httpClient != null ? this.httpClient : new HttpClient(), headers);
+        return this.config.isLocalConversionEnabled() ? new LocalCrsConverterService(service) : service;
     }
 }
@@ -44,14 +44,18 @@ public class CrsConverterService implements ICrsConverterService {
     @Override
     public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
         String url = this.createUrl("/convert");
-        HttpResponse result = this.httpClient.send(HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).build());
+        HttpResponse result = this.httpClient.send(
+                HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).idempotent(true).build(),
+                ConvertPointsResponse.class);
         return this.getResult(result, ConvertPointsResponse.class);
     }
 
     @Override
     public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) throws CrsConverterException {
         String url = this.createUrl("/convertTrajectory");
-        HttpResponse result = this.httpClient.send(HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).build());
+        HttpResponse result = this.httpClient.send(
+                HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).idempotent(true).build(),
+                ConvertTrajectoryResponse.class);
         return this.getResult(result, ConvertTrajectoryResponse.class);
     }
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+/**
+ * A coordinate reference system the local engine can handle: a datum, given by its ellipsoid and shift to
+ * WGS 84, and for projected systems the projection and the size of the linear unit in metres.
+ */
+final class CrsDefinition {
+    final String name;
+    final String datum;
+    final Ellipsoid ellipsoid;
+    final Helmert toWgs84;
+    final MapProjection projection;
+    final double metresPerUnit;
+
+    private CrsDefinition(String name, String datum, Ellipsoid ellipsoid, Helmert toWgs84, MapProjection projection,
+                          double metresPerUnit) {
+        this.name = name;
+        this.datum = datum;
+        this.ellipsoid = ellipsoid;
+        this.toWgs84 = toWgs84;
+        this.projection = projection;
+        this.metresPerUnit = metresPerUnit;
+    }
+
+    static CrsDefinition geographic(String name, Ellipsoid ellipsoid, Helmert toWgs84) {
+        return new CrsDefinition(name, name, ellipsoid, toWgs84, null, 1);
+    }
+
+    CrsDefinition projected(String name, MapProjection projection) {
+        return projected(name, projection, 1);
+    }
+
+    CrsDefinition projected(String name, MapProjection projection, double metresPerUnit) {
+        return new CrsDefinition(name, datum, ellipsoid, toWgs84, projection, metresPerUnit);
+    }
+
+    boolean isProjected() {
+        return projection != null;
+    }
+
+    boolean sameDatum(CrsDefinition other) {
+        return ellipsoid == other.ellipsoid && toWgs84.sameParameters(other.toWgs84);
+    }
+}
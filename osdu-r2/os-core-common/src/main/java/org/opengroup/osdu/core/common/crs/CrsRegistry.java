@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.Locale;
+
+/**
+ * Parameter table of the coordinate reference systems handled in-process, looked up by EPSG code. CRS
+ * references may be given as "EPSG:code" or as a late-bound persistable reference carrying an EPSG
+ * authCode. Early-bound references name their own transformation, which is left to the remote service.
+ */
+final class CrsRegistry {
+
+    private static final String EPSG = "EPSG";
+
+    static final CrsDefinition WGS84 = CrsDefinition.geographic("WGS 84", Ellipsoid.WGS84, Helmert.IDENTITY);
+    static final CrsDefinition NAD83 = CrsDefinition.geographic("NAD83", Ellipsoid.GRS80, Helmert.IDENTITY);
+    static final CrsDefinition ETRS89 = CrsDefinition.geographic("ETRS89", Ellipsoid.GRS80, Helmert.IDENTITY);
+    static final CrsDefinition RGF93 = CrsDefinition.geographic("RGF93", Ellipsoid.GRS80, Helmert.IDENTITY);
+    static final CrsDefinition NAD27 = CrsDefinition.geographic("NAD27", Ellipsoid.CLARKE_1866,
+            Helmert.translation("NAD27 to WGS 84 (4) [EPSG:1173]", -8, 160, 176));
+    static final CrsDefinition ED50 = CrsDefinition.geographic("ED50", Ellipsoid.INTERNATIONAL_1924,
+            Helmert.translation("ED50 to WGS 84 (1) [EPSG:1133]", -87, -98, -121));
+    static final CrsDefinition OSGB36 = CrsDefinition.geographic("OSGB36", Ellipsoid.AIRY_1830,
+            new Helmert("OSGB36 to WGS 84 (6) [EPSG:1314]", 446.448, -125.157, 542.06, 0.15, 0.247, 0.842, -20.489));
+
+    private static final double US_SURVEY_FOOT = 1200.0 / 3937.0;
+
+    private CrsRegistry() {
+    }
+
+    /**
+     * @return the definition, or null when the reference is not one the local engine handles
+     */
+    static CrsDefinition resolve(String reference) {
+        Integer code = epsgCode(reference);
+        return code == null ? null : byEpsgCode(code);
+    }
+
+    static CrsDefinition byEpsgCode(int code) {
+        switch (code) {
+            case 4326:
+                return WGS84;
+            case 4269:
+                return NAD83;
+            case 4258:
+                return ETRS89;
+            case 4171:
+                return RGF93;
+            case 4267:
+                return NAD27;
+            case 4230:
+                return ED50;
+            case 4277:
+                return OSGB36;
+            case 27700:
+                return OSGB36.projected("OSGB36 / British National Grid", new TransverseMercator(Ellipsoid.AIRY_1830,
+                        Math.toRadians(49), Math.toRadians(-2), 0.9996012717, 400000, -100000));
+            case 2154:
+                return RGF93.projected("RGF93 / Lambert-93", LambertConformalConic.twoParallels(Ellipsoid.GRS80,
+                        Math.toRadians(49), Math.toRadians(44), Math.toRadians(46.5), Math.toRadians(3), 700000, 6600000));
+            case 3034:
+                return ETRS89.projected("ETRS89 / LCC Europe", LambertConformalConic.twoParallels(Ellipsoid.GRS80,
+                        Math.toRadians(35), Math.toRadians(65), Math.toRadians(52), Math.toRadians(10), 4000000, 2800000));
+            case 32040:
+                return NAD27.projected("NAD27 / Texas South Central", LambertConformalConic.twoParallels(Ellipsoid.CLARKE_1866,
+                        Math.toRadians(28 + 23 / 60.0), Math.toRadians(30 + 17 / 60.0), Math.toRadians(27 + 50 / 60.0),
+                        Math.toRadians(-99), 2000000 * US_SURVEY_FOOT, 0), US_SURVEY_FOOT);
+            default:
+                return utm(code);
+        }
+    }
+
+    private static CrsDefinition utm(int code) {
+        if (code >= 32601 && code <= 32660) {
+            return utm(WGS84, code - 32600, true);
+        }
+        if (code >= 32701 && code <= 32760) {
+            return utm(WGS84, code - 32700, false);
+        }
+        if (code >= 26903 && code <= 26923) {
+            return utm(NAD83, code - 26900, true);
+        }
+        if (code >= 26703 && code <= 26722) {
+            return utm(NAD27, code - 26700, true);
+        }
+        if (code >= 23028 && code <= 23038) {
+            return utm(ED50, code - 23000, true);
+        }
+        if (code >= 25828 && code <= 25838) {
+            return utm(ETRS89, code - 25800, true);
+        }
+        return null;
+    }
+
+    private static CrsDefinition utm(CrsDefinition datum, int zone, boolean north) {
+        String name = String.format("%s / UTM zone %d%s", datum.name, zone, north ? "N" : "S");
+        return datum.projected(name, TransverseMercator.utm(datum.ellipsoid, zone, north));
+    }
+
+    static Integer epsgCode(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        String trimmed = reference.trim();
+        if (trimmed.startsWith("{")) {
+            return epsgCodeFromPersistableReference(trimmed);
+        }
+        String upper = trimmed.toUpperCase(Locale.ROOT);
+        if (upper.startsWith("URN:OGC:DEF:CRS:EPSG:")) {
+            upper = upper.substring("URN:OGC:DEF:CRS:".length());
+        }
+        if (!upper.startsWith(EPSG + ":")) {
+            return null;
+        }
+        // "EPSG:4326" or "EPSG::4326"
+        String code = upper.substring(EPSG.length()).replaceFirst("^:+", "");
+        return parseCode(code);
+    }
+
+    private static Integer epsgCodeFromPersistableReference(String json) {
+        JsonObject reference;
+        try {
+            reference = new JsonParser().parse(json).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            return null;
+        }
+        JsonElement type = reference.get("type");
+        if (type != null && type.isJsonPrimitive() && !"LBC".equalsIgnoreCase(type.getAsString())) {
+            return null;
+        }
+        JsonElement authCode = reference.get("authCode");
+        if (authCode == null || !authCode.isJsonObject()) {
+            return null;
+        }
+        JsonElement auth = authCode.getAsJsonObject().get("auth");
+        JsonElement code = authCode.getAsJsonObject().get("code");
+        if (auth == null || code == null || !auth.isJsonPrimitive() || !code.isJsonPrimitive()
+                || !EPSG.equalsIgnoreCase(auth.getAsString())) {
+            return null;
+        }
+        return parseCode(code.getAsString());
+    }
+
+    private static Integer parseCode(String code) {
+        try {
+            return Integer.valueOf(code.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
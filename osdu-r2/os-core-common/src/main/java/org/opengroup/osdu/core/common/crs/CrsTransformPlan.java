@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chain of steps converting coordinates from one CRS to another: inverse projection, datum shift through
+ * WGS 84 when the datums differ, then forward projection. Geographic coordinates are x = longitude and
+ * y = latitude in degrees; projected ones are in the unit of the CRS. Heights are not changed.
+ */
+final class CrsTransformPlan {
+
+    private final CrsDefinition source;
+    private final CrsDefinition target;
+    private final boolean shiftDatum;
+    private final List<String> operations;
+
+    CrsTransformPlan(CrsDefinition source, CrsDefinition target) {
+        this.source = source;
+        this.target = target;
+        this.shiftDatum = !source.sameDatum(target);
+        List<String> steps = new ArrayList<>();
+        if (source.isProjected()) {
+            steps.add(String.format("conversion from %s to %s", source.name, source.datum));
+        }
+        if (shiftDatum) {
+            if (!source.toWgs84.isIdentity()) {
+                steps.add("transformation " + source.toWgs84.name);
+            }
+            if (!target.toWgs84.isIdentity()) {
+                steps.add("inverse transformation " + target.toWgs84.name);
+            }
+        }
+        if (target.isProjected()) {
+            steps.add(String.format("conversion from %s to %s", target.datum, target.name));
+        }
+        this.operations = Collections.unmodifiableList(steps);
+    }
+
+    List<String> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Transforms the first {@code count} points in place.
+     */
+    void transform(double[] x, double[] y, int count) {
+        if (source.isProjected()) {
+            scale(x, y, count, source.metresPerUnit);
+            source.projection.inverse(x, y, count);
+        } else {
+            toRadians(x, y, count);
+        }
+        if (shiftDatum) {
+            double[] h = new double[count];
+            source.ellipsoid.toGeocentric(x, y, h, count);
+            source.toWgs84.toWgs84(x, y, h, count);
+            target.toWgs84.fromWgs84(x, y, h, count);
+            target.ellipsoid.toGeographic(x, y, h, count);
+        }
+        if (target.isProjected()) {
+            target.projection.forward(x, y, count);
+            scale(x, y, count, 1 / target.metresPerUnit);
+        } else {
+            toDegrees(x, y, count);
+        }
+    }
+
+    private static void scale(double[] x, double[] y, int count, double factor) {
+        if (factor == 1) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            x[i] *= factor;
+            y[i] *= factor;
+        }
+    }
+
+    private static void toRadians(double[] x, double[] y, int count) {
+        for (int i = 0; i < count; i++) {
+            x[i] = Math.toRadians(x[i]);
+            y[i] = Math.toRadians(y[i]);
+        }
+    }
+
+    private static void toDegrees(double[] x, double[] y, int count) {
+        for (int i = 0; i < count; i++) {
+            x[i] = Math.toDegrees(x[i]);
+            y[i] = Math.toDegrees(y[i]);
+        }
+    }
+}
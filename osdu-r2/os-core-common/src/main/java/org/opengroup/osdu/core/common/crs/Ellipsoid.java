@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+/**
+ * Reference ellipsoid given by its semi-major axis in metres and its flattening.
+ */
+final class Ellipsoid {
+    static final Ellipsoid WGS84 = new Ellipsoid("WGS 84", 6378137.0, 1 / 298.257223563);
+    static final Ellipsoid GRS80 = new Ellipsoid("GRS 1980", 6378137.0, 1 / 298.257222101);
+    static final Ellipsoid CLARKE_1866 = new Ellipsoid("Clarke 1866", 6378206.4, 1 / 294.9786982);
+    static final Ellipsoid INTERNATIONAL_1924 = new Ellipsoid("International 1924", 6378388.0, 1 / 297.0);
+    static final Ellipsoid AIRY_1830 = new Ellipsoid("Airy 1830", 6377563.396, 1 / 299.3249646);
+
+    final String name;
+    final double a;
+    final double f;
+    final double e2;
+    final double e;
+
+    Ellipsoid(String name, double a, double f) {
+        this.name = name;
+        this.a = a;
+        this.f = f;
+        this.e2 = f * (2 - f);
+        this.e = Math.sqrt(e2);
+    }
+
+    /**
+     * Geographic (radians, metres above the ellipsoid) to geocentric cartesian, in place.
+     */
+    void toGeocentric(double[] lon, double[] lat, double[] h, int count) {
+        for (int i = 0; i < count; i++) {
+            double sinLat = Math.sin(lat[i]);
+            double cosLat = Math.cos(lat[i]);
+            double n = a / Math.sqrt(1 - e2 * sinLat * sinLat);
+            double height = h[i];
+            double x = (n + height) * cosLat * Math.cos(lon[i]);
+            double y = (n + height) * cosLat * Math.sin(lon[i]);
+            double z = (n * (1 - e2) + height) * sinLat;
+            lon[i] = x;
+            lat[i] = y;
+            h[i] = z;
+        }
+    }
+
+    /**
+     * Geocentric cartesian to geographic (radians, metres above the ellipsoid), in place.
+     */
+    void toGeographic(double[] x, double[] y, double[] z, int count) {
+        for (int i = 0; i < count; i++) {
+            double p = Math.hypot(x[i], y[i]);
+            double lat = Math.atan2(z[i], p * (1 - e2));
+            double height = 0;
+            for (int iteration = 0; iteration < 6; iteration++) {
+                double sinLat = Math.sin(lat);
+                double n = a / Math.sqrt(1 - e2 * sinLat * sinLat);
+                height = p / Math.cos(lat) - n;
+                lat = Math.atan2(z[i], p * (1 - e2 * n / (n + height)));
+            }
+            double lon = Math.atan2(y[i], x[i]);
+            x[i] = lon;
+            y[i] = lat;
+            z[i] = height;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import java.util.Arrays;
+
+/**
+ * Seven parameter datum shift to WGS 84 in the position vector convention (EPSG method 9606):
+ * translations in metres, rotations in arc-seconds, scale in parts per million. Three parameter
+ * shifts leave rotations and scale at zero.
+ */
+final class Helmert {
+    private static final double ARC_SECONDS_TO_RADIANS = Math.PI / (180 * 3600);
+
+    static final Helmert IDENTITY = new Helmert(null, 0, 0, 0, 0, 0, 0, 0);
+
+    final String name;
+    private final double tx;
+    private final double ty;
+    private final double tz;
+    private final double rx;
+    private final double ry;
+    private final double rz;
+    private final double scale;
+    private final double[] parameters;
+
+    Helmert(String name, double tx, double ty, double tz, double rxSeconds, double rySeconds, double rzSeconds, double ppm) {
+        this.name = name;
+        this.tx = tx;
+        this.ty = ty;
+        this.tz = tz;
+        this.rx = rxSeconds * ARC_SECONDS_TO_RADIANS;
+        this.ry = rySeconds * ARC_SECONDS_TO_RADIANS;
+        this.rz = rzSeconds * ARC_SECONDS_TO_RADIANS;
+        this.scale = 1 + ppm * 1e-6;
+        this.parameters = new double[]{tx, ty, tz, rxSeconds, rySeconds, rzSeconds, ppm};
+    }
+
+    static Helmert translation(String name, double tx, double ty, double tz) {
+        return new Helmert(name, tx, ty, tz, 0, 0, 0, 0);
+    }
+
+    boolean isIdentity() {
+        return tx == 0 && ty == 0 && tz == 0 && rx == 0 && ry == 0 && rz == 0 && scale == 1;
+    }
+
+    boolean sameParameters(Helmert other) {
+        return Arrays.equals(parameters, other.parameters);
+    }
+
+    void toWgs84(double[] x, double[] y, double[] z, int count) {
+        for (int i = 0; i < count; i++) {
+            double xi = x[i];
+            double yi = y[i];
+            double zi = z[i];
+            x[i] = tx + scale * (xi - rz * yi + ry * zi);
+            y[i] = ty + scale * (rz * xi + yi - rx * zi);
+            z[i] = tz + scale * (-ry * xi + rx * yi + zi);
+        }
+    }
+
+    /**
+     * Exact inverse of {@link #toWgs84}, solving the small rotation matrix rather than negating parameters.
+     */
+    void fromWgs84(double[] x, double[] y, double[] z, int count) {
+        // R = I + S with S skew-symmetric; R^-1 = (I + w w^T - S) / (1 + |w|^2) for w = (rx, ry, rz)
+        double norm = 1 + rx * rx + ry * ry + rz * rz;
+        for (int i = 0; i < count; i++) {
+            double xi = (x[i] - tx) / scale;
+            double yi = (y[i] - ty) / scale;
+            double zi = (z[i] - tz) / scale;
+            double dot = rx * xi + ry * yi + rz * zi;
+            x[i] = (xi + rx * dot + rz * yi - ry * zi) / norm;
+            y[i] = (yi + ry * dot - rz * xi + rx * zi) / norm;
+            z[i] = (zi + rz * dot + ry * xi - rx * yi) / norm;
+        }
+    }
+}
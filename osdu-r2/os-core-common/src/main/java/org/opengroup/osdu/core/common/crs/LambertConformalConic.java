@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+/**
+ * Lambert Conic Conformal, one standard parallel (EPSG method 9801) or two (EPSG method 9802).
+ */
+final class LambertConformalConic implements MapProjection {
+
+    private final double e;
+    private final double lonOrigin;
+    private final double falseEasting;
+    private final double falseNorthing;
+    private final double n;
+    private final double aF;
+    private final double rOrigin;
+
+    private LambertConformalConic(Ellipsoid ellipsoid, double lonOrigin, double falseEasting, double falseNorthing,
+                                  double n, double aF, double rOrigin) {
+        this.e = ellipsoid.e;
+        this.lonOrigin = lonOrigin;
+        this.falseEasting = falseEasting;
+        this.falseNorthing = falseNorthing;
+        this.n = n;
+        this.aF = aF;
+        this.rOrigin = rOrigin;
+    }
+
+    /**
+     * Two standard parallels; all angles in radians.
+     */
+    static LambertConformalConic twoParallels(Ellipsoid ellipsoid, double lat1, double lat2, double latOrigin,
+                                              double lonOrigin, double falseEasting, double falseNorthing) {
+        double m1 = m(ellipsoid, lat1);
+        double m2 = m(ellipsoid, lat2);
+        double t1 = t(ellipsoid, lat1);
+        double t2 = t(ellipsoid, lat2);
+        double n = lat1 == lat2 ? Math.sin(lat1) : (Math.log(m1) - Math.log(m2)) / (Math.log(t1) - Math.log(t2));
+        double aF = ellipsoid.a * m1 / (n * Math.pow(t1, n));
+        double rOrigin = aF * Math.pow(t(ellipsoid, latOrigin), n);
+        return new LambertConformalConic(ellipsoid, lonOrigin, falseEasting, falseNorthing, n, aF, rOrigin);
+    }
+
+    /**
+     * One standard parallel at the natural origin, with its scale factor; angles in radians.
+     */
+    static LambertConformalConic oneParallel(Ellipsoid ellipsoid, double latOrigin, double lonOrigin, double k0,
+                                             double falseEasting, double falseNorthing) {
+        double n = Math.sin(latOrigin);
+        double t0 = t(ellipsoid, latOrigin);
+        double aF = ellipsoid.a * m(ellipsoid, latOrigin) / (n * Math.pow(t0, n)) * k0;
+        double rOrigin = aF * Math.pow(t0, n);
+        return new LambertConformalConic(ellipsoid, lonOrigin, falseEasting, falseNorthing, n, aF, rOrigin);
+    }
+
+    @Override
+    public void forward(double[] lonToEasting, double[] latToNorthing, int count) {
+        for (int i = 0; i < count; i++) {
+            double r = aF * Math.pow(t(latToNorthing[i]), n);
+            double theta = n * (lonToEasting[i] - lonOrigin);
+            lonToEasting[i] = falseEasting + r * Math.sin(theta);
+            latToNorthing[i] = falseNorthing + rOrigin - r * Math.cos(theta);
+        }
+    }
+
+    @Override
+    public void inverse(double[] eastingToLon, double[] northingToLat, int count) {
+        for (int i = 0; i < count; i++) {
+            double dx = eastingToLon[i] - falseEasting;
+            double dy = rOrigin - (northingToLat[i] - falseNorthing);
+            double r = Math.copySign(Math.hypot(dx, dy), n);
+            double theta = n > 0 ? Math.atan2(dx, dy) : Math.atan2(-dx, -dy);
+            double tPrime = Math.pow(r / aF, 1 / n);
+            double lat = Math.PI / 2 - 2 * Math.atan(tPrime);
+            for (int iteration = 0; iteration < 15; iteration++) {
+                double eSinLat = e * Math.sin(lat);
+                double next = Math.PI / 2 - 2 * Math.atan(tPrime * Math.pow((1 - eSinLat) / (1 + eSinLat), e / 2));
+                boolean converged = Math.abs(next - lat) < 1e-14;
+                lat = next;
+                if (converged) {
+                    break;
+                }
+            }
+            eastingToLon[i] = theta / n + lonOrigin;
+            northingToLat[i] = lat;
+        }
+    }
+
+    private double t(double lat) {
+        double eSinLat = e * Math.sin(lat);
+        return Math.tan(Math.PI / 4 - lat / 2) / Math.pow((1 - eSinLat) / (1 + eSinLat), e / 2);
+    }
+
+    private static double t(Ellipsoid ellipsoid, double lat) {
+        double eSinLat = ellipsoid.e * Math.sin(lat);
+        return Math.tan(Math.PI / 4 - lat / 2) / Math.pow((1 - eSinLat) / (1 + eSinLat), ellipsoid.e / 2);
+    }
+
+    private static double m(Ellipsoid ellipsoid, double lat) {
+        double sinLat = Math.sin(lat);
+        return Math.cos(lat) / Math.sqrt(1 - ellipsoid.e2 * sinLat * sinLat);
+    }
+}
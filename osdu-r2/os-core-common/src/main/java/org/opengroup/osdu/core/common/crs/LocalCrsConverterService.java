@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryResponse;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.core.common.model.crs.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Converts points in-process for the common CRSs in {@link CrsRegistry}: UTM and Lambert projections on a
+ * handful of datums, with datum shifts from a parameter table. Requests involving any other CRS, and all
+ * trajectory conversions, go to the wrapped remote service.
+ */
+public class LocalCrsConverterService implements ICrsConverterService {
+
+    private static final int MAXIMUM_CACHED_PLANS = 1000;
+    private static final Cache<String, Optional<CrsTransformPlan>> PLANS = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_PLANS)
+            .build();
+
+    private final ICrsConverterService fallback;
+
+    public LocalCrsConverterService(ICrsConverterService fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("fallback CRS converter cannot be empty");
+        }
+        this.fallback = fallback;
+    }
+
+    @Override
+    public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+        CrsTransformPlan plan = getPlan(request.getFromCRS(), request.getToCRS());
+        if (plan == null || request.getPoints() == null) {
+            return fallback.convertPoints(request);
+        }
+        List<Point> points = request.getPoints();
+        int count = points.size();
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            Point point = points.get(i);
+            boolean valid = Point.isValid(point);
+            x[i] = valid ? point.getX() : Double.NaN;
+            y[i] = valid ? point.getY() : Double.NaN;
+        }
+        plan.transform(x, y, count);
+
+        List<Point> converted = new ArrayList<>(count);
+        int successCount = 0;
+        for (int i = 0; i < count; i++) {
+            Point point = points.get(i);
+            if (Double.isFinite(x[i]) && Double.isFinite(y[i]) && Point.isValid(point)) {
+                converted.add(new Point(x[i], y[i], point.getZ()));
+                successCount++;
+            } else {
+                converted.add(new Point());
+            }
+        }
+        return new ConvertPointsResponse(successCount, converted, new ArrayList<>(plan.getOperations()));
+    }
+
+    @Override
+    public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) throws CrsConverterException {
+        return fallback.convertTrajectory(request);
+    }
+
+    /**
+     * Converts {@code count} points held in coordinate arrays in place, without building Point objects.
+     *
+     * @return false, leaving the arrays untouched, when either CRS is not handled locally
+     */
+    public boolean convertPoints(String fromCRS, String toCRS, double[] x, double[] y, int count) {
+        if (count < 0 || count > x.length || count > y.length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        CrsTransformPlan plan = getPlan(fromCRS, toCRS);
+        if (plan == null) {
+            return false;
+        }
+        plan.transform(x, y, count);
+        return true;
+    }
+
+    /**
+     * @return true if points between the two CRSs are converted in-process
+     */
+    public boolean isSupported(String fromCRS, String toCRS) {
+        return getPlan(fromCRS, toCRS) != null;
+    }
+
+    static CrsTransformPlan getPlan(String fromCRS, String toCRS) {
+        if (fromCRS == null || toCRS == null) {
+            return null;
+        }
+        try {
+            // the separator cannot occur in EPSG codes and is escaped in JSON references
+            return PLANS.get(fromCRS + '\n' + toCRS, () -> Optional.ofNullable(createPlan(fromCRS, toCRS))).orElse(null);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static CrsTransformPlan createPlan(String fromCRS, String toCRS) {
+        CrsDefinition source = CrsRegistry.resolve(fromCRS);
+        CrsDefinition target = CrsRegistry.resolve(toCRS);
+        return source == null || target == null ? null : new CrsTransformPlan(source, target);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+/**
+ * Map projection working in place on coordinate arrays: longitude and latitude in radians on one side,
+ * easting and northing in metres on the other.
+ */
+interface MapProjection {
+
+    void forward(double[] lonToEasting, double[] latToNorthing, int count);
+
+    void inverse(double[] eastingToLon, double[] northingToLat, int count);
+}
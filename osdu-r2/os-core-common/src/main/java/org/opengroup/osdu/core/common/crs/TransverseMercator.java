@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+/**
+ * Transverse Mercator (EPSG method 9807) using Krüger's series in the third flattening to fourth order,
+ * which stays at the millimetre level well beyond the width of a UTM zone.
+ */
+final class TransverseMercator implements MapProjection {
+
+    private final double e;
+    private final double lon0;
+    private final double k0;
+    private final double falseEasting;
+    private final double falseNorthing;
+    private final double radius;
+    private final double m0;
+    private final double[] alpha;
+    private final double[] beta;
+
+    /**
+     * @param lat0 latitude of natural origin, radians
+     * @param lon0 longitude of natural origin, radians
+     */
+    TransverseMercator(Ellipsoid ellipsoid, double lat0, double lon0, double k0, double falseEasting, double falseNorthing) {
+        this.e = ellipsoid.e;
+        this.lon0 = lon0;
+        this.k0 = k0;
+        this.falseEasting = falseEasting;
+        this.falseNorthing = falseNorthing;
+        double n = ellipsoid.f / (2 - ellipsoid.f);
+        double n2 = n * n;
+        double n3 = n2 * n;
+        double n4 = n3 * n;
+        this.radius = ellipsoid.a / (1 + n) * (1 + n2 / 4 + n4 / 64);
+        this.alpha = new double[]{
+                n / 2 - 2 * n2 / 3 + 5 * n3 / 16 + 41 * n4 / 180,
+                13 * n2 / 48 - 3 * n3 / 5 + 557 * n4 / 1440,
+                61 * n3 / 240 - 103 * n4 / 140,
+                49561 * n4 / 161280};
+        this.beta = new double[]{
+                n / 2 - 2 * n2 / 3 + 37 * n3 / 96 - n4 / 360,
+                n2 / 48 + n3 / 15 - 437 * n4 / 1440,
+                17 * n3 / 480 - 37 * n4 / 840,
+                4397 * n4 / 161280};
+        double xiPrime0 = Math.atan(conformalTan(lat0));
+        double xi0 = xiPrime0;
+        for (int j = 0; j < alpha.length; j++) {
+            xi0 += alpha[j] * Math.sin(2 * (j + 1) * xiPrime0);
+        }
+        this.m0 = radius * xi0;
+    }
+
+    static TransverseMercator utm(Ellipsoid ellipsoid, int zone, boolean north) {
+        return new TransverseMercator(ellipsoid, 0, Math.toRadians(zone * 6 - 183), 0.9996, 500000,
+                north ? 0 : 10000000);
+    }
+
+    @Override
+    public void forward(double[] lonToEasting, double[] latToNorthing, int count) {
+        for (int i = 0; i < count; i++) {
+            double lambda = lonToEasting[i] - lon0;
+            double tau = conformalTan(latToNorthing[i]);
+            double xiPrime = Math.atan2(tau, Math.cos(lambda));
+            double etaPrime = atanh(Math.sin(lambda) / Math.sqrt(1 + tau * tau));
+            double xi = xiPrime;
+            double eta = etaPrime;
+            for (int j = 0; j < alpha.length; j++) {
+                int k = 2 * (j + 1);
+                xi += alpha[j] * Math.sin(k * xiPrime) * Math.cosh(k * etaPrime);
+                eta += alpha[j] * Math.cos(k * xiPrime) * Math.sinh(k * etaPrime);
+            }
+            lonToEasting[i] = falseEasting + k0 * radius * eta;
+            latToNorthing[i] = falseNorthing + k0 * (radius * xi - m0);
+        }
+    }
+
+    @Override
+    public void inverse(double[] eastingToLon, double[] northingToLat, int count) {
+        for (int i = 0; i < count; i++) {
+            double eta = (eastingToLon[i] - falseEasting) / (k0 * radius);
+            double xi = ((northingToLat[i] - falseNorthing) / k0 + m0) / radius;
+            double xiPrime = xi;
+            double etaPrime = eta;
+            for (int j = 0; j < beta.length; j++) {
+                int k = 2 * (j + 1);
+                xiPrime -= beta[j] * Math.sin(k * xi) * Math.cosh(k * eta);
+                etaPrime -= beta[j] * Math.cos(k * xi) * Math.sinh(k * eta);
+            }
+            double sinhEta = Math.sinh(etaPrime);
+            double cosXi = Math.cos(xiPrime);
+            double tauPrime = Math.sin(xiPrime) / Math.hypot(sinhEta, cosXi);
+            eastingToLon[i] = lon0 + Math.atan2(sinhEta, cosXi);
+            northingToLat[i] = Math.atan(geodeticTan(tauPrime));
+        }
+    }
+
+    // tangent of the conformal latitude
+    private double conformalTan(double lat) {
+        double tau = Math.tan(lat);
+        double sigma = Math.sinh(e * atanh(e * tau / Math.sqrt(1 + tau * tau)));
+        return tau * Math.sqrt(1 + sigma * sigma) - sigma * Math.sqrt(1 + tau * tau);
+    }
+
+    // inverse of conformalTan by Newton's method (Karney 2011)
+    private double geodeticTan(double tauPrime) {
+        double e2m = 1 - e * e;
+        double tau = tauPrime;
+        for (int iteration = 0; iteration < 10; iteration++) {
+            double tau1 = Math.sqrt(1 + tau * tau);
+            double sigma = Math.sinh(e * atanh(e * tau / tau1));
+            double tauPrimeI = tau * Math.sqrt(1 + sigma * sigma) - sigma * tau1;
+            double delta = (tauPrime - tauPrimeI) / Math.sqrt(1 + tauPrimeI * tauPrimeI)
+                    * (1 + e2m * tau * tau) / (e2m * tau1);
+            tau += delta;
+            if (Math.abs(delta) < 1e-14 * Math.max(1, Math.abs(tau))) {
+                break;
+            }
+        }
+        return tau;
+    }
+
+    private static double atanh(double x) {
+        return 0.5 * Math.log((1 + x) / (1 - x));
+    }
+}
@@ -21,13 +21,17 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
-import org.opengroup.osdu.core.common.model.units.IUnit;
-import org.opengroup.osdu.core.common.model.units.ReferenceConverter;
+import com.google.gson.JsonPrimitive;
+import org.opengroup.osdu.core.common.model.units.UnitConversionPlan;
 import org.opengroup.osdu.core.common.model.crs.ConversionRecord;
 import org.opengroup.osdu.core.common.model.crs.ConvertStatus;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public class UnitConversionImpl {
     private static final String KIND = "kind";
@@ -50,13 +54,36 @@ public class UnitConversionImpl {
     public static final String UNIT_CONVERSION_FAILURE = "Unit conversion: failure";
     public static final String NO_UNIT_CONVERSION = "No unit conversion";
 
+    /**
+     * Converts the unit properties of a batch of records to SI. Records are validated one by one as before,
+     * but the values are gathered into one primitive column per unit, each column is converted in a single
+     * pass and the results are then written back in place.
+     */
     public void convertUnitsToSI(List<ConversionRecord> conversionRecords) {
+        Map<UnitConversionPlan, Column> columns = new IdentityHashMap<>();
         for (int i = 0; i < conversionRecords.size(); i++) {
-            this.convertRecordToSIUnits(conversionRecords.get(i));
+            this.collectRecordValues(conversionRecords.get(i), columns);
         }
+        for (Column column : columns.values()) {
+            column.convertAndWriteBack();
+        }
+    }
+
+    /**
+     * Converts a block of values sharing one unit to SI in place.
+     *
+     * @return false, leaving the values untouched, if the persistable reference is not a valid unit
+     */
+    public boolean convertValuesToSI(String persistableReference, double[] values) {
+        UnitConversionPlan unit = UnitConversionPlan.forReference(persistableReference);
+        if (!unit.isValid()) {
+            return false;
+        }
+        unit.convertToSI(values);
+        return true;
     }
 
-    private void convertRecordToSIUnits(ConversionRecord conversionRecord) {
+    private void collectRecordValues(ConversionRecord conversionRecord, Map<UnitConversionPlan, Column> columns) {
         if(null == conversionRecord) {
             return;
         }
@@ -72,6 +99,7 @@ public class UnitConversionImpl {
         }
         boolean hasFailure = false;
         boolean isRecordUpdated = false;
+        Map<String, PendingValue> pendingValues = null;
         Iterator<JsonElement> metaIterator = metaArray.iterator();
         while(metaIterator.hasNext()){
             JsonObject meta = (JsonObject)metaIterator.next();
@@ -110,14 +138,15 @@ public class UnitConversionImpl {
                     continue;
                 }
                 String persistableReference = referenceElement.getAsString();
-                IUnit unit = ReferenceConverter.parseUnitReference(persistableReference);
-                if((null == unit) || (!unit.isValid())){
+                UnitConversionPlan unit = UnitConversionPlan.forReference(persistableReference);
+                if(!unit.isValid()){
                     hasFailure = true;
                     conversionMessages.add(INVALID_REFERENCE);
                     continue;
                 }
                 boolean unitConverted = false;
                 JsonObject data = record.getAsJsonObject(DATA);
+                Column column = columns.computeIfAbsent(unit, Column::new);
                 for(int i = 0; i < propertyArray.size(); i++) {
                     String name = propertyArray.get(i).getAsString();
                     JsonElement valueElement = data.get(name);
@@ -129,9 +158,15 @@ public class UnitConversionImpl {
                     }
                     try {
                         double value = valueElement.getAsDouble();
-                        value = unit.convertToSI(value);
-                        data.remove(name);
-                        data.addProperty(name, value);
+                        if (null == pendingValues) {
+                            pendingValues = new HashMap<>();
+                        }
+                        PendingValue previous = pendingValues.get(name);
+                        if (null != previous) {
+                            // listed again: convert the result of the earlier conversion, as a sequential pass would
+                            value = previous.takeConvertedValue();
+                        }
+                        pendingValues.put(name, new PendingValue(column, column.add(data, name, value)));
                         unitConverted = true;
                         isRecordUpdated = true;
                     }
@@ -172,4 +207,58 @@ public class UnitConversionImpl {
         }
         conversionRecord.setConversionMessages(conversionMessages);
     }
+
+    /**
+     * Values of one unit gathered from a batch, with the property each one is written back to.
+     */
+    private static class Column {
+        private final UnitConversionPlan unit;
+        private double[] values = new double[16];
+        private JsonObject[] targets = new JsonObject[16];
+        private String[] names = new String[16];
+        private int size;
+
+        Column(UnitConversionPlan unit) {
+            this.unit = unit;
+        }
+
+        int add(JsonObject target, String name, double value) {
+            if (size == values.length) {
+                int capacity = size * 2;
+                values = Arrays.copyOf(values, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            values[size] = value;
+            targets[size] = target;
+            names[size] = name;
+            return size++;
+        }
+
+        void convertAndWriteBack() {
+            unit.convertToSI(values, 0, size);
+            for (int i = 0; i < size; i++) {
+                if (null != names[i]) {
+                    // replacing the value keeps the property in place instead of moving it to the end
+                    targets[i].add(names[i], new JsonPrimitive(values[i]));
+                }
+            }
+        }
+    }
+
+    private static class PendingValue {
+        private final Column column;
+        private final int index;
+
+        PendingValue(Column column, int index) {
+            this.column = column;
+            this.index = index;
+        }
+
+        // converts the value now and drops it from the column so it is not written twice
+        double takeConvertedValue() {
+            column.names[index] = null;
+            return column.unit.convertToSI(column.values[index]);
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.opengroup.osdu.core.common.http.HeadersUtil;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -46,13 +47,15 @@ public class AuthorizationServiceImpl implements IAuthorizationService {
     @Inject
     @Lazy
     private JaxRsDpsLog jaxRsDpsLog;
+    @Inject
+    @Nullable
+    private IEntitlementsAndCacheService entitlementsAndCacheService;
 
     @Override
     public AuthorizationResponse authorizeAny(DpsHeaders headers, String... roles) {
         AuthorizationResponse authorizationResponse = null;
-        IEntitlementsService service = factory.create(headers);
         try {
-            authorizationResponse = authorizeAny(headers, service.getGroups(), roles);
+            authorizationResponse = authorizeAny(headers, getGroups(headers), roles);
         } catch (EntitlementsException e) {
             handleEntitlementsException(e, headers);
         }
@@ -61,22 +64,32 @@ public class AuthorizationServiceImpl implements IAuthorizationService {
 
     @Override
     public AuthorizationResponse authorizeAny(String tenantName, DpsHeaders headers, String... roles) {
-        IEntitlementsService service = factory.create(headers);
         AuthorizationResponse authorizationResponse = null;
         try {
-            Groups groups = service.getGroups();
-            List<GroupInfo> allGroups = new ArrayList<>(groups.getGroups());
-            groups.setGroups(groups.getGroups().stream().filter(groupInfo -> groupInfo.getEmail()
+            // authorize against a filtered copy, the groups may be shared through the entitlements cache,
+            // and answer with all the groups of the caller
+            Groups groups = getGroups(headers);
+            Groups tenantGroups = new Groups();
+            tenantGroups.setMemberEmail(groups.getMemberEmail());
+            tenantGroups.setDesId(groups.getDesId());
+            tenantGroups.setGroups(groups.getGroups().stream().filter(groupInfo -> groupInfo.getEmail()
                     .contains(String.format(TENANT_GROUP_FORMAT, tenantName))).collect(Collectors.toList()));
 
-            authorizationResponse = authorizeAny(headers, groups, roles);
-            groups.setGroups(allGroups);
+            authorizationResponse = authorizeAny(headers, tenantGroups, roles);
+            authorizationResponse.setGroups(groups);
         } catch (EntitlementsException e) {
             handleEntitlementsException(e, headers);
         }
         return authorizationResponse;
     }
 
+    private Groups getGroups(DpsHeaders headers) throws EntitlementsException {
+        if (entitlementsAndCacheService != null) {
+            return entitlementsAndCacheService.getGroups(headers);
+        }
+        return factory.create(headers).getGroups();
+    }
+
     private void handleEntitlementsException(EntitlementsException e, DpsHeaders headers) {
         HttpResponse response = e.getHttpResponse();
         throw new AppException(response.getResponseCode(), "Access denied", "The user is not authorized to perform this action", HeadersUtil.toLogMsg(headers, null), e);
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.entitlements;
+
+import com.google.common.hash.Hashing;
+import lombok.extern.java.Log;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.http.HeadersUtil;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Caches the entitlements groups of a caller, keyed by a hash of the data partition and authorization
+ * token. The groups are kept in a local {@link VmCache} in front of the given shared cache, typically a
+ * {@link org.opengroup.osdu.core.common.cache.RedisCache}. Both tiers must expire entries a fixed time
+ * after they were written, so a revoked membership stops authorizing however often the token is used:
+ * the local tier is built here with expire-after-write and the shared cache must not expire on access.
+ * Concurrent misses on one key share a single entitlements call, and 401 responses are remembered
+ * locally for a short time so an invalid token does not reach entitlements on every request. Errors of
+ * the groups cache are logged and the groups are fetched from entitlements instead.
+ */
+@Log
+public class EntitlementsAndCacheServiceImpl implements IEntitlementsAndCacheService {
+
+    private static final int DEFAULT_GROUPS_CACHE_SECONDS = 30;
+    private static final int DEFAULT_NEGATIVE_CACHE_SECONDS = 10;
+    private static final int LOCAL_CACHE_SIZE = 10000;
+
+    private final IEntitlementsFactory factory;
+    private final ICache<String, Groups> localCache;
+    private final ICache<String, Groups> sharedCache;
+    private final ICache<String, HttpResponse> unauthorizedCache;
+    private final ConcurrentMap<String, CompletableFuture<Groups>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder unauthorizedHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
+    public EntitlementsAndCacheServiceImpl(IEntitlementsFactory factory, ICache<String, Groups> sharedCache) {
+        this(factory, sharedCache, DEFAULT_NEGATIVE_CACHE_SECONDS);
+    }
+
+    public EntitlementsAndCacheServiceImpl(IEntitlementsFactory factory, ICache<String, Groups> sharedCache,
+                                           int negativeCacheSeconds) {
+        this(factory, sharedCache, DEFAULT_GROUPS_CACHE_SECONDS, negativeCacheSeconds);
+    }
+
+    /**
+     * @param groupsCacheSeconds how long groups are kept locally after they were loaded or read from the
+     *                           shared cache
+     */
+    public EntitlementsAndCacheServiceImpl(IEntitlementsFactory factory, ICache<String, Groups> sharedCache,
+                                           int groupsCacheSeconds, int negativeCacheSeconds) {
+        if (factory == null || sharedCache == null) {
+            throw new IllegalArgumentException("entitlements factory and groups cache cannot be empty");
+        }
+        this.factory = factory;
+        this.localCache = new VmCache<>(groupsCacheSeconds, LOCAL_CACHE_SIZE, true);
+        this.sharedCache = sharedCache;
+        this.unauthorizedCache = new VmCache<>(negativeCacheSeconds, LOCAL_CACHE_SIZE, true);
+    }
+
+    @Override
+    public String authorize(DpsHeaders headers, String... roles) {
+        Groups groups = getGroupsOrThrow(headers);
+        if (groups.any(roles)) {
+            return groups.getMemberEmail();
+        }
+        throw AppException.createUnauthorized("required roles are missing for user");
+    }
+
+    @Override
+    public boolean isValidAcl(DpsHeaders headers, Set<String> acls) {
+        Groups groups = getGroupsOrThrow(headers);
+        if (groups.getGroups() == null || groups.getGroups().isEmpty()) {
+            throw new AppException(500, "Unknown error", "Unknown error happened when validating ACL");
+        }
+        String domain = getDomain(groups.getGroups().get(0));
+        if (domain == null) {
+            throw new AppException(500, "Unknown error", "Unknown error happened when validating ACL");
+        }
+        for (String acl : acls) {
+            int at = acl.indexOf('@');
+            if (at < 0 || !acl.substring(at + 1).equalsIgnoreCase(domain)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Groups getGroups(DpsHeaders headers) throws EntitlementsException {
+        String key = getGroupCacheKey(headers);
+        Groups groups = getCached(key);
+        if (groups != null) {
+            this.hits.increment();
+            return groups;
+        }
+        HttpResponse unauthorized = this.unauthorizedCache.get(key);
+        if (unauthorized != null) {
+            this.unauthorizedHits.increment();
+            throw new EntitlementsException("Cached unauthorized response from Entitlements service.", unauthorized);
+        }
+        this.misses.increment();
+
+        CompletableFuture<Groups> load = new CompletableFuture<>();
+        CompletableFuture<Groups> inFlight = this.loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            long start = System.nanoTime();
+            groups = this.factory.create(headers).getGroups();
+            this.loadTimeNanos.add(System.nanoTime() - start);
+            this.loads.increment();
+            putCached(key, groups);
+            load.complete(groups);
+            return groups;
+        } catch (EntitlementsException e) {
+            if (e.getHttpResponse() != null && e.getHttpResponse().IsUnauthorizedCode()) {
+                this.unauthorizedCache.put(key, e.getHttpResponse());
+            }
+            load.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(key, load);
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public long getUnauthorizedHitCount() {
+        return this.unauthorizedHits.sum();
+    }
+
+    public long getLoadCount() {
+        return this.loads.sum();
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return this.loadTimeNanos.sum();
+    }
+
+    static String getGroupCacheKey(DpsHeaders headers) {
+        String key = String.format("entitlement-groups:%s:%s", headers.getPartitionIdWithFallbackToAccountId(),
+                headers.getAuthorization());
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+
+    private Groups getCached(String key) {
+        Groups groups = this.localCache.get(key);
+        if (groups != null) {
+            return groups;
+        }
+        try {
+            groups = this.sharedCache.get(key);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Failed to read entitlements groups from cache", e);
+            return null;
+        }
+        if (groups != null) {
+            this.localCache.put(key, groups);
+        }
+        return groups;
+    }
+
+    private void putCached(String key, Groups groups) {
+        this.localCache.put(key, groups);
+        try {
+            this.sharedCache.put(key, groups);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Failed to write entitlements groups to cache", e);
+        }
+    }
+
+    private Groups getGroupsOrThrow(DpsHeaders headers) {
+        try {
+            return getGroups(headers);
+        } catch (EntitlementsException e) {
+            HttpResponse response = e.getHttpResponse();
+            throw new AppException(response.getResponseCode(), "Access denied",
+                    "The user is not authorized to perform this action", HeadersUtil.toLogMsg(headers, null), e);
+        }
+    }
+
+    private static Groups await(CompletableFuture<Groups> load) throws EntitlementsException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof EntitlementsException) {
+                throw (EntitlementsException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static String getDomain(GroupInfo group) {
+        String email = group.getEmail();
+        if (email == null || email.indexOf('@') < 0) {
+            return null;
+        }
+        return email.substring(email.indexOf('@') + 1);
+    }
+}
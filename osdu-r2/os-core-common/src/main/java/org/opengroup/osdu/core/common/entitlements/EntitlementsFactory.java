@@ -19,16 +19,28 @@ package org.opengroup.osdu.core.common.entitlements;
 
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.IHttpClient;
 
 public class EntitlementsFactory implements IEntitlementsFactory {
 
     private final EntitlementsAPIConfig config;
+    private final IHttpClient httpClient;
 
     public EntitlementsFactory(EntitlementsAPIConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param httpClient shared client used by every created service, e.g. an
+     *                   {@link org.opengroup.osdu.core.common.http.AsyncHttpClient}; a new
+     *                   {@link HttpClient} is created per service when null
+     */
+    public EntitlementsFactory(EntitlementsAPIConfig config, IHttpClient httpClient) {
         if (config == null) {
             throw new IllegalArgumentException("EntitlementsAPIConfig cannot be empty");
         }
         this.config = config;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -37,7 +49,7 @@ public class EntitlementsFactory implements IEntitlementsFactory {
             throw new NullPointerException("headers cannot be null");
         }
         return new EntitlementsService(this.config,
-                new HttpClient(),
+                this.httpClient != null ? this.httpClient : new HttpClient(),
                 headers);
     }
 }
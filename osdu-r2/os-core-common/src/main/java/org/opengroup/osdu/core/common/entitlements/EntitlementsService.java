@@ -30,8 +30,11 @@ import org.opengroup.osdu.core.common.model.entitlements.MemberInfo;
 import org.opengroup.osdu.core.common.model.entitlements.Members;
 import org.opengroup.osdu.core.common.http.HttpRequest;
 import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.http.IAsyncHttpClient;
 import org.opengroup.osdu.core.common.http.IHttpClient;
 
+import java.util.concurrent.CompletableFuture;
+
 public class EntitlementsService implements IEntitlementsService {
     private final String rootUrl;
     private final IHttpClient httpClient;
@@ -53,7 +56,7 @@ public class EntitlementsService implements IEntitlementsService {
         String path = String.format("/groups/%s/members", groupEmail.getGroupEmail());
         String url = this.createUrl(path);
         HttpResponse result = this.httpClient.send(
-                HttpRequest.post(memberInfo).url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.post(memberInfo).url(url).headers(this.headers.getHeaders()).build(), MemberInfo.class);
         return this.getResult(result, MemberInfo.class);
     }
 
@@ -64,7 +67,7 @@ public class EntitlementsService implements IEntitlementsService {
         String url = this.createUrl(path);
 
         HttpResponse result = this.httpClient.send(
-                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build(), Members.class);
         return this.getResult(result, Members.class);
     }
 
@@ -73,16 +76,27 @@ public class EntitlementsService implements IEntitlementsService {
         String path = String.format("/groups");
         String url = this.createUrl(path);
         HttpRequest rq = HttpRequest.get().url(url).headers(this.headers.getHeaders()).build();
-        HttpResponse result = this.httpClient.send(rq);
+        HttpResponse result = this.httpClient.send(rq, Groups.class);
         Groups output = this.getResult(result, Groups.class);
         return output;
     }
 
+    @Override
+    public CompletableFuture<Groups> getGroupsAsync() {
+        if (!(this.httpClient instanceof IAsyncHttpClient)) {
+            return IEntitlementsService.super.getGroupsAsync();
+        }
+        String url = this.createUrl("/groups");
+        HttpRequest rq = HttpRequest.get().url(url).headers(this.headers.getHeaders()).build();
+        return ((IAsyncHttpClient) this.httpClient).sendAsync(rq, Groups.class)
+                .thenCompose(result -> this.getFutureResult(result, Groups.class));
+    }
+
     @Override
     public GroupInfo createGroup(CreateGroup group) throws EntitlementsException {
         String url = this.createUrl("/groups");
         HttpResponse result = this.httpClient.send(
-                HttpRequest.post(group).url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.post(group).url(url).headers(this.headers.getHeaders()).build(), GroupInfo.class);
         GroupInfo output = this.getResult(result, GroupInfo.class);
         return output;
     }
@@ -126,6 +140,16 @@ public class EntitlementsService implements IEntitlementsService {
         return StringUtils.join(this.rootUrl, pathAndQuery);
     }
 
+    private <T> CompletableFuture<T> getFutureResult(HttpResponse result, Class<T> type) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        try {
+            output.complete(this.getResult(result, type));
+        } catch (EntitlementsException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
     private <T> T getResult(HttpResponse result, Class<T> type) throws EntitlementsException {
         if (result.isSuccessCode()) {
             try {
@@ -17,6 +17,8 @@
 
 package org.opengroup.osdu.core.common.entitlements;
 
+import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 
 import java.util.Set;
@@ -25,4 +27,5 @@ public interface IEntitlementsAndCacheService {
 
 	String authorize(DpsHeaders headers, String... roles);
 	boolean isValidAcl(DpsHeaders headers, Set<String> acls);
+	Groups getGroups(DpsHeaders headers) throws EntitlementsException;
 }
@@ -26,6 +26,8 @@ import org.opengroup.osdu.core.common.model.entitlements.Groups;
 import org.opengroup.osdu.core.common.model.entitlements.MemberInfo;
 import org.opengroup.osdu.core.common.model.entitlements.Members;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IEntitlementsService {
 
     MemberInfo addMember(GroupEmail groupEmail, MemberInfo memberInfo) throws EntitlementsException;
@@ -34,6 +36,19 @@ public interface IEntitlementsService {
 
     Groups getGroups() throws EntitlementsException;
 
+    /**
+     * Completes exceptionally with {@link EntitlementsException} where {@link #getGroups()} would throw.
+     */
+    default CompletableFuture<Groups> getGroupsAsync() {
+        CompletableFuture<Groups> result = new CompletableFuture<>();
+        try {
+            result.complete(getGroups());
+        } catch (EntitlementsException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     GroupInfo createGroup(CreateGroup group) throws EntitlementsException;
 
     void deleteMember(String groupEmail, String memberEmail) throws EntitlementsException;
@@ -17,23 +17,42 @@
 
 package org.opengroup.osdu.core.common.http;
 
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 abstract class AbstractHttpClient implements IHttpClient {
 
+    private static final int BUFFER_SIZE = 8192;
+
     @Override
     public HttpResponse send(HttpRequest request) {
+        return send(request, null);
+    }
+
+    @Override
+    public <T> HttpResponse send(HttpRequest request, Class<T> type) {
+        return send(request, type, null);
+    }
+
+    @Override
+    public HttpResponse stream(HttpRequest request, IResponseBodyReader reader) {
+        return send(request, null, reader);
+    }
+
+    private <T> HttpResponse send(HttpRequest request, Class<T> type, IResponseBodyReader reader) {
 
         HttpResponse output = new HttpResponse();
         output.setRequest(request);
@@ -49,11 +68,16 @@ abstract class AbstractHttpClient implements IHttpClient {
             output.setContentType(conn.getContentType());
             output.setHeaders(conn.getHeaderFields());
 
-            if (output.isSuccessCode()) {
-                output.setBody(getBody(conn.getInputStream()).toString());
-
+            if (output.isSuccessCode() && reader != null) {
+                try (InputStream in = conn.getInputStream()) {
+                    reader.read(in);
+                }
+            } else if (output.isSuccessCode() && type != null) {
+                output.setContent(parseBody(conn.getInputStream(), type));
+            } else if (output.isSuccessCode()) {
+                output.setBody(getBody(conn.getInputStream()));
             } else {
-                output.setBody(getBody(conn.getErrorStream()).toString());
+                output.setBody(getBody(conn.getErrorStream()));
             }
 
             output.setLatency(System.currentTimeMillis() - start);
@@ -61,7 +85,7 @@ abstract class AbstractHttpClient implements IHttpClient {
             System.err.println(String.format("Unexpected error sending to URL %s METHOD %s. error %s", request.url,
                     request.httpMethod, e));
             output.setException(e);
-        } catch (URISyntaxException e) {
+        } catch (URISyntaxException | JsonParseException e) {
             output.setException(e);
         } finally {
             if (conn != null)
@@ -71,14 +95,24 @@ abstract class AbstractHttpClient implements IHttpClient {
         return output;
     }
 
-    private StringBuilder getBody(InputStream stream) throws IOException {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(stream))) {
-            String inputLine;
+    private String getBody(InputStream stream) throws IOException {
+        if (stream == null) {
+            return "";
+        }
+        try (Reader in = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
             StringBuilder resp = new StringBuilder();
-            while ((inputLine = in.readLine()) != null) {
-                resp.append(inputLine);
+            char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                resp.append(buffer, 0, read);
             }
-            return resp;
+            return resp.toString();
+        }
+    }
+
+    private <T> T parseBody(InputStream stream, Class<T> type) throws IOException {
+        try (JsonReader in = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return HttpResponse.gson.fromJson(in, type);
         }
     }
 
@@ -112,7 +146,7 @@ abstract class AbstractHttpClient implements IHttpClient {
         }
     }
 
-    private String encodeUrl(String url) throws MalformedURLException, URISyntaxException {
+    static String encodeUrl(String url) throws MalformedURLException, URISyntaxException {
         URL temp = new URL(url);
         URI uri = new URI(temp.getProtocol(), temp.getUserInfo(), temp.getHost(), temp.getPort(),
                 temp.getPath(), temp.getQuery(), temp.getRef());
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking {@link IHttpClient} running on a small NIO reactor, so callers can fan out several
+ * downstream calls without holding a thread per call. Like {@link HttpClient}, failures are reported
+ * through {@link HttpResponse#getException()} rather than by completing the future exceptionally.
+ * Instances own their reactor threads and are meant to be shared.
+ */
+public class AsyncHttpClient implements IAsyncHttpClient, AutoCloseable {
+
+    private final CloseableHttpAsyncClient client;
+    private final ScheduledExecutorService deadlineScheduler;
+    private final long deadlineMillis;
+
+    public AsyncHttpClient() {
+        this(AsyncHttpClientConfig.Default());
+    }
+
+    public AsyncHttpClient(AsyncHttpClientConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("AsyncHttpClientConfig cannot be empty");
+        }
+        this.client = HttpAsyncClients.custom()
+                .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(config.getIoThreadCount()).build())
+                .setMaxConnTotal(config.getMaxTotalConnections())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .build();
+        this.client.start();
+        this.deadlineScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "async-http-client-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlineMillis = config.getDeadlineMillis();
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+        return sendAsync(request, null, this.deadlineMillis);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse> sendAsync(HttpRequest request, Class<T> type) {
+        return sendAsync(request, type, this.deadlineMillis);
+    }
+
+    public <T> CompletableFuture<HttpResponse> sendAsync(HttpRequest request, Class<T> type, long deadlineMillis) {
+        HttpResponse output = new HttpResponse();
+        output.setRequest(request);
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+
+        HttpUriRequest httpRequest;
+        try {
+            request.setUrl(AbstractHttpClient.encodeUrl(request.getUrl()));
+            httpRequest = createRequest(request);
+        } catch (MalformedURLException | URISyntaxException e) {
+            output.setException(e);
+            result.complete(output);
+            return result;
+        }
+
+        long start = System.currentTimeMillis();
+        Future<org.apache.http.HttpResponse> call = this.client.execute(httpRequest,
+                new FutureCallback<org.apache.http.HttpResponse>() {
+                    @Override
+                    public void completed(org.apache.http.HttpResponse response) {
+                        try {
+                            readResponse(response, output, type);
+                        } catch (IOException | JsonParseException e) {
+                            output.setException(e);
+                        }
+                        complete(null);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        System.err.println(String.format("Unexpected error sending to URL %s METHOD %s. error %s",
+                                request.getUrl(), request.getHttpMethod(), e));
+                        complete(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        complete(new TimeoutException(String.format("Request to %s exceeded its deadline of %s ms",
+                                request.getUrl(), deadlineMillis)));
+                    }
+
+                    private void complete(Exception e) {
+                        if (e != null) {
+                            output.setException(e);
+                        }
+                        output.setLatency(System.currentTimeMillis() - start);
+                        result.complete(output);
+                    }
+                });
+
+        if (deadlineMillis > 0) {
+            ScheduledFuture<?> deadline = this.deadlineScheduler.schedule(
+                    () -> call.cancel(true), deadlineMillis, TimeUnit.MILLISECONDS);
+            result.whenComplete((response, e) -> deadline.cancel(false));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.deadlineScheduler.shutdownNow();
+        this.client.close();
+    }
+
+    private HttpUriRequest createRequest(HttpRequest request) {
+        RequestBuilder builder = RequestBuilder.create(request.getHttpMethod())
+                .setUri(request.getUrl())
+                .setConfig(RequestConfig.custom()
+                        .setConnectTimeout(request.getConnectionTimeout())
+                        .setRedirectsEnabled(request.isFollowRedirects())
+                        .build());
+        request.getHeaders().forEach(builder::addHeader);
+        if (!StringUtils.isBlank(request.getBody())) {
+            builder.setEntity(new StringEntity(request.getBody(), StandardCharsets.UTF_8));
+        }
+        return builder.build();
+    }
+
+    private <T> void readResponse(org.apache.http.HttpResponse response, HttpResponse output, Class<T> type)
+            throws IOException {
+        output.setResponseCode(response.getStatusLine().getStatusCode());
+        output.setHeaders(getHeaders(response));
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return;
+        }
+        if (entity.getContentType() != null) {
+            output.setContentType(entity.getContentType().getValue());
+        }
+        if (output.isSuccessCode() && type != null) {
+            try (JsonReader in = new JsonReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
+                output.setContent(HttpResponse.gson.fromJson(in, type));
+            }
+        } else {
+            output.setBody(EntityUtils.toString(entity, StandardCharsets.UTF_8));
+        }
+    }
+
+    private Map<String, List<String>> getHeaders(org.apache.http.HttpResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header header : response.getAllHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Opens when the failure rate or the slow call rate over the last
+ * {@link ResiliencePolicy#getBreakerWindowSize()} calls crosses its threshold, rejects calls while open,
+ * and lets {@link ResiliencePolicy#getBreakerHalfOpenCalls()} trial calls through after
+ * {@link ResiliencePolicy#getBreakerOpenMillis()}: the breaker closes if they all succeed in time and
+ * opens again otherwise.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ResiliencePolicy policy;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int next;
+    private int bufferedCalls;
+    private int failureCount;
+    private int slowCallCount;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long openedCount;
+    private long rejectedCalls;
+
+    public CircuitBreaker(ResiliencePolicy policy) {
+        this(policy, System::nanoTime);
+    }
+
+    CircuitBreaker(ResiliencePolicy policy, LongSupplier nanoClock) {
+        if (policy == null) {
+            throw new IllegalArgumentException("ResiliencePolicy cannot be empty");
+        }
+        this.policy = policy;
+        this.nanoClock = nanoClock;
+        this.failures = new boolean[Math.max(1, policy.getBreakerWindowSize())];
+        this.slowCalls = new boolean[this.failures.length];
+    }
+
+    /**
+     * Whether a call may be sent now; every permitted call must be followed by {@link #onResult}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (this.state == State.OPEN) {
+            if (this.nanoClock.getAsLong() - this.openedAtNanos < TimeUnit.MILLISECONDS.toNanos(this.policy.getBreakerOpenMillis())) {
+                this.rejectedCalls++;
+                return false;
+            }
+            this.state = State.HALF_OPEN;
+            this.halfOpenPermits = Math.max(1, this.policy.getBreakerHalfOpenCalls());
+            this.halfOpenSuccesses = 0;
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (this.halfOpenPermits == 0) {
+                this.rejectedCalls++;
+                return false;
+            }
+            this.halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onResult(boolean failure, long latencyMillis) {
+        boolean slow = latencyMillis >= this.policy.getBreakerSlowCallMillis();
+        switch (this.state) {
+            case HALF_OPEN:
+                if (failure || slow) {
+                    open();
+                } else if (++this.halfOpenSuccesses >= Math.max(1, this.policy.getBreakerHalfOpenCalls())) {
+                    this.state = State.CLOSED;
+                    clearWindow();
+                }
+                break;
+            case CLOSED:
+                record(failure, slow);
+                if (this.bufferedCalls >= this.policy.getBreakerMinimumCalls()
+                        && (failureRate() >= this.policy.getBreakerFailureRateThreshold()
+                        || slowCallRate() >= this.policy.getBreakerSlowCallRateThreshold())) {
+                    open();
+                }
+                break;
+            default:
+                // a late answer to a call sent before the breaker opened
+                break;
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    synchronized void fill(ResilienceMetrics.ResilienceMetricsBuilder metrics) {
+        metrics.breakerState(this.state)
+                .failureRate(failureRate())
+                .slowCallRate(slowCallRate())
+                .bufferedCalls(this.bufferedCalls)
+                .breakerOpenedCount(this.openedCount)
+                .rejectedCalls(this.rejectedCalls);
+    }
+
+    private void record(boolean failure, boolean slow) {
+        if (this.bufferedCalls == this.failures.length) {
+            this.failureCount -= this.failures[this.next] ? 1 : 0;
+            this.slowCallCount -= this.slowCalls[this.next] ? 1 : 0;
+        } else {
+            this.bufferedCalls++;
+        }
+        this.failures[this.next] = failure;
+        this.slowCalls[this.next] = slow;
+        this.failureCount += failure ? 1 : 0;
+        this.slowCallCount += slow ? 1 : 0;
+        this.next = (this.next + 1) % this.failures.length;
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAtNanos = this.nanoClock.getAsLong();
+        this.openedCount++;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        Arrays.fill(this.failures, false);
+        Arrays.fill(this.slowCalls, false);
+        this.next = 0;
+        this.bufferedCalls = 0;
+        this.failureCount = 0;
+        this.slowCallCount = 0;
+    }
+
+    private double failureRate() {
+        return this.bufferedCalls == 0 ? 0 : (double) this.failureCount / this.bufferedCalls;
+    }
+
+    private double slowCallRate() {
+        return this.bufferedCalls == 0 ? 0 : (double) this.slowCallCount / this.bufferedCalls;
+    }
+}
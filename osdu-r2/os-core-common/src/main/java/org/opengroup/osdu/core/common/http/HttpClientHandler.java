@@ -17,19 +17,15 @@
 
 package org.opengroup.osdu.core.common.http;
 
-import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.http.ParseException;
 import org.apache.http.client.ServiceUnavailableRetryStrategy;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ContentType;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicHeader;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.HttpResponse;
@@ -41,69 +37,54 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 @RequestScope
 public class HttpClientHandler {
 
-    private final int RETRY_COUNT = 3;
+    private static final int RETRY_COUNT = 3;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long RETRY_INITIAL_INTERVAL_MILLIS = 200;
+    private static final long RETRY_MAX_INTERVAL_MILLIS = 2000;
 
     @Autowired
     @Lazy
     private JaxRsDpsLog log;
 
-    private final RequestConfig REQUEST_CONFIG = RequestConfig.custom()
-            .setConnectTimeout(60000)
-            .setConnectionRequestTimeout(60000)
-            .setSocketTimeout(60000).build();
+    @Autowired
+    private HttpClientPool httpClientPool;
 
     public HttpResponse sendRequest(HttpRequestBase request, DpsHeaders requestHeaders) {
 
         Long curTimeStamp = System.currentTimeMillis();
 
-        List<Header> httpHeaders = new ArrayList<>();
+        // headers go on the request rather than the client so the pooled client can be shared across tenants
         for (String key : requestHeaders.getHeaders().keySet()) {
-            httpHeaders.add(new BasicHeader(key, requestHeaders.getHeaders().get(key)));
+            request.setHeader(key, requestHeaders.getHeaders().get(key));
         }
         if (!requestHeaders.getHeaders().containsKey(HttpHeaders.ACCEPT)) {
-            httpHeaders.add(new BasicHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString()));
+            request.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
         }
 
-        try {
-            CloseableHttpClient httpclient = HttpClients.custom()
-                    .setDefaultHeaders(httpHeaders)
-                    .setDefaultRequestConfig(REQUEST_CONFIG)
-                    .setServiceUnavailableRetryStrategy(getRetryStrategy()).build();
-            try (CloseableHttpResponse response = httpclient.execute(request)) {
-
-                StringBuilder responseBuilder = new StringBuilder();
-                try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-                    String responsePayloadLine;
-                    while ((responsePayloadLine = br.readLine()) != null) {
-                        responseBuilder.append(responsePayloadLine);
-                    }
-                }
+        try (CloseableHttpResponse response = httpClientPool.getHttpClient().execute(request)) {
 
-                String responseBody = responseBuilder.toString();
+            String responseBody = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
 
-                // handle case where upstream server is running out of resources and throwing generic exception
-                checkResponseMediaType(response, responseBody);
+            // handle case where upstream server is running out of resources and throwing generic exception
+            checkResponseMediaType(response, responseBody);
 
-                HttpResponse output = new HttpResponse();
-                output.setResponseCode(response.getStatusLine().getStatusCode());
-                output.setBody(responseBody);
-                if (output.getResponseCode() != 200) {
-                    log.info(String.format("method: %s | response code: %s | url: %s | error message: %s", request.getMethod(), output.getResponseCode(), request.getURI().toString(), responseBody));
-                }
-                return output;
+            HttpResponse output = new HttpResponse();
+            output.setResponseCode(response.getStatusLine().getStatusCode());
+            output.setBody(responseBody);
+            if (output.getResponseCode() != 200) {
+                log.info(String.format("method: %s | response code: %s | url: %s | error message: %s", request.getMethod(), output.getResponseCode(), request.getURI().toString(), responseBody));
             }
+            return output;
         } catch (SocketTimeoutException e) {
             throw new AppException(RequestStatus.SOCKET_TIMEOUT, "Socket time out", "Request cannot be completed in specified time", e);
         } catch (IOException e) {
@@ -114,18 +95,33 @@ public class HttpClientHandler {
         }
     }
 
-    private ServiceUnavailableRetryStrategy getRetryStrategy() {
+    /**
+     * Retries overload and gateway errors with exponential backoff and full jitter, so that callers
+     * failing together do not come back together.
+     */
+    static ServiceUnavailableRetryStrategy getRetryStrategy() {
         return new ServiceUnavailableRetryStrategy() {
+            // the client asks for the interval right after retryRequest, on the same thread
+            private final ThreadLocal<Long> nextInterval = ThreadLocal.withInitial(() -> RETRY_INITIAL_INTERVAL_MILLIS);
+
             @Override
             public boolean retryRequest(
                     final org.apache.http.HttpResponse response, final int executionCount, final HttpContext context) {
                 int statusCode = response.getStatusLine().getStatusCode();
-                return statusCode >= 501 && executionCount <= RETRY_COUNT;
+                boolean retry = (statusCode == TOO_MANY_REQUESTS
+                        || statusCode == HttpStatus.SC_BAD_GATEWAY
+                        || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE
+                        || statusCode == HttpStatus.SC_GATEWAY_TIMEOUT) && executionCount <= RETRY_COUNT;
+                if (retry) {
+                    long ceiling = Math.min(RETRY_MAX_INTERVAL_MILLIS, RETRY_INITIAL_INTERVAL_MILLIS << (executionCount - 1));
+                    this.nextInterval.set(ThreadLocalRandom.current().nextLong(ceiling + 1));
+                }
+                return retry;
             }
 
             @Override
             public long getRetryInterval() {
-                return 1000;
+                return this.nextInterval.get();
             }
         };
     }
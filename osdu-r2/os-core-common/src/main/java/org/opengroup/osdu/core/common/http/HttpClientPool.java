@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide pool of keep-alive connections shared by every {@link HttpClientHandler}.
+ * Tenant specific headers are set on each request, so one pool serves all partitions and
+ * connections are only bounded per downstream route.
+ */
+@Component
+public class HttpClientPool implements AutoCloseable {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    public HttpClientPool() {
+        this(HttpClientPoolConfig.Default(), HttpClientHandler.getRetryStrategy());
+    }
+
+    public HttpClientPool(HttpClientPoolConfig config, ServiceUnavailableRetryStrategy retryStrategy) {
+        if (config == null) {
+            throw new IllegalArgumentException("HttpClientPoolConfig cannot be empty");
+        }
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setMaxTotal(config.getMaxTotalConnections());
+        this.connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setConnectionRequestTimeout(config.getConnectionRequestTimeout())
+                .setSocketTimeout(config.getSocketTimeout()).build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(this.connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(config.getKeepAliveMillis()))
+                .setServiceUnavailableRetryStrategy(retryStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(config.getIdleEvictionSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    public CloseableHttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    public PoolStats getPoolStats() {
+        return this.connectionManager.getTotalStats();
+    }
+
+    public int getLeasedConnections() {
+        return getPoolStats().getLeased();
+    }
+
+    public int getPendingConnections() {
+        return getPoolStats().getPending();
+    }
+
+    public int getAvailableConnections() {
+        return getPoolStats().getAvailable();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        this.httpClient.close();
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+        return (response, context) -> {
+            // honour the Keep-Alive timeout announced by the server, otherwise fall back to our default
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : defaultKeepAliveMillis;
+        };
+    }
+}
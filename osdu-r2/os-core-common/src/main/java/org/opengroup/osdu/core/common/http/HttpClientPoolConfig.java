@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class HttpClientPoolConfig {
+    @Builder.Default
+    int maxTotalConnections = 200;
+    @Builder.Default
+    int maxConnectionsPerRoute = 50;
+    @Builder.Default
+    long keepAliveMillis = 30000;
+    @Builder.Default
+    long idleEvictionSeconds = 30;
+    @Builder.Default
+    int connectTimeout = 60000;
+    @Builder.Default
+    int connectionRequestTimeout = 60000;
+    @Builder.Default
+    int socketTimeout = 60000;
+
+    public static HttpClientPoolConfig Default() {
+        return HttpClientPoolConfig.builder().build();
+    }
+}
@@ -43,6 +43,11 @@ public class HttpRequest {
     int connectionTimeout = 5000;
     @Builder.Default
     boolean followRedirects = true;
+    /**
+     * Marks a POST or PATCH that does not change anything, such as a validation, so that it can be
+     * retried like a GET by a client from {@link ResilienceRegistry}.
+     */
+    boolean idempotent;
 
     public static <T> HttpRequestBuilder post(T body) {
         return HttpRequest.builder().httpMethod(POST).body(new Gson().toJson(body));
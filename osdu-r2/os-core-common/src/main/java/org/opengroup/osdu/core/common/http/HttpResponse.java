@@ -19,10 +19,12 @@ package org.opengroup.osdu.core.common.http;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
@@ -41,6 +43,8 @@ public class HttpResponse {
     private Exception exception;
     private HttpRequest request;
     private long latency = 0;
+    @ToString.Exclude
+    private Object content;
 
     public Boolean isSuccessCode() {
         return responseCode >= 200 && responseCode <= 299;
@@ -78,6 +82,10 @@ public class HttpResponse {
     }
 
     public <T> T parseBody(Class<T> type) {
+        if (content != null && type.isInstance(content))
+            return type.cast(content);
+        if (exception instanceof JsonParseException)
+            throw (JsonParseException) exception;
         if (StringUtils.isBlank(body))
             return null;
 
@@ -17,6 +17,39 @@
 
 package org.opengroup.osdu.core.common.http;
 
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 public interface IHttpClient {
     HttpResponse send(HttpRequest request);
+
+    /**
+     * Sends the request and, on a success code, deserializes the body into {@code type} while it is
+     * read from the connection so {@link HttpResponse#parseBody(Class)} does not need a buffered body.
+     * Error responses are still buffered into {@link HttpResponse#getBody()}.
+     */
+    default <T> HttpResponse send(HttpRequest request, Class<T> type) {
+        return send(request);
+    }
+
+    /**
+     * Sends the request and, on a success code, passes the body to {@code reader} while it is read from
+     * the connection, leaving {@link HttpResponse#getBody()} empty. Failures reading the body are reported
+     * through {@link HttpResponse#getException()}. Clients that cannot stream hand over the buffered body.
+     */
+    default HttpResponse stream(HttpRequest request, IResponseBodyReader reader) {
+        HttpResponse response = send(request);
+        if (response.isSuccessCode() && response.getException() == null) {
+            String body = response.getBody() == null ? "" : response.getBody();
+            try {
+                reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException | JsonParseException e) {
+                response.setException(e);
+            }
+        }
+        return response;
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import lombok.Getter;
+import org.opengroup.osdu.core.common.model.search.RecordChangedMessages;
+import org.opengroup.osdu.core.common.model.storage.MessageContent;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A decoded pub/sub push message. The payload is kept as the UTF-8 bytes decoded from the message's
+ * Base64 {@code data}; consumers can read it as a stream, or have it turned into a String once on
+ * first use.
+ */
+public class PubSubPushMessage {
+
+    @Getter
+    private final String messageId;
+    @Getter
+    private final String publishTime;
+    /**
+     * Attributes with lower-cased names.
+     */
+    @Getter
+    private final Map<String, String> attributes;
+    private final byte[] data;
+    private String dataAsString;
+
+    PubSubPushMessage(String messageId, String publishTime, Map<String, String> attributes, byte[] data) {
+        this.messageId = messageId;
+        this.publishTime = publishTime;
+        this.attributes = attributes;
+        this.data = data;
+    }
+
+    public boolean hasData() {
+        return this.data != null;
+    }
+
+    public int getDataLength() {
+        return this.data == null ? 0 : this.data.length;
+    }
+
+    public InputStream getDataAsStream() {
+        return this.data == null ? null : new ByteArrayInputStream(this.data);
+    }
+
+    public Reader getDataAsReader() {
+        return this.data == null ? null : new InputStreamReader(getDataAsStream(), StandardCharsets.UTF_8);
+    }
+
+    public synchronized String getDataAsString() {
+        if (this.dataAsString == null && this.data != null) {
+            this.dataAsString = new String(this.data, StandardCharsets.UTF_8);
+        }
+        return this.dataAsString;
+    }
+
+    public MessageContent toMessageContent() {
+        return new MessageContent(this.messageId, getDataAsString(), this.publishTime, this.attributes);
+    }
+
+    public RecordChangedMessages toRecordChangedMessages() {
+        return RecordChangedMessages.builder()
+                .messageId(this.messageId)
+                .publishTime(this.publishTime)
+                .attributes(this.attributes)
+                .data(getDataAsString())
+                .build();
+    }
+}
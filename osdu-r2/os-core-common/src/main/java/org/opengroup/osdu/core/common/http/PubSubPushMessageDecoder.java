@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Strings;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes a pub/sub push request body in a single pass over a streaming JSON parser. Nothing but the
+ * {@code message} object is kept, and its Base64 {@code data} is decoded straight from the parser's
+ * character buffer into bytes, without building the tree or intermediate Strings.
+ */
+public class PubSubPushMessageDecoder {
+
+    static final String INVALID_PUBSUB_MESSAGE = "Invalid pubsub message";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public PubSubPushMessage decode(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new AppException(HttpStatus.SC_BAD_REQUEST, "RequestBody is not JsonObject.",
+                        "Request Body should be JsonObject to be processed.");
+            }
+            PubSubPushMessage message = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "message".equals(name)) {
+                    message = readMessage(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (message == null) {
+                throw new AppException(HttpStatus.SC_BAD_REQUEST, INVALID_PUBSUB_MESSAGE, "message object not found");
+            }
+            return message;
+        } catch (JsonProcessingException e) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, INVALID_PUBSUB_MESSAGE, "Unable to parse request payload.", e);
+        }
+    }
+
+    private static PubSubPushMessage readMessage(JsonParser parser) throws IOException {
+        String messageId = null;
+        String publishTime = null;
+        Map<String, String> attributes = null;
+        byte[] data = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("attributes".equals(name) && value == JsonToken.START_OBJECT) {
+                attributes = readAttributes(parser);
+            } else if ("data".equals(name) && value == JsonToken.VALUE_STRING) {
+                data = decodeBase64(parser);
+            } else if ("messageId".equals(name)) {
+                messageId = parser.getValueAsString();
+            } else if ("publishTime".equals(name)) {
+                publishTime = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (attributes == null || attributes.isEmpty()) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, INVALID_PUBSUB_MESSAGE, "attribute map not found");
+        }
+        if (Strings.isNullOrEmpty(attributes.get(DpsHeaders.ACCOUNT_ID))
+                && Strings.isNullOrEmpty(attributes.get(DpsHeaders.DATA_PARTITION_ID))) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, INVALID_PUBSUB_MESSAGE,
+                    "No tenant information from pubsub message.");
+        }
+        Map<String, String> lowerCase = new HashMap<>();
+        attributes.forEach((key, value) -> lowerCase.put(key.toLowerCase(), value));
+        return new PubSubPushMessage(messageId, publishTime, lowerCase, data);
+    }
+
+    private static Map<String, String> readAttributes(JsonParser parser) throws IOException {
+        Map<String, String> attributes = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            attributes.put(name, parser.getValueAsString());
+            parser.skipChildren();
+        }
+        return attributes;
+    }
+
+    private static byte[] decodeBase64(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        int end = offset + length;
+        while (end > offset && chars[end - 1] == '=') {
+            end--;
+        }
+        int significant = end - offset;
+        byte[] decoded = new byte[significant / 4 * 3 + Math.max(0, significant % 4 - 1)];
+        try (InputStream in = Base64.getDecoder().wrap(new AsciiCharsInputStream(chars, offset, offset + length))) {
+            int read = 0;
+            while (read < decoded.length) {
+                int n = in.read(decoded, read, decoded.length - read);
+                if (n < 0) {
+                    throw new EOFException("Truncated Base64 data");
+                }
+                read += n;
+            }
+        } catch (IOException e) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, INVALID_PUBSUB_MESSAGE, "message data is not valid Base64", e);
+        }
+        return decoded;
+    }
+
+    /**
+     * Feeds Base64 text to the JDK stream decoder without copying it into a byte array first.
+     */
+    private static final class AsciiCharsInputStream extends InputStream {
+        private final char[] chars;
+        private final int end;
+        private int position;
+
+        AsciiCharsInputStream(char[] chars, int start, int end) {
+            this.chars = chars;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            return this.position < this.end ? this.chars[this.position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (this.position >= this.end) {
+                return -1;
+            }
+            int count = Math.min(length, this.end - this.position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) this.chars[this.position++];
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Builder
+@Data
+public class ResilienceConfig {
+    public static final String ENTITLEMENTS = "entitlements";
+    public static final String LEGAL = "legal";
+    public static final String CRS = "crs";
+    public static final String STORAGE = "storage";
+
+    @Builder.Default
+    ResiliencePolicy entitlements = ResiliencePolicy.builder().hedgeAfterMillis(1000).build();
+    @Builder.Default
+    ResiliencePolicy legal = ResiliencePolicy.Default();
+    @Builder.Default
+    ResiliencePolicy crs = ResiliencePolicy.builder().breakerSlowCallMillis(30000).build();
+    @Builder.Default
+    ResiliencePolicy storage = ResiliencePolicy.builder().breakerSlowCallMillis(30000).build();
+    /**
+     * Policies of other dependencies, by name.
+     */
+    @Builder.Default
+    Map<String, ResiliencePolicy> policies = new HashMap<>();
+    @Builder.Default
+    ResiliencePolicy defaultPolicy = ResiliencePolicy.Default();
+    /**
+     * Threads sending hedged requests, shared by every dependency. A hedged request that finds them all
+     * busy is sent on the caller's thread without a hedge.
+     */
+    @Builder.Default
+    int maxHedgingThreads = 32;
+
+    public ResiliencePolicy getPolicy(String dependency) {
+        switch (dependency) {
+            case ENTITLEMENTS:
+                return this.entitlements;
+            case LEGAL:
+                return this.legal;
+            case CRS:
+                return this.crs;
+            case STORAGE:
+                return this.storage;
+            default:
+                return this.policies.getOrDefault(dependency, this.defaultPolicy);
+        }
+    }
+
+    public static ResilienceConfig Default() {
+        return ResilienceConfig.builder().build();
+    }
+}
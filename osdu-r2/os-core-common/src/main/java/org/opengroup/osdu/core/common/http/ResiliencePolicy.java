@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder(toBuilder = true)
+@Data
+public class ResiliencePolicy {
+    /**
+     * Attempts per request, including the first one.
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+    @Builder.Default
+    long initialBackoffMillis = 100;
+    @Builder.Default
+    long maxBackoffMillis = 2000;
+    @Builder.Default
+    double backoffMultiplier = 2.0;
+    /**
+     * Fraction of requests that may be retried once the initial budget is spent, so that retries cannot
+     * multiply the load on a dependency that is already failing.
+     */
+    @Builder.Default
+    double retryBudgetRatio = 0.2;
+    @Builder.Default
+    int retryBudgetMaxTokens = 10;
+
+    /**
+     * Number of most recent calls the circuit breaker rates.
+     */
+    @Builder.Default
+    int breakerWindowSize = 20;
+    @Builder.Default
+    int breakerMinimumCalls = 10;
+    @Builder.Default
+    double breakerFailureRateThreshold = 0.5;
+    @Builder.Default
+    long breakerSlowCallMillis = 10000;
+    @Builder.Default
+    double breakerSlowCallRateThreshold = 0.8;
+    @Builder.Default
+    long breakerOpenMillis = 30000;
+    /**
+     * Trial calls let through once the breaker has been open for {@link #breakerOpenMillis}.
+     */
+    @Builder.Default
+    int breakerHalfOpenCalls = 3;
+
+    /**
+     * Sends a second copy of a GET that has not completed after this long and keeps the first answer;
+     * disabled when 0.
+     */
+    @Builder.Default
+    long hedgeAfterMillis = 0;
+    /**
+     * Fraction of hedge-eligible requests that may be hedged once the initial budget is spent, so that
+     * a slow dependency does not get twice the load.
+     */
+    @Builder.Default
+    double hedgeBudgetRatio = 0.1;
+    @Builder.Default
+    int hedgeBudgetMaxTokens = 10;
+
+    public static ResiliencePolicy Default() {
+        return ResiliencePolicy.builder().build();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps one circuit breaker and retry budget per downstream dependency, shared by every client it
+ * wraps for that dependency, e.g.
+ * {@code new LegalFactory(config, registry.wrap(ResilienceConfig.LEGAL, new HttpClient()))}.
+ */
+public class ResilienceRegistry implements AutoCloseable {
+
+    private final ResilienceConfig config;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Dependency> dependencies = new ConcurrentHashMap<>();
+    private final ExecutorService hedgingExecutor;
+    private final ScheduledExecutorService retryScheduler;
+
+    public ResilienceRegistry() {
+        this(ResilienceConfig.Default());
+    }
+
+    public ResilienceRegistry(ResilienceConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    ResilienceRegistry(ResilienceConfig config, LongSupplier nanoClock) {
+        if (config == null) {
+            throw new IllegalArgumentException("ResilienceConfig cannot be empty");
+        }
+        this.config = config;
+        this.nanoClock = nanoClock;
+        AtomicInteger threads = new AtomicInteger();
+        // no queue: a task either gets a thread now or is rejected and the caller sends without hedging
+        this.hedgingExecutor = new ThreadPoolExecutor(0, Math.max(1, config.getMaxHedgingThreads()),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "resilient-http-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resilient-http-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Wraps the client for the dependency. A client that implements {@link IAsyncHttpClient} gets a
+     * wrapper that does too, and streamed bodies are still streamed.
+     */
+    public IHttpClient wrap(String dependency, IHttpClient client) {
+        if (client == null) {
+            throw new IllegalArgumentException("IHttpClient cannot be empty");
+        }
+        if (client instanceof IAsyncHttpClient) {
+            return new ResilientAsyncHttpClient((IAsyncHttpClient) client, dependency(dependency),
+                    this.hedgingExecutor, this.retryScheduler);
+        }
+        return new ResilientHttpClient(client, dependency(dependency), this.hedgingExecutor);
+    }
+
+    public CircuitBreaker getCircuitBreaker(String dependency) {
+        return dependency(dependency).breaker;
+    }
+
+    public Map<String, ResilienceMetrics> getMetrics() {
+        Map<String, ResilienceMetrics> metrics = new TreeMap<>();
+        this.dependencies.forEach((name, dependency) -> metrics.put(name, dependency.metrics()));
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        this.hedgingExecutor.shutdownNow();
+        this.retryScheduler.shutdownNow();
+    }
+
+    private Dependency dependency(String dependency) {
+        if (dependency == null || dependency.isEmpty()) {
+            throw new IllegalArgumentException("dependency cannot be empty");
+        }
+        return this.dependencies.computeIfAbsent(dependency,
+                name -> new Dependency(name, this.config.getPolicy(name), this.nanoClock));
+    }
+
+    static final class Dependency {
+        final String name;
+        final ResiliencePolicy policy;
+        final LongSupplier nanoClock;
+        final CircuitBreaker breaker;
+        final RetryBudget retryBudget;
+        final RetryBudget hedgeBudget;
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong retriesDeniedByBudget = new AtomicLong();
+        final AtomicLong hedgedRequests = new AtomicLong();
+        final AtomicLong hedgesSkipped = new AtomicLong();
+
+        Dependency(String name, ResiliencePolicy policy, LongSupplier nanoClock) {
+            this.name = name;
+            this.policy = policy;
+            this.nanoClock = nanoClock;
+            this.breaker = new CircuitBreaker(policy, nanoClock);
+            this.retryBudget = new RetryBudget(policy.getRetryBudgetRatio(), policy.getRetryBudgetMaxTokens());
+            this.hedgeBudget = new RetryBudget(policy.getHedgeBudgetRatio(), policy.getHedgeBudgetMaxTokens());
+        }
+
+        ResilienceMetrics metrics() {
+            ResilienceMetrics.ResilienceMetricsBuilder metrics = ResilienceMetrics.builder()
+                    .dependency(this.name)
+                    .retries(this.retries.get())
+                    .retriesDeniedByBudget(this.retriesDeniedByBudget.get())
+                    .hedgedRequests(this.hedgedRequests.get())
+                    .hedgesSkipped(this.hedgesSkipped.get());
+            this.breaker.fill(metrics);
+            return metrics.build();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ResilientHttpClient} for a client that can send without blocking, so that wrapping it
+ * keeps {@link IAsyncHttpClient} working. Each attempt goes through the same circuit breaker and
+ * retry budget, is recorded when it completes, and retries wait on a scheduler instead of a
+ * thread. Async sends are not hedged. Created by {@link ResilienceRegistry#wrap(String, IHttpClient)}.
+ */
+class ResilientAsyncHttpClient extends ResilientHttpClient implements IAsyncHttpClient {
+
+    private final IAsyncHttpClient delegate;
+    private final ScheduledExecutorService retryScheduler;
+
+    ResilientAsyncHttpClient(IAsyncHttpClient delegate, ResilienceRegistry.Dependency dependency,
+                             ExecutorService hedgingExecutor, ScheduledExecutorService retryScheduler) {
+        super(delegate, dependency, hedgingExecutor);
+        this.delegate = delegate;
+        this.retryScheduler = retryScheduler;
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+        return sendAsync(request, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse> sendAsync(HttpRequest request, Class<T> type) {
+        this.dependency.retryBudget.onRequest();
+        return attemptAsync(request, type, 1, null);
+    }
+
+    private <T> CompletableFuture<HttpResponse> attemptAsync(HttpRequest request, Class<T> type, int attempts,
+                                                             HttpResponse previous) {
+        if (!this.dependency.breaker.tryAcquire()) {
+            return CompletableFuture.completedFuture(previous != null ? previous : rejected(request));
+        }
+        long start = this.dependency.nanoClock.getAsLong();
+        CompletableFuture<HttpResponse> sent;
+        try {
+            sent = this.delegate.sendAsync(copy(request), type);
+        } catch (RuntimeException | Error e) {
+            onResult(null, start);
+            throw e;
+        }
+        return sent
+                .whenComplete((response, e) -> onResult(response, start))
+                .thenCompose(response -> shouldRetry(request, response, attempts)
+                        ? retryLater(request, type, attempts, response)
+                        : CompletableFuture.completedFuture(response));
+    }
+
+    private <T> CompletableFuture<HttpResponse> retryLater(HttpRequest request, Class<T> type, int attempts,
+                                                           HttpResponse response) {
+        CompletableFuture<HttpResponse> retried = new CompletableFuture<>();
+        try {
+            this.retryScheduler.schedule(() -> {
+                this.dependency.retries.incrementAndGet();
+                try {
+                    attemptAsync(request, type, attempts + 1, response).whenComplete((next, e) -> {
+                        if (e == null) {
+                            retried.complete(next);
+                        } else {
+                            retried.completeExceptionally(e);
+                        }
+                    });
+                } catch (RuntimeException | Error e) {
+                    retried.completeExceptionally(e);
+                }
+            }, backoffMillis(attempts), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the registry is closed, so the failed answer is the last one
+            return CompletableFuture.completedFuture(response);
+        }
+        return retried;
+    }
+}
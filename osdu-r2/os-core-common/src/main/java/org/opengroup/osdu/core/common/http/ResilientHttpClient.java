@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests through a dependency's circuit breaker, retries transport errors, 429 and 502-504
+ * with exponential backoff and full jitter while the retry budget allows, and hedges slow GETs when
+ * the policy asks for it and the hedge budget allows. Only GET, PUT, DELETE and requests marked
+ * {@link HttpRequest#isIdempotent()} are retried. Streamed requests go through the delegate's
+ * {@link IHttpClient#stream} and are not hedged. Created by
+ * {@link ResilienceRegistry#wrap(String, IHttpClient)}.
+ */
+class ResilientHttpClient implements IHttpClient {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final IHttpClient delegate;
+    final ResilienceRegistry.Dependency dependency;
+    final ResiliencePolicy policy;
+    private final ExecutorService hedgingExecutor;
+
+    ResilientHttpClient(IHttpClient delegate, ResilienceRegistry.Dependency dependency, ExecutorService hedgingExecutor) {
+        this.delegate = delegate;
+        this.dependency = dependency;
+        this.policy = dependency.policy;
+        this.hedgingExecutor = hedgingExecutor;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest request) {
+        return send(request, null);
+    }
+
+    @Override
+    public <T> HttpResponse send(HttpRequest request, Class<T> type) {
+        return execute(request, () -> attempt(request, type), () -> true);
+    }
+
+    /**
+     * Streams the body through the delegate, so it is not buffered. A failed attempt is only retried
+     * while the reader has not been handed a body, or it would see the same records twice.
+     */
+    @Override
+    public HttpResponse stream(HttpRequest request, IResponseBodyReader reader) {
+        AtomicBoolean read = new AtomicBoolean();
+        IResponseBodyReader tracked = body -> {
+            read.set(true);
+            reader.read(body);
+        };
+        return execute(request, () -> recorded(() -> this.delegate.stream(copy(request), tracked)), () -> !read.get());
+    }
+
+    private HttpResponse execute(HttpRequest request, Supplier<HttpResponse> attempt, BooleanSupplier canRetry) {
+        this.dependency.retryBudget.onRequest();
+        HttpResponse response = null;
+        for (int attempts = 1; ; attempts++) {
+            if (!this.dependency.breaker.tryAcquire()) {
+                return response != null ? response : rejected(request);
+            }
+            response = attempt.get();
+            if (!canRetry.getAsBoolean() || !shouldRetry(request, response, attempts)) {
+                return response;
+            }
+            try {
+                Thread.sleep(backoffMillis(attempts));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return response;
+            }
+            this.dependency.retries.incrementAndGet();
+        }
+    }
+
+    private <T> HttpResponse attempt(HttpRequest request, Class<T> type) {
+        return recorded(() -> this.policy.getHedgeAfterMillis() > 0 && HttpRequest.GET.equals(request.getHttpMethod())
+                ? sendHedged(request, type)
+                : this.delegate.send(copy(request), type));
+    }
+
+    private HttpResponse recorded(Supplier<HttpResponse> call) {
+        long start = this.dependency.nanoClock.getAsLong();
+        HttpResponse response = null;
+        try {
+            response = call.get();
+            return response;
+        } finally {
+            // also when the client throws, or a half-open breaker would never get its permit back
+            onResult(response, start);
+        }
+    }
+
+    void onResult(HttpResponse response, long startNanos) {
+        this.dependency.breaker.onResult(response == null || isFailure(response),
+                TimeUnit.NANOSECONDS.toMillis(this.dependency.nanoClock.getAsLong() - startNanos));
+    }
+
+    /**
+     * Whether the response is worth another attempt, taking a token from the retry budget if so.
+     */
+    boolean shouldRetry(HttpRequest request, HttpResponse response, int attempts) {
+        boolean retriable = request.isIdempotent() || isIdempotent(request.getHttpMethod());
+        if (!retriable || !isRetryable(response) || attempts >= this.policy.getMaxAttempts()) {
+            return false;
+        }
+        if (!this.dependency.retryBudget.tryWithdraw()) {
+            this.dependency.retriesDeniedByBudget.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private <T> HttpResponse sendHedged(HttpRequest request, Class<T> type) {
+        this.dependency.hedgeBudget.onRequest();
+        CompletionService<HttpResponse> completion = new ExecutorCompletionService<>(this.hedgingExecutor);
+        List<Future<HttpResponse>> sent = new ArrayList<>(2);
+        try {
+            try {
+                sent.add(completion.submit(() -> this.delegate.send(copy(request), type)));
+            } catch (RejectedExecutionException e) {
+                this.dependency.hedgesSkipped.incrementAndGet();
+                return this.delegate.send(copy(request), type);
+            }
+            Future<HttpResponse> first = completion.poll(this.policy.getHedgeAfterMillis(), TimeUnit.MILLISECONDS);
+            if (first == null) {
+                hedge(request, type, completion, sent);
+                first = completion.take();
+            }
+            HttpResponse response = first.get();
+            if (sent.size() > 1 && isFailure(response)) {
+                HttpResponse other = completion.take().get();
+                if (!isFailure(other)) {
+                    response = other;
+                }
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(request, e);
+        } catch (ExecutionException e) {
+            return failed(request, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } finally {
+            sent.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> void hedge(HttpRequest request, Class<T> type, CompletionService<HttpResponse> completion,
+                           List<Future<HttpResponse>> sent) {
+        if (!this.dependency.hedgeBudget.tryWithdraw()) {
+            this.dependency.hedgesSkipped.incrementAndGet();
+            return;
+        }
+        try {
+            sent.add(completion.submit(() -> this.delegate.send(copy(request), type)));
+            this.dependency.hedgedRequests.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            this.dependency.hedgesSkipped.incrementAndGet();
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        double ceiling = Math.min(this.policy.getMaxBackoffMillis(),
+                this.policy.getInitialBackoffMillis() * Math.pow(this.policy.getBackoffMultiplier(), attempt - 1));
+        return ceiling < 1 ? 0 : ThreadLocalRandom.current().nextLong((long) ceiling + 1);
+    }
+
+    HttpResponse rejected(HttpRequest request) {
+        HttpResponse response = new HttpResponse();
+        response.setRequest(request);
+        response.setResponseCode(503);
+        response.setException(new CircuitBreakerOpenException(this.dependency.name));
+        return response;
+    }
+
+    private static HttpResponse failed(HttpRequest request, Exception e) {
+        HttpResponse response = new HttpResponse();
+        response.setRequest(request);
+        response.setException(e);
+        return response;
+    }
+
+    private static boolean isFailure(HttpResponse response) {
+        return response.hasException() || response.getResponseCode() == TOO_MANY_REQUESTS || response.isServerErrorCode();
+    }
+
+    private static boolean isRetryable(HttpResponse response) {
+        int code = response.getResponseCode();
+        return response.hasException() || code == TOO_MANY_REQUESTS || code == 502 || code == 503 || code == 504;
+    }
+
+    private static boolean isIdempotent(String method) {
+        return HttpRequest.GET.equals(method) || HttpRequest.PUT.equals(method) || HttpRequest.DELETE.equals(method);
+    }
+
+    /**
+     * Clients rewrite the request's URL when sending it, so every attempt gets its own copy.
+     */
+    static HttpRequest copy(HttpRequest request) {
+        return HttpRequest.builder()
+                .httpMethod(request.getHttpMethod())
+                .url(request.getUrl())
+                .body(request.getBody())
+                .headers(new HashMap<>(request.getHeaders()))
+                .connectionTimeout(request.getConnectionTimeout())
+                .followRedirects(request.isFollowRedirects())
+                .idempotent(request.isIdempotent())
+                .build();
+    }
+}
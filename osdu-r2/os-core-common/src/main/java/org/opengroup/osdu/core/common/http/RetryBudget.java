@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+/**
+ * A token bucket shared by all requests to a dependency: each request deposits {@code ratio} tokens
+ * and each extra call, a retry or a hedge depending on the budget, takes one.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = Math.max(1, maxTokens);
+        this.tokens = this.maxTokens;
+    }
+
+    synchronized void onRequest() {
+        this.tokens = Math.min(this.maxTokens, this.tokens + this.ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (this.tokens < 1) {
+            return false;
+        }
+        this.tokens--;
+        return true;
+    }
+}
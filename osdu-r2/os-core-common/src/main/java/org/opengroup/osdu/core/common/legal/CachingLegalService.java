@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.legal;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.storage.Record;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers legal tag validity from a {@link LegalTagValidityCache} shared across requests, delegating
+ * to the wrapped service only for tags of the caller's partition that are not cached yet.
+ */
+public class CachingLegalService implements ILegalService {
+
+	private final ILegalService delegate;
+	private final LegalTagValidityCache validityCache;
+	private final DpsHeaders headers;
+
+	public CachingLegalService(ILegalService delegate, LegalTagValidityCache validityCache, DpsHeaders headers) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("ILegalService cannot be empty");
+		}
+		if (validityCache == null) {
+			throw new IllegalArgumentException("LegalTagValidityCache cannot be empty");
+		}
+		this.delegate = delegate;
+		this.validityCache = validityCache;
+		this.headers = headers;
+	}
+
+	@Override
+	public void validateLegalTags(Set<String> legaltags) {
+		String partition = this.partition();
+		if (partition == null) {
+			this.delegate.validateLegalTags(legaltags);
+			return;
+		}
+		LegalTagValidityCache.Lookup lookup = this.validityCache.lookup(partition, legaltags);
+		if (lookup.isComplete() && lookup.getInvalid().isEmpty()) {
+			return;
+		}
+		// the delegate reports invalid tags in its own way; only a successful validation is cached
+		this.delegate.validateLegalTags(legaltags);
+		this.validityCache.complete(partition, lookup, new InvalidTagWithReason[0]);
+	}
+
+	@Override
+	public void populateLegalInfoFromParents(List<Record> inputRecords,
+											 Map<String, RecordMetadata> existingRecordsMetadata,
+											 Map<String, List<String>> recordParentMap) {
+		this.delegate.populateLegalInfoFromParents(inputRecords, existingRecordsMetadata, recordParentMap);
+	}
+
+	@Override
+	public void validateOtherRelevantDataCountries(Set<String> ordc) {
+		this.delegate.validateOtherRelevantDataCountries(ordc);
+	}
+
+	@Override
+	public InvalidTagWithReason[] getInvalidLegalTags(Set<String> legalTagNames) {
+		String partition = this.partition();
+		if (partition == null) {
+			return this.delegate.getInvalidLegalTags(legalTagNames);
+		}
+		return this.validityCache.getInvalidLegalTags(partition, legalTagNames, this.delegate::getInvalidLegalTags);
+	}
+
+	private String partition() {
+		return this.headers == null ? null : this.headers.getPartitionIdWithFallbackToAccountId();
+	}
+}
@@ -22,6 +22,8 @@ import org.opengroup.osdu.core.common.model.legal.LegalException;
 import org.opengroup.osdu.core.common.model.legal.LegalTag;
 import org.opengroup.osdu.core.common.model.legal.LegalTagProperties;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ILegalProvider {
 
     LegalTag create(LegalTag lt) throws LegalException;
@@ -33,4 +35,17 @@ public interface ILegalProvider {
     LegalTagProperties getLegalTagProperties() throws LegalException;
 
     InvalidTagsWithReason validate(String... names) throws LegalException;
+
+    /**
+     * Completes exceptionally with {@link LegalException} where {@link #validate(String...)} would throw.
+     */
+    default CompletableFuture<InvalidTagsWithReason> validateAsync(String... names) {
+        CompletableFuture<InvalidTagsWithReason> result = new CompletableFuture<>();
+        try {
+            result.complete(validate(names));
+        } catch (LegalException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
 }
@@ -19,16 +19,36 @@ package org.opengroup.osdu.core.common.legal;
 
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.IHttpClient;
 
 public class LegalFactory implements ILegalFactory {
 
     private final LegalAPIConfig config;
+    private final IHttpClient httpClient;
+    private final LegalTagValidityCache validityCache;
 
     public LegalFactory(LegalAPIConfig config) {
+        this(config, null);
+    }
+
+    public LegalFactory(LegalAPIConfig config, IHttpClient httpClient) {
+        this(config, httpClient, null);
+    }
+
+    /**
+     * @param httpClient shared client used by every created service, e.g. an
+     *                   {@link org.opengroup.osdu.core.common.http.AsyncHttpClient}; a new
+     *                   {@link HttpClient} is created per service when null
+     * @param validityCache shared by every created service to answer {@code validate} for known tags;
+     *                      every call goes to Legal when null
+     */
+    public LegalFactory(LegalAPIConfig config, IHttpClient httpClient, LegalTagValidityCache validityCache) {
         if (config == null) {
             throw new IllegalArgumentException("LegalAPIConfig cannot be empty");
         }
         this.config = config;
+        this.httpClient = httpClient;
+        this.validityCache = validityCache;
     }
 
     @Override
@@ -36,6 +56,7 @@ public class LegalFactory implements ILegalFactory {
         if (headers == null) {
             throw new NullPointerException("headers cannot be null");
         }
-        return new LegalService(this.config, new HttpClient(), headers);
+        return new LegalService(this.config, this.httpClient != null ? this.httpClient : new HttpClient(), headers,
+                this.validityCache);
     }
 }
@@ -23,19 +23,32 @@ import org.opengroup.osdu.core.common.model.legal.*;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.HttpRequest;
 import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.http.IAsyncHttpClient;
 import org.opengroup.osdu.core.common.http.IHttpClient;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
 public class LegalService implements ILegalProvider {
     private final String rootUrl;
     private final IHttpClient httpClient;
     private final DpsHeaders headers;
+    private final LegalTagValidityCache validityCache;
 
     LegalService(LegalAPIConfig config,
                  IHttpClient httpClient,
                  DpsHeaders headers) {
+        this(config, httpClient, headers, null);
+    }
+
+    LegalService(LegalAPIConfig config,
+                 IHttpClient httpClient,
+                 DpsHeaders headers,
+                 LegalTagValidityCache validityCache) {
         this.rootUrl = config.getRootUrl();
         this.httpClient = httpClient;
         this.headers = headers;
+        this.validityCache = validityCache;
         if (config.apiKey != null) {
             headers.put("AppKey", config.apiKey);
         }
@@ -45,7 +58,7 @@ public class LegalService implements ILegalProvider {
     public LegalTag create(LegalTag lt) throws LegalException {
         String url = this.createUrl("/legaltags");
         HttpResponse result = this.httpClient.send(
-                HttpRequest.post(lt).url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.post(lt).url(url).headers(this.headers.getHeaders()).build(), LegalTag.class);
         return this.getResult(result, LegalTag.class);
     }
 
@@ -53,7 +66,7 @@ public class LegalService implements ILegalProvider {
     public LegalTag get(String name) throws LegalException {
         String url = this.createUrl(String.format("/legaltags/%s", name));
         HttpResponse result = this.httpClient.send(
-                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build(), LegalTag.class);
         return result.IsNotFoundCode() ? null : this.getResult(result, LegalTag.class);
     }
 
@@ -67,19 +80,63 @@ public class LegalService implements ILegalProvider {
 
     @Override
     public InvalidTagsWithReason validate(String... names) throws LegalException {
+        String partition = this.headers.getPartitionIdWithFallbackToAccountId();
+        if (this.validityCache == null || partition == null) {
+            return this.validateRemotely(names);
+        }
+        InvalidTagsWithReason output = new InvalidTagsWithReason();
+        output.setInvalidLegalTags(this.validityCache.getInvalidLegalTags(partition, Arrays.asList(names),
+                unknown -> this.validateRemotely(unknown.toArray(new String[0])).getInvalidLegalTags()));
+        return output;
+    }
+
+    @Override
+    public CompletableFuture<InvalidTagsWithReason> validateAsync(String... names) {
+        if (!(this.httpClient instanceof IAsyncHttpClient)) {
+            return ILegalProvider.super.validateAsync(names);
+        }
+        String partition = this.headers.getPartitionIdWithFallbackToAccountId();
+        if (this.validityCache == null || partition == null) {
+            return this.validateRemotelyAsync(names);
+        }
+        LegalTagValidityCache.Lookup lookup = this.validityCache.lookup(partition, Arrays.asList(names));
+        if (lookup.isComplete()) {
+            InvalidTagsWithReason output = new InvalidTagsWithReason();
+            output.setInvalidLegalTags(lookup.getInvalid().toArray(new InvalidTagWithReason[0]));
+            return CompletableFuture.completedFuture(output);
+        }
+        return this.validateRemotelyAsync(lookup.getUnknown().toArray(new String[0])).thenApply(result -> {
+            InvalidTagsWithReason output = new InvalidTagsWithReason();
+            output.setInvalidLegalTags(this.validityCache.complete(partition, lookup, result.getInvalidLegalTags()));
+            return output;
+        });
+    }
+
+    private InvalidTagsWithReason validateRemotely(String... names) throws LegalException {
         String url = this.createUrl(String.format("/legaltags:validate"));
         RequestLegalTags rlt = new RequestLegalTags();
         rlt.setNames(names);
         HttpResponse result = this.httpClient.send(
-                HttpRequest.post(rlt).url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.post(rlt).url(url).headers(this.headers.getHeaders()).idempotent(true).build(),
+                InvalidTagsWithReason.class);
         return this.getResult(result, InvalidTagsWithReason.class);
     }
 
+    private CompletableFuture<InvalidTagsWithReason> validateRemotelyAsync(String... names) {
+        String url = this.createUrl("/legaltags:validate");
+        RequestLegalTags rlt = new RequestLegalTags();
+        rlt.setNames(names);
+        return ((IAsyncHttpClient) this.httpClient).sendAsync(
+                HttpRequest.post(rlt).url(url).headers(this.headers.getHeaders()).idempotent(true).build(),
+                InvalidTagsWithReason.class)
+                .thenCompose(result -> this.getFutureResult(result, InvalidTagsWithReason.class));
+    }
+
     @Override
     public LegalTagProperties getLegalTagProperties() throws LegalException {
         String url = this.createUrl("/legaltags:properties");
         HttpResponse result = this.httpClient.send(
-                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build());
+                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build(), LegalTagProperties.class);
         return result.IsNotFoundCode() ? null : this.getResult(result, LegalTagProperties.class);
     }
 
@@ -92,6 +149,16 @@ public class LegalService implements ILegalProvider {
         return StringUtils.join(this.rootUrl, pathAndQuery);
     }
 
+    private <T> CompletableFuture<T> getFutureResult(HttpResponse result, Class<T> type) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        try {
+            output.complete(this.getResult(result, type));
+        } catch (LegalException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
     private <T> T getResult(HttpResponse result, Class<T> type) throws LegalException {
         if (result.isSuccessCode()) {
             try {
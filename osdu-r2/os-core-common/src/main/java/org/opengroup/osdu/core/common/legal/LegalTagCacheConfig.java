@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.legal;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class LegalTagCacheConfig {
+    /**
+     * How long a legal tag's compliance status is trusted without asking Legal again; compliance change
+     * messages invalidate it earlier. Without an invalidation channel this is also how long nodes that
+     * did not receive the message can serve the old status.
+     */
+    @Builder.Default
+    long expirySeconds = 300;
+
+    @Builder.Default
+    long maximumTagsPerPartition = 10_000;
+
+    public static LegalTagCacheConfig Default() {
+        return LegalTagCacheConfig.builder().build();
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.legal;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.Getter;
+import org.opengroup.osdu.core.common.cache.IInvalidationChannel;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Compliance status of legal tags per data partition, so that Legal is only asked about tags that
+ * are not known yet. Entries expire after {@link LegalTagCacheConfig#getExpirySeconds()} and are
+ * dropped when a compliance change message names them.
+ * <p>
+ * A compliance change is pushed to one node only. Given an {@link IInvalidationChannel}, every
+ * invalidation is broadcast so the other nodes drop their copy too. Without one, other nodes keep
+ * serving the old status until it expires, so the expiry bounds how long they can stay stale.
+ */
+public class LegalTagValidityCache implements AutoCloseable {
+
+    static final String CHANNEL_NAME = "legal-tag-validity";
+
+    private final LegalTagCacheConfig config;
+    private final IInvalidationChannel channel;
+    private final Consumer<String> listener = this::onInvalidation;
+    private final String origin = UUID.randomUUID().toString();
+    private final Gson gson = new Gson();
+    private final ConcurrentMap<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    public LegalTagValidityCache() {
+        this(LegalTagCacheConfig.Default());
+    }
+
+    public LegalTagValidityCache(LegalTagCacheConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param channel topic shared by every node to broadcast invalidations on; local only when null
+     */
+    public LegalTagValidityCache(LegalTagCacheConfig config, IInvalidationChannel channel) {
+        if (config == null) {
+            throw new IllegalArgumentException("LegalTagCacheConfig cannot be empty");
+        }
+        this.config = config;
+        this.channel = channel;
+        if (channel != null) {
+            channel.subscribe(this.listener);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<E extends Exception> {
+        /**
+         * Asks Legal about the given tags and returns the invalid ones.
+         */
+        InvalidTagWithReason[] load(Set<String> names) throws E;
+    }
+
+    /**
+     * Returns the invalid tags among {@code names}, calling {@code loader} once for the tags not in the
+     * cache, if any.
+     */
+    public <E extends Exception> InvalidTagWithReason[] getInvalidLegalTags(String partition, Collection<String> names,
+                                                                           Loader<E> loader) throws E {
+        Lookup lookup = lookup(partition, names);
+        if (lookup.isComplete()) {
+            return lookup.getInvalid().toArray(new InvalidTagWithReason[0]);
+        }
+        return complete(partition, lookup, loader.load(lookup.getUnknown()));
+    }
+
+    public Lookup lookup(String partition, Collection<String> names) {
+        Partition tags = partition(partition);
+        long generation = tags.generation.get();
+        List<InvalidTagWithReason> invalid = new ArrayList<>();
+        Set<String> unknown = new LinkedHashSet<>();
+        for (String name : new LinkedHashSet<>(names)) {
+            Validity validity = tags.statuses.getIfPresent(name);
+            if (validity == null) {
+                unknown.add(name);
+            } else if (validity.status == LegalCompliance.incompliant) {
+                invalid.add(invalidTag(name, validity.reason));
+            }
+        }
+        this.hits.addAndGet(names.size() - unknown.size());
+        this.misses.addAndGet(unknown.size());
+        return new Lookup(generation, invalid, unknown);
+    }
+
+    /**
+     * Records what Legal answered for the unknown tags of {@code lookup}: tags in {@code loaded} are
+     * incompliant, the others compliant. Returns every invalid tag of the lookup.
+     */
+    public InvalidTagWithReason[] complete(String partition, Lookup lookup, InvalidTagWithReason[] loaded) {
+        this.loads.incrementAndGet();
+        Partition tags = partition(partition);
+        List<InvalidTagWithReason> invalid = new ArrayList<>(lookup.getInvalid());
+        Set<String> loadedInvalid = new LinkedHashSet<>();
+        if (loaded != null) {
+            for (InvalidTagWithReason tag : loaded) {
+                invalid.add(tag);
+                loadedInvalid.add(tag.getName());
+                if (lookup.getUnknown().contains(tag.getName())) {
+                    tags.statuses.put(tag.getName(), new Validity(LegalCompliance.incompliant, tag.getReason()));
+                }
+            }
+        }
+        for (String name : lookup.getUnknown()) {
+            if (!loadedInvalid.contains(name)) {
+                tags.statuses.put(name, Validity.COMPLIANT);
+            }
+        }
+        // a compliance change arrived while Legal was being asked: the answer may predate it
+        if (tags.generation.get() != lookup.generation) {
+            tags.statuses.invalidateAll(lookup.getUnknown());
+        }
+        return invalid.toArray(new InvalidTagWithReason[0]);
+    }
+
+    public void invalidate(String partition, Collection<String> names) {
+        if (Strings.isNullOrEmpty(partition) || names == null) {
+            return;
+        }
+        invalidateLocally(partition, names);
+        publish(partition, names, false);
+    }
+
+    public void invalidate(String partition, LegalTagChangedCollection changes) {
+        if (changes == null || changes.getStatusChangedTags() == null) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        for (LegalTagChanged change : changes.getStatusChangedTags()) {
+            names.add(change.getChangedTagName());
+        }
+        invalidate(partition, names);
+    }
+
+    public void invalidatePartition(String partition) {
+        if (Strings.isNullOrEmpty(partition)) {
+            return;
+        }
+        invalidateLocally(partition, null);
+        publish(partition, null, false);
+    }
+
+    public void invalidateAll() {
+        this.partitions.keySet().forEach(partition -> invalidateLocally(partition, null));
+        publish(null, null, true);
+    }
+
+    /**
+     * Stops listening for invalidations from other nodes. The channel is left open as it is usually
+     * shared.
+     */
+    @Override
+    public void close() {
+        if (this.channel != null) {
+            this.channel.unsubscribe(this.listener);
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * Number of lookups that had to go to Legal.
+     */
+    public long getLoadCount() {
+        return this.loads.get();
+    }
+
+    private Partition partition(String partition) {
+        if (Strings.isNullOrEmpty(partition)) {
+            throw new IllegalArgumentException("partition cannot be empty");
+        }
+        return this.partitions.computeIfAbsent(partition, key -> new Partition(CacheBuilder.newBuilder()
+                .expireAfterWrite(this.config.getExpirySeconds(), TimeUnit.SECONDS)
+                .maximumSize(this.config.getMaximumTagsPerPartition())
+                .build()));
+    }
+
+    /**
+     * Drops the given tags, or every tag of the partition when {@code names} is null. The partition
+     * itself is kept: a lookup in flight completes against it and sees the generation change.
+     */
+    private void invalidateLocally(String partition, Collection<String> names) {
+        Partition tags = this.partitions.get(partition);
+        if (tags == null) {
+            return;
+        }
+        tags.generation.incrementAndGet();
+        if (names == null) {
+            tags.statuses.invalidateAll();
+        } else {
+            tags.statuses.invalidateAll(names);
+        }
+    }
+
+    private void publish(String partition, Collection<String> names, boolean all) {
+        if (this.channel == null) {
+            return;
+        }
+        InvalidationMessage message = new InvalidationMessage();
+        message.name = CHANNEL_NAME;
+        message.origin = this.origin;
+        message.partition = partition;
+        message.tags = names == null ? null : new ArrayList<>(names);
+        message.all = all;
+        this.channel.publish(this.gson.toJson(message));
+    }
+
+    private void onInvalidation(String payload) {
+        InvalidationMessage message;
+        try {
+            message = this.gson.fromJson(payload, InvalidationMessage.class);
+        } catch (JsonParseException e) {
+            message = null;
+        }
+        if (message != null && (this.origin.equals(message.origin) || !CHANNEL_NAME.equals(message.name))) {
+            return;
+        }
+        if (message == null || message.all || Strings.isNullOrEmpty(message.partition)) {
+            // a message we cannot read may have been about any tag
+            this.partitions.keySet().forEach(partition -> invalidateLocally(partition, null));
+        } else {
+            invalidateLocally(message.partition, message.tags);
+        }
+    }
+
+    private static InvalidTagWithReason invalidTag(String name, String reason) {
+        InvalidTagWithReason tag = new InvalidTagWithReason();
+        tag.setName(name);
+        tag.setReason(reason);
+        return tag;
+    }
+
+    /**
+     * The cached part of an answer, and the tags Legal still has to be asked about.
+     */
+    @Getter
+    public static class Lookup {
+        private final long generation;
+        private final List<InvalidTagWithReason> invalid;
+        private final Set<String> unknown;
+
+        private Lookup(long generation, List<InvalidTagWithReason> invalid, Set<String> unknown) {
+            this.generation = generation;
+            this.invalid = Collections.unmodifiableList(invalid);
+            this.unknown = Collections.unmodifiableSet(unknown);
+        }
+
+        public boolean isComplete() {
+            return this.unknown.isEmpty();
+        }
+    }
+
+    private static class Partition {
+        private final Cache<String, Validity> statuses;
+        private final AtomicLong generation = new AtomicLong();
+
+        private Partition(Cache<String, Validity> statuses) {
+            this.statuses = statuses;
+        }
+    }
+
+    private static class InvalidationMessage {
+        String name;
+        String origin;
+        String partition;
+        List<String> tags;
+        boolean all;
+    }
+
+    private static class Validity {
+        private static final Validity COMPLIANT = new Validity(LegalCompliance.compliant, null);
+
+        private final LegalCompliance status;
+        private final String reason;
+
+        private Validity(LegalCompliance status, String reason) {
+            this.status = status;
+            this.reason = reason;
+        }
+    }
+}
@@ -17,14 +17,12 @@
 
 package org.opengroup.osdu.core.common.model.crs;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 import java.io.IOException;
 import java.util.List;
@@ -32,6 +30,8 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 public class ConvertTrajectoryRequest {
+    private static final ObjectReader READER = JsonCodecs.caseInsensitiveReader(ConvertTrajectoryRequest.class);
+
     @JsonProperty("trajectoryCRS")
     private String trajectoryCRS;
     @JsonProperty("azimuthReference")
@@ -59,10 +59,7 @@ public class ConvertTrajectoryRequest {
     public static ConvertTrajectoryRequest createInstance(String json) {
         ConvertTrajectoryRequest result = null;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            JsonNode node = mapper.readTree(json);
-            result = mapper.treeToValue(node, ConvertTrajectoryRequest.class);
+            result = READER.readValue(json);
 
         } catch (IOException e) {
             return result;
@@ -73,11 +70,8 @@ public class ConvertTrajectoryRequest {
     @Override
     public String toString() {
         String result = null;
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         try {
-            result = mapper.writeValueAsString(this);
+            result = JsonCodecs.nonNullWriter().writeValueAsString(this);
         } catch (JsonProcessingException e) {
             return result;
         }
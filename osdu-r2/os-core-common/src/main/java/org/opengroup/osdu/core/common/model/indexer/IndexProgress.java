@@ -25,7 +25,23 @@ import java.util.Stack;
 @Data
 @Builder
 public class IndexProgress {
+
+    /**
+     * Oldest messages are dropped once a record has collected this many.
+     */
+    public static final int MAX_TRACE_SIZE = 50;
+
     private int statusCode;
     private Stack<String> trace;
     private String lastUpdateTime;
+
+    public void addTrace(String message) {
+        if (this.trace == null) {
+            this.trace = new Stack<>();
+        }
+        this.trace.push(message);
+        if (this.trace.size() > MAX_TRACE_SIZE) {
+            this.trace.subList(0, this.trace.size() - MAX_TRACE_SIZE).clear();
+        }
+    }
 }
@@ -18,6 +18,11 @@
 package org.opengroup.osdu.core.common.model.indexer;
 
 import com.google.common.base.Strings;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.java.Log;
 import lombok.Data;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
@@ -27,8 +32,14 @@ import org.springframework.web.context.annotation.RequestScope;
 import javax.inject.Inject;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Indexing outcome of every record in a job. Records are looked up through a case-insensitive
+ * id index, so batch updates do not scan the whole list. Status queries read the records themselves,
+ * so a {@link RecordStatus} changed directly is reported as it is now. Records appended to
+ * {@link #getStatusesList()} directly are picked up on the next call; a record id must not change once
+ * the record is in the list.
+ */
 @Log
 @Data
 @Component
@@ -42,19 +53,31 @@ public class JobStatus {
 
     private List<String> debugInfos = new ArrayList<>();
 
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    private final Map<String, Integer> positionsById = new HashMap<>();
+
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    private int indexedCount;
+
+    public void setStatusesList(List<RecordStatus> statusesList) {
+        this.statusesList = statusesList;
+        clearIndex();
+    }
+
     public void initialize(List<RecordInfo> recordInfos) {
 
         if (recordInfos == null || recordInfos.isEmpty()) return;
 
-        List<RecordStatus> statuses = recordInfos.stream().map(msg -> RecordStatus.builder()
-                .id(msg.getId())
-                .kind(msg.getKind())
-                .operationType(msg.getOp())
-                .status(IndexingStatus.PROCESSING)
-                .indexProgress(IndexProgress.builder().trace(new Stack<>()).lastUpdateTime(Instant.now().toString()).build())
-                .build()).collect(Collectors.toList());
-
-        this.statusesList.addAll(statuses);
+        syncIndex();
+        for (RecordInfo msg : recordInfos) {
+            append(RecordStatus.builder()
+                    .id(msg.getId())
+                    .kind(msg.getKind())
+                    .operationType(msg.getOp())
+                    .status(IndexingStatus.PROCESSING)
+                    .indexProgress(IndexProgress.builder().trace(new Stack<>()).lastUpdateTime(Instant.now().toString()).build())
+                    .build());
+        }
     }
 
     public void addOrUpdateRecordStatus(Collection<String> ids, IndexingStatus status, int statusCode, String message, String debugInfo) {
@@ -72,67 +95,111 @@ public class JobStatus {
     public void addOrUpdateRecordStatus(Collection<String> ids, IndexingStatus status, int statusCode, String message) {
 
         if (ids == null || ids.isEmpty()) return;
-        ids.forEach(id -> addOrUpdateRecordStatus(id, status, statusCode, message));
+        syncIndex();
+        String now = Instant.now().toString();
+        ids.forEach(id -> addOrUpdate(id, status, statusCode, message, now));
     }
 
     public void addOrUpdateRecordStatus(String id, IndexingStatus status, int statusCode, String message) {
-        Optional<RecordStatus> queryResult = this.statusesList.stream().filter(s -> s.getId().equalsIgnoreCase(id)).findFirst();
-        if (queryResult.isPresent()) {
-            RecordStatus s = queryResult.get();
-            IndexProgress indexProgress = s.getIndexProgress();
-            indexProgress.setStatusCode(statusCode);
-            indexProgress.setLastUpdateTime(Instant.now().toString());
-            if (!Strings.isNullOrEmpty(message)) {
-                indexProgress.getTrace().add(message);
-            }
-            if (status.isWorseThan(s.getStatus())) {
-                s.setStatus(status);
-            }
-            s.setIndexProgress(indexProgress);
-        } else {
-            IndexProgress indexProgress = IndexProgress.builder()
-                    .trace(new Stack<>())
-                    .lastUpdateTime(Instant.now().toString()).build();
-            indexProgress.getTrace().add(message);
-            this.statusesList.add(RecordStatus.builder().id(id).status(status).indexProgress(indexProgress).build());
-        }
+        syncIndex();
+        addOrUpdate(id, status, statusCode, message, Instant.now().toString());
     }
 
     public List<String> getIdsByIndexingStatus(IndexingStatus indexingStatus) {
-
-        return this.statusesList.stream().filter(s -> s.getStatus() == indexingStatus).map(RecordStatus::getId)
-                .collect(Collectors.toList());
+        List<String> ids = new ArrayList<>();
+        for (RecordStatus recordStatus : this.statusesList) {
+            if (recordStatus.getStatus() == indexingStatus) {
+                ids.add(recordStatus.getId());
+            }
+        }
+        return ids;
     }
 
     public String getRecordKindById(String id) {
-        Optional<RecordStatus> optionalRecordStatus = this.statusesList.stream().filter(s -> s.getId()
-                .equalsIgnoreCase(id)).findFirst();
-        RecordStatus status = optionalRecordStatus.orElse(null);
+        RecordStatus status = getJobStatusByRecordId(id);
         return status != null ? status.getKind() : null;
     }
 
     public RecordStatus getJobStatusByRecordId(String id) {
-        Optional<RecordStatus> optionalRecordStatus = this.statusesList.stream().filter(s -> s.getId()
-                .equalsIgnoreCase(id)).findFirst();
-        return optionalRecordStatus.orElse(null);
+        syncIndex();
+        Integer position = this.positionsById.get(normalize(id));
+        return position != null ? this.statusesList.get(position) : null;
     }
 
     public List<RecordStatus> getRecordStatuses(IndexingStatus indexingStatus, OperationType operationType) {
-        return this.statusesList.stream().filter(
-                s -> s.getStatus() == indexingStatus && s.getOperationType().equalsIgnoreCase(operationType.getValue())).collect(Collectors.toList());
+        List<RecordStatus> statuses = new ArrayList<>();
+        for (RecordStatus recordStatus : this.statusesList) {
+            if (recordStatus.getStatus() == indexingStatus
+                    && operationType.getValue().equalsIgnoreCase(recordStatus.getOperationType())) {
+                statuses.add(recordStatus);
+            }
+        }
+        return statuses;
     }
 
     /*
      * mark all the records as FAIL if for some reason they were not processed
      * */
     public void finalizeRecordStatus(String errorMessage) {
-        statusesList.stream().filter(recordStatus -> recordStatus.getStatus() == IndexingStatus.PROCESSING).forEach
-                (recordStatus -> {
-                    recordStatus.setStatus(IndexingStatus.FAIL);
-                    recordStatus.getIndexProgress().getTrace().add(errorMessage);
-                });
+        for (RecordStatus recordStatus : this.statusesList) {
+            if (recordStatus.getStatus() == IndexingStatus.PROCESSING) {
+                recordStatus.setStatus(IndexingStatus.FAIL);
+                recordStatus.getIndexProgress().addTrace(errorMessage);
+            }
+        }
 
         // dump all debug-info
         this.jaxRsDpsLog.warning(this.debugInfos);
     }
+
+    private void addOrUpdate(String id, IndexingStatus status, int statusCode, String message, String now) {
+        Integer position = this.positionsById.get(normalize(id));
+        if (position != null) {
+            RecordStatus s = this.statusesList.get(position);
+            IndexProgress indexProgress = s.getIndexProgress();
+            indexProgress.setStatusCode(statusCode);
+            indexProgress.setLastUpdateTime(now);
+            if (!Strings.isNullOrEmpty(message)) {
+                indexProgress.addTrace(message);
+            }
+            if (status.isWorseThan(s.getStatus())) {
+                s.setStatus(status);
+            }
+        } else {
+            IndexProgress indexProgress = IndexProgress.builder()
+                    .trace(new Stack<>())
+                    .lastUpdateTime(now).build();
+            indexProgress.addTrace(message);
+            append(RecordStatus.builder().id(id).status(status).indexProgress(indexProgress).build());
+        }
+    }
+
+    private void append(RecordStatus recordStatus) {
+        this.statusesList.add(recordStatus);
+        index(this.statusesList.size() - 1, recordStatus);
+        this.indexedCount = this.statusesList.size();
+    }
+
+    private void syncIndex() {
+        if (this.statusesList.size() < this.indexedCount) {
+            clearIndex();
+        }
+        for (int position = this.indexedCount; position < this.statusesList.size(); position++) {
+            index(position, this.statusesList.get(position));
+        }
+        this.indexedCount = this.statusesList.size();
+    }
+
+    private void index(int position, RecordStatus recordStatus) {
+        this.positionsById.putIfAbsent(normalize(recordStatus.getId()), position);
+    }
+
+    private void clearIndex() {
+        this.positionsById.clear();
+        this.indexedCount = 0;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
 }
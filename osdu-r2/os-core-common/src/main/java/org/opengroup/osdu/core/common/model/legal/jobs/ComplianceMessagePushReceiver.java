@@ -20,6 +20,7 @@ package org.opengroup.osdu.core.common.model.legal.jobs;
 import com.google.gson.Gson;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.RequestBodyExtractor;
+import org.opengroup.osdu.core.common.legal.LegalTagValidityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
@@ -40,9 +41,16 @@ public class ComplianceMessagePushReceiver {
 	@Autowired
 	private ILegalComplianceChangeService legalComplianceChangeService;
 
+	@Autowired(required = false)
+	private LegalTagValidityCache legalTagValidityCache;
+
 	public void receiveMessageFromHttpRequest() {
 		LegalTagChangedCollection dto = new Gson().fromJson(this.requestBodyExtractor.extractDataFromRequestBody(),
 				LegalTagChangedCollection.class);
+		// drop cached statuses first so that the consistency check asks Legal about the changed tags
+		if (this.legalTagValidityCache != null) {
+			this.legalTagValidityCache.invalidate(this.dpsHeaders.getPartitionIdWithFallbackToAccountId(), dto);
+		}
 		LegalTagChangedCollection validDto = this.legalTagConsistencyValidator.checkLegalTagStatusWithLegalService(dto);
 		this.legalComplianceChangeService.updateComplianceOnRecords(validDto, this.dpsHeaders);
 	}
@@ -49,27 +49,26 @@ public class LegalTagConsistencyValidator {
 
 		InvalidTagWithReason[] invalidLegalTags = this.legalService.getInvalidLegalTags(requestedLegalTagNames);
 
-		List<String> invalidLegalTagsNames = new ArrayList<>();
-		for (InvalidTagWithReason legaltag : invalidLegalTags) {
-			invalidLegalTagsNames.add(legaltag.getName());
+		Set<String> invalidLegalTagsNames = new HashSet<>();
+		if (invalidLegalTags != null) {
+			for (InvalidTagWithReason legaltag : invalidLegalTags) {
+				invalidLegalTagsNames.add(legaltag.getName());
+			}
 		}
 
-		for (int i = 0; i < statusChangedTags.size(); i++) {
-			LegalTagChanged lt = statusChangedTags.get(i);
-			if (lt.getChangedTagStatus().equalsIgnoreCase("incompliant")
-					&& !invalidLegalTagsNames.contains(lt.getChangedTagName())) {
-				this.logger.warning("Inconsistency between pubsub message and legal: " + lt.getChangedTagName());
-				statusChangedTags.remove(lt);
-			}
-			if (lt.getChangedTagStatus().equalsIgnoreCase("compliant")
-					&& invalidLegalTagsNames.contains(lt.getChangedTagName())) {
+		List<LegalTagChanged> consistentTags = new ArrayList<>(statusChangedTags.size());
+		for (LegalTagChanged lt : statusChangedTags) {
+			boolean invalid = invalidLegalTagsNames.contains(lt.getChangedTagName());
+			if (("incompliant".equalsIgnoreCase(lt.getChangedTagStatus()) && !invalid)
+					|| ("compliant".equalsIgnoreCase(lt.getChangedTagStatus()) && invalid)) {
 				this.logger.warning("Inconsistency between pubsub message and legal: " + lt.getChangedTagName());
-				statusChangedTags.remove(lt);
+			} else {
+				consistentTags.add(lt);
 			}
 		}
 
 		LegalTagChangedCollection validOutput = new LegalTagChangedCollection();
-		validOutput.setStatusChangedTags(statusChangedTags);
+		validOutput.setStatusChangedTags(consistentTags);
 
 		return validOutput;
 	}
@@ -17,9 +17,9 @@
 
 package org.opengroup.osdu.core.common.model.search;
 
-import com.google.gson.Gson;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,7 +34,7 @@ public class CcsQueryResponse {
 
     @Override
     public String toString() {
-        return new Gson().toJson(this, CcsQueryResponse.class);
+        return JsonCodecs.gson().toJson(this, CcsQueryResponse.class);
     }
 
 }
@@ -23,6 +23,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.opengroup.osdu.core.common.SwaggerDoc;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 @Data
 @NoArgsConstructor
@@ -35,6 +36,6 @@ public class CursorQueryRequest extends Query {
 
     @Override
     public String toString(){
-        return new com.google.gson.Gson().toJson(this);
+        return JsonCodecs.gson().toJson(this);
     }
 }
@@ -17,10 +17,10 @@
 
 package org.opengroup.osdu.core.common.model.search;
 
-import com.google.gson.Gson;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 @Data
 @AllArgsConstructor
@@ -30,6 +30,6 @@ public class CursorSettings {
     String userId;
 
     public String toString() {
-        return (new Gson()).toJson(this);
+        return JsonCodecs.gson().toJson(this);
     }
 }
@@ -24,6 +24,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.opengroup.osdu.core.common.SwaggerDoc;
 import org.opengroup.osdu.core.common.model.search.validation.ValidOffset;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 import javax.validation.constraints.Min;
 
@@ -44,6 +45,6 @@ public class QueryRequest extends Query {
 
     @Override
     public String toString(){
-        return new com.google.gson.Gson().toJson(this);
+        return JsonCodecs.gson().toJson(this);
     }
 }
@@ -25,6 +25,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,14 +38,8 @@ import java.util.Map;
 @Builder
 public class QueryResponse {
 
-    private List<Map<String, Object>> results = new ArrayList<>();
-    private List<AggregationResponse> aggregations = new ArrayList<>();
-    private long totalCount;
-
-    @Override
-    public String toString() {
-        if (this.aggregations == null) {
-            ExclusionStrategy strategy = new ExclusionStrategy() {
+    private static final Gson GSON_WITHOUT_AGGREGATIONS = new GsonBuilder()
+            .addSerializationExclusionStrategy(new ExclusionStrategy() {
                 @Override
                 public boolean shouldSkipField(FieldAttributes field) {
                     return "aggregations".equals(field.getName());
@@ -54,10 +49,18 @@ public class QueryResponse {
                 public boolean shouldSkipClass(Class<?> clazz) {
                     return false;
                 }
-            };
-            return new GsonBuilder().addSerializationExclusionStrategy(strategy).create().toJson(this, QueryResponse.class);
+            }).create();
+
+    private List<Map<String, Object>> results = new ArrayList<>();
+    private List<AggregationResponse> aggregations = new ArrayList<>();
+    private long totalCount;
+
+    @Override
+    public String toString() {
+        if (this.aggregations == null) {
+            return GSON_WITHOUT_AGGREGATIONS.toJson(this, QueryResponse.class);
         } else {
-            return new Gson().toJson(this, QueryResponse.class);
+            return JsonCodecs.gson().toJson(this, QueryResponse.class);
         }
     }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import org.opengroup.osdu.core.common.http.HttpRequest;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.http.IHttpClient;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Posts {@link MultiRecordStreamRequest}s to a storage endpoint that answers with
+ * newline-delimited {@link MultiRecordChunk}s. Chunks are handed to the sink as they arrive
+ * rather than after the whole page has been read.
+ */
+public class HttpMultiRecordStreamSource implements IMultiRecordStreamSource {
+
+    private final IHttpClient httpClient;
+    private final String url;
+    private final Map<String, String> headers;
+
+    public HttpMultiRecordStreamSource(IHttpClient httpClient, String url, Map<String, String> headers) {
+        if (httpClient == null) {
+            throw new IllegalArgumentException("IHttpClient cannot be empty");
+        }
+        if (url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("url cannot be empty");
+        }
+        this.httpClient = httpClient;
+        this.url = url;
+        this.headers = headers;
+    }
+
+    @Override
+    public void fetch(MultiRecordStreamRequest request, Consumer<MultiRecordChunk> chunks) throws IOException {
+        HttpRequest.HttpRequestBuilder builder = HttpRequest.post(request).url(this.url).idempotent(true);
+        if (this.headers != null) {
+            builder.headers(this.headers);
+        }
+        HttpResponse response = this.httpClient.stream(builder.build(), body -> {
+            try (MultiRecordChunkReader reader = new MultiRecordChunkReader(
+                    new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                reader.forEachRemaining(chunks);
+            }
+        });
+        if (response.getException() != null) {
+            throw new IOException("Error streaming records from " + this.url, response.getException());
+        }
+        if (!response.isSuccessCode()) {
+            throw new AppException(response.getResponseCode(), "Record stream request failed", response.getBody());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of a streamed multi-record response. Same content as {@link MultiRecordResponse}, but a
+ * response holds as many chunks as the server chooses to flush.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiRecordChunk {
+
+    @JsonRawValue
+    @Builder.Default
+    private List<String> records = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> notFound = new ArrayList<>();
+
+    @Builder.Default
+    private List<ConversionStatus> conversionStatuses = new ArrayList<>();
+
+    /**
+     * Cursor of the next page when fetching by kind, set on the last chunk of a page only.
+     */
+    private String cursor;
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the newline-delimited {@link MultiRecordChunk}s written by {@link MultiRecordChunkWriter}
+ * one at a time, so only the current chunk is held in memory.
+ */
+public class MultiRecordChunkReader implements Iterator<MultiRecordChunk>, Closeable {
+
+    private static final Gson GSON = new Gson();
+
+    private final JsonReader in;
+    private final JsonParser parser = new JsonParser();
+
+    public MultiRecordChunkReader(Reader in) {
+        if (in == null) {
+            throw new IllegalArgumentException("Reader cannot be empty");
+        }
+        this.in = new JsonReader(in);
+        this.in.setLenient(true);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return this.in.peek() != JsonToken.END_DOCUMENT;
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+    }
+
+    @Override
+    public MultiRecordChunk next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonObject json = this.parser.parse(this.in).getAsJsonObject();
+        MultiRecordChunk chunk = new MultiRecordChunk();
+        chunk.setRecords(rawValues(json.getAsJsonArray("records")));
+        if (json.has("notFound")) {
+            for (JsonElement id : json.getAsJsonArray("notFound")) {
+                chunk.getNotFound().add(id.getAsString());
+            }
+        }
+        if (json.has("conversionStatuses")) {
+            for (JsonElement status : json.getAsJsonArray("conversionStatuses")) {
+                chunk.getConversionStatuses().add(GSON.fromJson(status, ConversionStatus.class));
+            }
+        }
+        if (json.has("cursor") && !json.get("cursor").isJsonNull()) {
+            chunk.setCursor(json.get("cursor").getAsString());
+        }
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    private static List<String> rawValues(JsonArray array) {
+        List<String> values = new ArrayList<>();
+        if (array != null) {
+            for (JsonElement element : array) {
+                values.add(element.toString());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes {@link MultiRecordChunk}s as newline-delimited JSON, copying each record's JSON as is.
+ * Every chunk is flushed so the reader can start on it while the next one is produced.
+ */
+public class MultiRecordChunkWriter implements Closeable {
+
+    private static final Gson GSON = new Gson();
+
+    private final Writer out;
+
+    public MultiRecordChunkWriter(Writer out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Writer cannot be empty");
+        }
+        this.out = out;
+    }
+
+    public void write(MultiRecordChunk chunk) throws IOException {
+        JsonWriter json = new JsonWriter(this.out);
+        json.beginObject();
+        json.name("records").beginArray();
+        if (chunk.getRecords() != null) {
+            for (String record : chunk.getRecords()) {
+                json.jsonValue(record);
+            }
+        }
+        json.endArray();
+        json.name("notFound");
+        GSON.toJson(chunk.getNotFound(), List.class, json);
+        json.name("conversionStatuses");
+        GSON.toJson(chunk.getConversionStatuses(), List.class, json);
+        if (chunk.getCursor() != null) {
+            json.name("cursor").value(chunk.getCursor());
+        }
+        json.endObject();
+        json.flush();
+        this.out.write('\n');
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class MultiRecordStreamConfig {
+    /**
+     * Number of record ids sent per request, or the page limit when fetching by kind.
+     */
+    @Builder.Default
+    int pageSize = 1000;
+
+    /**
+     * Number of id pages that may be outstanding at once.
+     */
+    @Builder.Default
+    int maxInFlightPages = 4;
+
+    public static MultiRecordStreamConfig Default() {
+        return MultiRecordStreamConfig.builder().build();
+    }
+}
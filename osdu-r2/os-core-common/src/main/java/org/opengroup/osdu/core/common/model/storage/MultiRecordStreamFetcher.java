@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fetches large numbers of records through an {@link IMultiRecordStreamSource}. Ids are split into
+ * pages which are requested concurrently, up to the configured number in flight. Fetching by kind
+ * follows the cursor page by page. Chunks are handed to the sink one at a time, in the order they
+ * arrive, so the sink does not need to be thread-safe.
+ */
+public class MultiRecordStreamFetcher implements AutoCloseable {
+
+    private final IMultiRecordStreamSource source;
+    private final MultiRecordStreamConfig config;
+    private final ExecutorService executor;
+
+    public MultiRecordStreamFetcher(IMultiRecordStreamSource source) {
+        this(source, MultiRecordStreamConfig.Default());
+    }
+
+    public MultiRecordStreamFetcher(IMultiRecordStreamSource source, MultiRecordStreamConfig config) {
+        if (source == null) {
+            throw new IllegalArgumentException("IMultiRecordStreamSource cannot be empty");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("MultiRecordStreamConfig cannot be empty");
+        }
+        this.source = source;
+        this.config = config;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, config.getMaxInFlightPages()), runnable -> {
+            Thread thread = new Thread(runnable, "multi-record-fetch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fetches the given records and returns how many were delivered to the sink.
+     */
+    public int fetch(List<String> ids, String[] attributes, Consumer<MultiRecordChunk> sink) throws IOException {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        Sink delivery = new Sink(sink);
+        int pageSize = Math.max(1, Math.min(this.config.getPageSize(), MultiRecordStreamRequest.MAX_RECORDS));
+        CompletionService<Void> pages = new ExecutorCompletionService<>(this.executor);
+        List<Future<Void>> submitted = new ArrayList<>();
+        int inFlight = 0;
+        try {
+            for (int from = 0; from < ids.size(); from += pageSize) {
+                if (inFlight == Math.max(1, this.config.getMaxInFlightPages())) {
+                    await(pages.take());
+                    inFlight--;
+                }
+                MultiRecordStreamRequest request = MultiRecordStreamRequest.builder()
+                        .records(new ArrayList<>(ids.subList(from, Math.min(ids.size(), from + pageSize))))
+                        .attributes(attributes)
+                        .build();
+                submitted.add(pages.submit(() -> {
+                    this.source.fetch(request, delivery);
+                    return null;
+                }));
+                inFlight++;
+            }
+            for (; inFlight > 0; inFlight--) {
+                await(pages.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching records", e);
+        } finally {
+            submitted.forEach(future -> future.cancel(true));
+        }
+        return delivery.records;
+    }
+
+    /**
+     * Fetches every record of a kind, following the cursor from page to page, and returns how
+     * many were delivered to the sink.
+     */
+    public int fetchKind(String kind, String[] attributes, Consumer<MultiRecordChunk> sink) throws IOException {
+        if (kind == null || kind.isEmpty()) {
+            throw new IllegalArgumentException("kind cannot be empty");
+        }
+        Sink delivery = new Sink(sink);
+        String cursor = null;
+        do {
+            delivery.cursor = null;
+            this.source.fetch(MultiRecordStreamRequest.builder()
+                    .kind(kind)
+                    .cursor(cursor)
+                    .limit(this.config.getPageSize())
+                    .attributes(attributes)
+                    .build(), delivery);
+            cursor = delivery.cursor;
+        } while (cursor != null && !cursor.isEmpty());
+        return delivery.records;
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private static void await(Future<Void> page) throws IOException, InterruptedException {
+        try {
+            page.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static class Sink implements Consumer<MultiRecordChunk> {
+        private final Consumer<MultiRecordChunk> target;
+        private int records;
+        private String cursor;
+
+        Sink(Consumer<MultiRecordChunk> target) {
+            if (target == null) {
+                throw new IllegalArgumentException("sink cannot be empty");
+            }
+            this.target = target;
+        }
+
+        @Override
+        public synchronized void accept(MultiRecordChunk chunk) {
+            this.records += chunk.getRecords() == null ? 0 : chunk.getRecords().size();
+            if (chunk.getCursor() != null) {
+                this.cursor = chunk.getCursor();
+            }
+            this.target.accept(chunk);
+        }
+    }
+}
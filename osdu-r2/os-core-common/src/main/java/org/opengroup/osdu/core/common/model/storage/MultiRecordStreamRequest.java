@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.model.storage.validation.ValidNotNullArray;
+import org.opengroup.osdu.core.common.model.storage.validation.ValidNotNullCollection;
+import org.opengroup.osdu.core.common.model.storage.validation.ValidationDoc;
+
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Fetches records either by id or by kind. The response is a stream of {@link MultiRecordChunk}s
+ * written as newline-delimited JSON; when fetching by kind, the last chunk carries the cursor of
+ * the next page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiRecordStreamRequest {
+
+    public static final int MAX_RECORDS = 10000;
+
+    @ValidNotNullCollection
+    @Size(max = MAX_RECORDS, message = ValidationDoc.RECORDS_STREAM_RETRIEVAL_MAX)
+    private List<String> records;
+
+    private String kind;
+
+    private String cursor;
+
+    private Integer limit;
+
+    @ValidNotNullArray
+    private String[] attributes;
+
+    public boolean isByKind() {
+        return this.records == null || this.records.isEmpty();
+    }
+}
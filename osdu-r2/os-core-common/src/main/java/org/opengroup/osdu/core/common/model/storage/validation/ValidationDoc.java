@@ -48,4 +48,5 @@ public class ValidationDoc {
 	public static final String RECORDS_MAX = "Up to 500 records can be ingested at a time";
 	public static final String RECORDS_RETRIEVAL_MAX = "No more than 100 records can be retrieved in a single request";
 	public static final String RECORDS_RETRIEVAL_MAX_V2 = "No more than 20 records can be retrieved in a single request";
+	public static final String RECORDS_STREAM_RETRIEVAL_MAX = "No more than 10000 records can be streamed in a single request";
 }
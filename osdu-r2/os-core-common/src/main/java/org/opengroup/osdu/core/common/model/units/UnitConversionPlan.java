@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.units;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Immutable, precomputed conversion of one unit to its SI base unit. Plans are cached by persistable
+ * reference, so a reference string shared by many records is parsed once rather than once per record.
+ * Conversions give exactly the same results as {@link IUnit#convertToSI(double)}.
+ */
+public final class UnitConversionPlan {
+
+    private static final int MAXIMUM_CACHED_PLANS = 10_000;
+    private static final UnitConversionPlan INVALID = new UnitConversionPlan(false, Double.NaN, Double.NaN, null);
+    private static final Cache<String, UnitConversionPlan> PLANS = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_PLANS)
+            .build();
+
+    private final boolean valid;
+    private final double scale;
+    private final double offset;
+    private final String baseUnit;
+
+    private UnitConversionPlan(boolean valid, double scale, double offset, String baseUnit) {
+        this.valid = valid;
+        this.scale = scale;
+        this.offset = offset;
+        this.baseUnit = baseUnit;
+    }
+
+    /**
+     * Returns the plan for a persistable reference, parsing it only the first time it is seen.
+     *
+     * @param persistableReference the persistable reference of the unit, V1 or V2 format
+     * @return the plan, which is never null; check {@link #isValid()} before converting
+     */
+    public static UnitConversionPlan forReference(String persistableReference) {
+        if (persistableReference == null) {
+            return INVALID;
+        }
+        try {
+            return PLANS.get(persistableReference, () -> compile(ReferenceConverter.parseUnitReference(persistableReference)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // the parsers report bad references as invalid units, so this is not expected
+            return compile(ReferenceConverter.parseUnitReference(persistableReference));
+        }
+    }
+
+    /**
+     * Builds a plan from an already parsed unit, without caching it.
+     */
+    public static UnitConversionPlan compile(IUnit unit) {
+        if (unit == null || !unit.isValid()) {
+            return INVALID;
+        }
+        return new UnitConversionPlan(true, unit.getScale(), unit.getOffset(), unit.getBaseUnit());
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the persistable reference of the SI base unit; null for invalid plans
+     */
+    public String getBaseUnit() {
+        return baseUnit;
+    }
+
+    public double convertToSI(double value) {
+        return scale * (value - offset);
+    }
+
+    /**
+     * Converts the values in place. Invalid plans produce Double.NaN, like {@link IUnit#convertToSI(double[])}.
+     */
+    public void convertToSI(double[] values) {
+        convertToSI(values, 0, values.length);
+    }
+
+    /**
+     * Converts {@code length} values starting at {@code from} in place.
+     */
+    public void convertToSI(double[] values, int from, int length) {
+        if (from < 0 || length < 0 || from > values.length - length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        int end = from + length;
+        for (int i = from; i < end; i++) {
+            values[i] = scale * (values[i] - offset);
+        }
+    }
+}
@@ -17,19 +17,16 @@
 
 package org.opengroup.osdu.core.common.model.units.impl;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.NotEmpty;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 import java.io.IOException;
 
@@ -45,6 +42,8 @@ import java.io.IOException;
 })
 public class PersistableReference {
 
+    private static final ObjectReader READER = JsonCodecs.lenientReader(PersistableReference.class);
+
     @JsonProperty("type")
     @NotEmpty
     private String typeOfPersistableReference;
@@ -53,11 +52,7 @@ public class PersistableReference {
     public static PersistableReference createInstance(String json) {
         PersistableReference result;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            JsonNode node = mapper.readTree(json);
-            result = mapper.treeToValue(node, PersistableReference.class);
+            result = READER.readValue(json);
         } catch (IOException e) {
             return null;
         }
@@ -66,12 +61,8 @@ public class PersistableReference {
 
     public String toJsonString() {
         String result;
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        mapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         try {
-            result = mapper.writeValueAsString(this);
+            result = JsonCodecs.sortedNonNullWriter().writeValueAsString(this);
         } catch (JsonProcessingException e) {
             return null;
         }
@@ -19,11 +19,10 @@ package org.opengroup.osdu.core.common.model.units.impl;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
 
 import java.net.URLDecoder;
 
@@ -32,6 +31,9 @@ import java.net.URLDecoder;
 @EqualsAndHashCode(callSuper = false)
 public class Unit extends UnitParameters {
 
+    private static final ObjectReader UNIT_READER = JsonCodecs.caseInsensitiveReader(Unit.class);
+    private static final ObjectReader MEASUREMENT_READER = JsonCodecs.caseInsensitiveReader(Measurement.class);
+
     public double offset;
     @JsonProperty("ScaleOffset")
     protected ScaleOffset scaleOffset;
@@ -47,12 +49,8 @@ public class Unit extends UnitParameters {
 
     public static Unit createInstance(String unitReference) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-
             String decoded = URLDecoder.decode(unitReference, "UTF-8");
-            JsonNode node = mapper.readTree(decoded);
-            return mapper.treeToValue(node, Unit.class);
+            return UNIT_READER.readValue(decoded);
         } catch (Exception e) {
             return new Unit(); // return an empty, invalid unit
         }
@@ -63,10 +61,7 @@ public class Unit extends UnitParameters {
         if (this.ancestry == null && this.baseMeasurement != null) {
             try {
                 String decoded = URLDecoder.decode(this.baseMeasurement, "UTF-8");
-                ObjectMapper mapper = new ObjectMapper();
-                mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-                JsonNode node = mapper.readTree(decoded);
-                Measurement measurement = mapper.treeToValue(node, Measurement.class);
+                Measurement measurement = MEASUREMENT_READER.readValue(decoded);
                 if (measurement != null) {
                     this.ancestry = measurement.getAncestry();
                 }
@@ -20,28 +20,91 @@
 package org.opengroup.osdu.core.common.multitenancy;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.opengroup.osdu.core.common.cache.ICache;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 
+/**
+ * Serves tenant lookups from an immutable snapshot indexed by account id, swapped atomically when
+ * the tenant list is reloaded. The snapshot is reloaded in the background once it gets old. A
+ * lookup of an unknown tenant waits for a forced reload, but only one reload runs at a time and
+ * at most one is started per interval; names still unknown after a reload that bypassed the shared
+ * cache are remembered for a while, so a burst of bad partition ids does not reach the backing
+ * repository.
+ */
 public class TenantInfoMemoryRepo implements ITenantInfoRepo {
 
 	public static final String TENANT_INFO_LIST = "Dps-Service-Utils-TenantList";
 
+	private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "tenant-info-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public TenantInfoMemoryRepo(ICache<String, Collection<TenantInfo>> cache, ITenantInfoRepo wrapped) {
+		this(cache, wrapped, TenantInfoMemoryRepoConfig.Default());
+	}
+
+	public TenantInfoMemoryRepo(ICache<String, Collection<TenantInfo>> cache, ITenantInfoRepo wrapped,
+								TenantInfoMemoryRepoConfig config) {
 		this.cache = cache;
 		this.wrapped = wrapped;
+		this.config = config;
+		this.unknownTenants = CacheBuilder.newBuilder()
+				.expireAfterWrite(config.getNegativeCacheSeconds(), TimeUnit.SECONDS)
+				.maximumSize(config.getNegativeCacheMaximumSize())
+				.build();
 	}
 
 	private final ICache<String, Collection<TenantInfo>> cache;
 	private final ITenantInfoRepo wrapped;
+	private final TenantInfoMemoryRepoConfig config;
+	private final Cache<String, Boolean> unknownTenants;
+	private final AtomicReference<CompletableFuture<Snapshot>> refreshing = new AtomicReference<>();
+	private volatile Snapshot snapshot;
+	private volatile long lastMissRefreshNanos;
 
 	@Override
 	public TenantInfo get(String tenantName) {
-		TenantInfo ti = getTenantInfoFromCache(tenantName);
-		if(ti == null) {
-			this.cache.delete(TENANT_INFO_LIST);
-			ti = getTenantInfoFromCache(tenantName);
+		if (tenantName == null) {
+			return null;
+		}
+		Snapshot current = currentSnapshot();
+		TenantInfo ti = current.get(tenantName);
+		if (ti != null || this.unknownTenants.getIfPresent(tenantName) != null) {
+			return ti;
+		}
+
+		CompletableFuture<Snapshot> reload = refreshAfterMiss();
+		if (reload == null) {
+			return null;
+		}
+		Snapshot loaded = await(reload);
+		ti = loaded.get(tenantName);
+		if (ti == null && !loaded.bypassedSharedCache) {
+			// the joined reload was a background one, which may have read a stale shared list
+			reload = refreshAfterMiss();
+			if (reload == null) {
+				return null;
+			}
+			loaded = await(reload);
+			ti = loaded.get(tenantName);
+		}
+		// only remembered once a reload has actually looked for it in the backing repository
+		if (ti == null && loaded.bypassedSharedCache) {
+			this.unknownTenants.put(tenantName, Boolean.TRUE);
 		}
 		return ti;
 	}
@@ -60,13 +123,99 @@ public class TenantInfoMemoryRepo implements ITenantInfoRepo {
 		return output;
 	}
 
-	private TenantInfo getTenantInfoFromCache(String tenantName) {
-		Collection<TenantInfo> tenantInfoList = this.list();
-		for (TenantInfo tenantInfo : tenantInfoList) {
-			if (tenantInfo.getCrmAccountIds().contains(tenantName)) {
-				return tenantInfo;
+	private Snapshot currentSnapshot() {
+		Snapshot current = this.snapshot;
+		if (current == null) {
+			return await(refresh(false));
+		}
+		if (System.nanoTime() - current.loadedNanos >= TimeUnit.SECONDS.toNanos(this.config.getSnapshotRefreshSeconds())) {
+			refresh(false);
+		}
+		return current;
+	}
+
+	private CompletableFuture<Snapshot> refreshAfterMiss() {
+		CompletableFuture<Snapshot> inFlight = this.refreshing.get();
+		if (inFlight != null) {
+			return inFlight;
+		}
+		long now = System.nanoTime();
+		long last = this.lastMissRefreshNanos;
+		if (last != 0 && now - last < TimeUnit.SECONDS.toNanos(this.config.getMinMissRefreshIntervalSeconds())) {
+			return null;
+		}
+		this.lastMissRefreshNanos = now;
+		return refresh(true);
+	}
+
+	/**
+	 * Starts a reload unless one is already running, and returns the running one.
+	 */
+	private CompletableFuture<Snapshot> refresh(boolean bypassSharedCache) {
+		CompletableFuture<Snapshot> reload = new CompletableFuture<>();
+		if (!this.refreshing.compareAndSet(null, reload)) {
+			CompletableFuture<Snapshot> inFlight = this.refreshing.get();
+			return inFlight != null ? inFlight : CompletableFuture.completedFuture(this.snapshot);
+		}
+		REFRESH_EXECUTOR.execute(() -> {
+			Snapshot loaded = null;
+			Throwable failure = null;
+			try {
+				if (bypassSharedCache) {
+					this.cache.delete(TENANT_INFO_LIST);
+				}
+				loaded = new Snapshot(list(), bypassSharedCache);
+				this.snapshot = loaded;
+			} catch (Throwable e) {
+				failure = e;
+			}
+			// cleared before completing, so that a miss seen by a waiter starts a new reload; cleared on
+			// any failure too, or no reload would ever run again
+			this.refreshing.compareAndSet(reload, null);
+			if (failure == null) {
+				reload.complete(loaded);
+			} else {
+				reload.completeExceptionally(failure);
+				if (failure instanceof Error) {
+					throw (Error) failure;
+				}
+			}
+		});
+		return reload;
+	}
+
+	private static Snapshot await(CompletableFuture<Snapshot> reload) {
+		try {
+			return reload.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
 			}
+			throw e;
+		}
+	}
+
+	private static final class Snapshot {
+		private final Map<String, TenantInfo> byAccountId;
+		private final long loadedNanos = System.nanoTime();
+		private final boolean bypassedSharedCache;
+
+		Snapshot(Collection<TenantInfo> tenants, boolean bypassedSharedCache) {
+			this.bypassedSharedCache = bypassedSharedCache;
+			Map<String, TenantInfo> index = new HashMap<>();
+			if (tenants != null) {
+				for (TenantInfo tenantInfo : tenants) {
+					if (tenantInfo.getCrmAccountIds() == null) continue;
+					for (String accountId : tenantInfo.getCrmAccountIds()) {
+						index.putIfAbsent(accountId, tenantInfo);
+					}
+				}
+			}
+			this.byAccountId = Collections.unmodifiableMap(index);
+		}
+
+		TenantInfo get(String accountId) {
+			return accountId == null ? null : this.byAccountId.get(accountId);
 		}
-		return null;
 	}
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.multitenancy;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class TenantInfoMemoryRepoConfig {
+    /**
+     * Age after which the tenant snapshot is reloaded in the background while still being served.
+     */
+    @Builder.Default
+    long snapshotRefreshSeconds = 60;
+
+    /**
+     * Lookups of unknown tenants trigger at most one reload per interval.
+     */
+    @Builder.Default
+    long minMissRefreshIntervalSeconds = 30;
+
+    /**
+     * How long an unknown tenant name is remembered as unknown.
+     */
+    @Builder.Default
+    long negativeCacheSeconds = 60;
+
+    @Builder.Default
+    int negativeCacheMaximumSize = 10_000;
+
+    public static TenantInfoMemoryRepoConfig Default() {
+        return TenantInfoMemoryRepoConfig.builder().build();
+    }
+}
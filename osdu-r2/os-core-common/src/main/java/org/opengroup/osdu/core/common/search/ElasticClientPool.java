@@ -0,0 +1,278 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.search.ClusterSettings;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.provider.interfaces.IElasticRepository;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one {@link RestHighLevelClient} per tenant and hands it out across requests. Cluster
+ * settings are read from the {@link IElasticRepository} on every call, which is expected to be
+ * backed by a credentials cache; when they change, for example after a password rotation, the
+ * client is rebuilt and the old one is closed once in-flight requests have had time to finish.
+ * Clients idle for longer than the configured timeout are retired the same way. Pooled
+ * connections are only kept alive for a bounded time and idle ones are closed on every sweep.
+ *
+ * With {@link ClusterSettings#isTls()} false, https connections skip certificate and host name
+ * verification, matching how the search services connect to self-signed clusters.
+ */
+public class ElasticClientPool implements AutoCloseable {
+
+    private final IElasticRepository elasticRepository;
+    private final ElasticClientPoolConfig config;
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+    private final Queue<PooledClient> retired = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextSweep = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong rebuilt = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public ElasticClientPool(IElasticRepository elasticRepository) {
+        this(elasticRepository, ElasticClientPoolConfig.Default());
+    }
+
+    public ElasticClientPool(IElasticRepository elasticRepository, ElasticClientPoolConfig config) {
+        if (elasticRepository == null) {
+            throw new IllegalArgumentException("IElasticRepository cannot be empty");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("ElasticClientPoolConfig cannot be empty");
+        }
+        this.elasticRepository = elasticRepository;
+        this.config = config;
+    }
+
+    public RestHighLevelClient getClient(TenantInfo tenant) {
+        if (tenant == null) {
+            throw new IllegalArgumentException("TenantInfo cannot be empty");
+        }
+        sweepIfDue();
+        ClusterSettings settings = this.elasticRepository.getElasticClusterSettings(tenant);
+        if (settings == null) {
+            throw new AppException(500, "Search error",
+                    String.format("Elasticsearch cluster settings not found for tenant %s", tenant.getName()));
+        }
+
+        PooledClient current = this.clients.get(tenant.getName());
+        if (current != null && current.settings.equals(settings)) {
+            this.reused.incrementAndGet();
+            return current.use();
+        }
+        return this.clients.compute(tenant.getName(), (name, existing) -> {
+            if (existing != null && existing.settings.equals(settings)) {
+                this.reused.incrementAndGet();
+                return existing;
+            }
+            if (existing != null) {
+                existing.retiredAt = System.nanoTime();
+                this.retired.add(existing);
+                this.rebuilt.incrementAndGet();
+            }
+            this.created.incrementAndGet();
+            return createClient(settings);
+        }).use();
+    }
+
+    /**
+     * Closes expired and idle pooled connections, retires clients idle for longer than the idle
+     * timeout and closes retired clients past their grace period. Runs on its own from
+     * {@link #getClient} as well.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(this.config.getIdleTimeoutSeconds());
+        for (Map.Entry<String, PooledClient> entry : this.clients.entrySet()) {
+            PooledClient client = entry.getValue();
+            // a request may still be running on a client handed out just before it went idle
+            if (now - client.lastUsed >= idleNanos && this.clients.remove(entry.getKey(), client)) {
+                this.evicted.incrementAndGet();
+                client.retiredAt = now;
+                this.retired.add(client);
+            } else {
+                client.closeIdleConnections(this.config.getConnectionIdleTimeoutSeconds());
+            }
+        }
+        long graceNanos = TimeUnit.SECONDS.toNanos(this.config.getRetiredClientGraceSeconds());
+        for (Iterator<PooledClient> it = this.retired.iterator(); it.hasNext(); ) {
+            PooledClient client = it.next();
+            if (now - client.retiredAt >= graceNanos) {
+                it.remove();
+                client.close();
+            } else {
+                client.closeIdleConnections(this.config.getConnectionIdleTimeoutSeconds());
+            }
+        }
+    }
+
+    public ElasticClientPoolStats getStats() {
+        int leased = 0;
+        int available = 0;
+        int pending = 0;
+        for (PooledClient client : this.clients.values()) {
+            PoolStats stats = client.connectionManager.getTotalStats();
+            leased += stats.getLeased();
+            available += stats.getAvailable();
+            pending += stats.getPending();
+        }
+        return ElasticClientPoolStats.builder()
+                .openClients(this.clients.size())
+                .retiredClients(this.retired.size())
+                .clientsCreated(this.created.get())
+                .clientsReused(this.reused.get())
+                .clientsRebuilt(this.rebuilt.get())
+                .clientsEvicted(this.evicted.get())
+                .leasedConnections(leased)
+                .availableConnections(available)
+                .pendingConnections(pending)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        this.clients.values().forEach(PooledClient::close);
+        this.clients.clear();
+        this.retired.forEach(PooledClient::close);
+        this.retired.clear();
+    }
+
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long due = this.nextSweep.get();
+        long interval = Math.min(this.config.getConnectionIdleTimeoutSeconds(),
+                Math.min(this.config.getIdleTimeoutSeconds(), this.config.getRetiredClientGraceSeconds()));
+        if (now - due >= 0 && this.nextSweep.compareAndSet(due, now + TimeUnit.SECONDS.toNanos(Math.max(1, interval / 2)))) {
+            evictIdle();
+        }
+    }
+
+    private PooledClient createClient(ClusterSettings settings) {
+        try {
+            PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                            .setIoThreadCount(Math.max(1, this.config.getIoThreadCount()))
+                            .setConnectTimeout(this.config.getConnectTimeoutMillis())
+                            .setSoTimeout(this.config.getSocketTimeoutMillis())
+                            .build()),
+                    sessionStrategies(settings));
+            connectionManager.setMaxTotal(this.config.getMaxConnectionsTotal());
+            connectionManager.setDefaultMaxPerRoute(this.config.getMaxConnectionsPerRoute());
+
+            Header[] defaultHeaders = settings.getUserNameAndPassword() == null ? new Header[0] : new Header[]{
+                    new BasicHeader(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString(
+                            settings.getUserNameAndPassword().getBytes(StandardCharsets.UTF_8)))};
+            RestClientBuilder builder = RestClient.builder(
+                    new HttpHost(settings.getHost(), settings.getPort(), settings.isHttps() ? "https" : "http"))
+                    .setDefaultHeaders(defaultHeaders)
+                    .setRequestConfigCallback(requestConfig -> requestConfig
+                            .setConnectTimeout(this.config.getConnectTimeoutMillis())
+                            .setSocketTimeout(this.config.getSocketTimeoutMillis()))
+                    .setHttpClientConfigCallback(httpClient -> httpClient
+                            .setConnectionManager(connectionManager)
+                            .setKeepAliveStrategy((response, context) -> {
+                                long keepAliveMillis = TimeUnit.SECONDS.toMillis(this.config.getConnectionKeepAliveSeconds());
+                                long requested = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                                return requested > 0 ? Math.min(requested, keepAliveMillis) : keepAliveMillis;
+                            }));
+            return new PooledClient(settings, new RestHighLevelClient(builder), connectionManager);
+        } catch (IOReactorException | GeneralSecurityException e) {
+            throw new AppException(500, "Search error", "Failed to create Elasticsearch client", e);
+        }
+    }
+
+    private static Registry<SchemeIOSessionStrategy> sessionStrategies(ClusterSettings settings)
+            throws GeneralSecurityException {
+        SSLIOSessionStrategy https = SSLIOSessionStrategy.getDefaultStrategy();
+        if (settings.isHttps() && !settings.isTls()) {
+            SSLContext trustAll = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+            https = new SSLIOSessionStrategy(trustAll, NoopHostnameVerifier.INSTANCE);
+        }
+        return RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", https)
+                .build();
+    }
+
+    private static class PooledClient {
+        final ClusterSettings settings;
+        final RestHighLevelClient client;
+        final PoolingNHttpClientConnectionManager connectionManager;
+        volatile long lastUsed = System.nanoTime();
+        volatile long retiredAt;
+
+        PooledClient(ClusterSettings settings, RestHighLevelClient client,
+                     PoolingNHttpClientConnectionManager connectionManager) {
+            this.settings = settings;
+            this.client = client;
+            this.connectionManager = connectionManager;
+        }
+
+        RestHighLevelClient use() {
+            this.lastUsed = System.nanoTime();
+            return this.client;
+        }
+
+        void closeIdleConnections(long idleSeconds) {
+            this.connectionManager.closeExpiredConnections();
+            this.connectionManager.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+        }
+
+        void close() {
+            try {
+                this.client.close();
+            } catch (IOException e) {
+                // the connection pool is being discarded either way
+            }
+        }
+    }
+}
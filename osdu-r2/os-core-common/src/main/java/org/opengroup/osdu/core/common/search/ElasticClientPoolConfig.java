@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class ElasticClientPoolConfig {
+    /**
+     * IO reactor threads per cluster client.
+     */
+    @Builder.Default
+    int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+    @Builder.Default
+    int maxConnectionsTotal = 50;
+
+    @Builder.Default
+    int maxConnectionsPerRoute = 20;
+
+    @Builder.Default
+    int connectTimeoutMillis = 5_000;
+
+    @Builder.Default
+    int socketTimeoutMillis = 60_000;
+
+    /**
+     * Pooled connections are reused for at most this long, or less if the cluster asks for a
+     * shorter keep-alive, so a connection the server or a load balancer has dropped is not leased.
+     */
+    @Builder.Default
+    long connectionKeepAliveSeconds = 30;
+
+    /**
+     * Pooled connections idle for this long are closed on the next sweep.
+     */
+    @Builder.Default
+    long connectionIdleTimeoutSeconds = 30;
+
+    /**
+     * Clients not used for this long are retired on the next sweep.
+     */
+    @Builder.Default
+    long idleTimeoutSeconds = 600;
+
+    /**
+     * Clients replaced after a credential rotation stay open this long for requests still using them.
+     */
+    @Builder.Default
+    long retiredClientGraceSeconds = 60;
+
+    public static ElasticClientPoolConfig Default() {
+        return ElasticClientPoolConfig.builder().build();
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ElasticClientPoolStats {
+    private int openClients;
+    private int retiredClients;
+    private long clientsCreated;
+    private long clientsReused;
+    private long clientsRebuilt;
+    private long clientsEvicted;
+    private int leasedConnections;
+    private int availableConnections;
+    private int pendingConnections;
+}
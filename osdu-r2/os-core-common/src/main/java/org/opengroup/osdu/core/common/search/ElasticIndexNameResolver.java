@@ -17,9 +17,16 @@
 
 package org.opengroup.osdu.core.common.search;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /*
@@ -36,29 +43,82 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class ElasticIndexNameResolver {
 
-    private final Map<String, String> KIND_INDEX_MAP = new ConcurrentHashMap();
-    private final Map<String, String> INDEX_KIND_MAP = new ConcurrentHashMap();
+    static final int DEFAULT_MAXIMUM_SIZE = 20_000;
+
+    private final Cache<String, String> KIND_INDEX_MAP;
+    private final Map<String, String> INDEX_KIND_MAP = new ConcurrentHashMap<>();
+
+    public ElasticIndexNameResolver() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    ElasticIndexNameResolver(int maximumSize) {
+        // the reverse mapping only holds what the forward one does, so it is bounded by the same size
+        RemovalListener<String, String> evictReverse = removal -> {
+            if (removal.wasEvicted()) {
+                INDEX_KIND_MAP.remove(removal.getValue(), removal.getKey());
+            }
+        };
+        this.KIND_INDEX_MAP = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .removalListener(evictReverse)
+                .build();
+    }
 
     public String getIndexNameFromKind(String kind) {
 
-        String index = kind.replace(":", "-").toLowerCase();
-        if (KIND_INDEX_MAP.containsKey(kind)) {
-            return KIND_INDEX_MAP.get(kind);
+        String index = KIND_INDEX_MAP.getIfPresent(kind);
+        if (index != null) {
+            return index;
         }
-        if (!KIND_INDEX_MAP.containsKey(kind)) {
-            KIND_INDEX_MAP.putIfAbsent(kind, index);
-            INDEX_KIND_MAP.putIfAbsent(index, kind);
+
+        index = kind.replace(":", "-").toLowerCase();
+        KIND_INDEX_MAP.asMap().putIfAbsent(kind, index);
+        INDEX_KIND_MAP.putIfAbsent(index, kind);
+        return index;
+    }
+
+    /**
+     * Resolves a comma separated list of kinds or kind patterns, such as {@code *:*:*:*} or
+     * {@code tenant1:welldb:*:*}, to the distinct index names to query, in order.
+     */
+    public List<String> getIndexNamesFromKinds(String kinds) {
+
+        Set<String> indices = new LinkedHashSet<>();
+        int start = 0;
+        for (int i = 0; i <= kinds.length(); i++) {
+            if (i == kinds.length() || kinds.charAt(i) == ',') {
+                String kind = kinds.substring(start, i).trim();
+                if (!kind.isEmpty()) {
+                    indices.add(getIndexNameFromKind(kind));
+                }
+                start = i + 1;
+            }
         }
+        return new ArrayList<>(indices);
+    }
+
+    public List<String> getIndexNamesFromKinds(List<String> kinds) {
 
-        return KIND_INDEX_MAP.get(kind);
+        Set<String> indices = new LinkedHashSet<>();
+        for (String kind : kinds) {
+            indices.add(getIndexNameFromKind(kind));
+        }
+        return new ArrayList<>(indices);
     }
 
     public String getKindFromIndexName(String indexName) {
 
-        if (INDEX_KIND_MAP.containsKey(indexName)) {
-            return INDEX_KIND_MAP.get(indexName);
+        String kind = INDEX_KIND_MAP.get(indexName);
+        if (kind != null) {
+            return kind;
         }
 
         return indexName.replace("-", ":").toLowerCase();
     }
+
+    long size() {
+        return KIND_INDEX_MAP.size();
+    }
 }
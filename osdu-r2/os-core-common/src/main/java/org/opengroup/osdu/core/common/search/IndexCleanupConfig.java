@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class IndexCleanupConfig {
+
+    @Builder.Default
+    String[] tenants = new String[0];
+
+    @Builder.Default
+    String[] indexPatterns = new String[0];
+
+    /**
+     * Matching indices older than this are deleted.
+     */
+    @Builder.Default
+    int thresholdDays = 3;
+
+    @Builder.Default
+    int maxConcurrentTenants = 4;
+
+    /**
+     * Cluster requests per second issued for any one tenant.
+     */
+    @Builder.Default
+    double requestsPerSecondPerTenant = 10;
+
+    public static IndexCleanupConfig Default() {
+        return IndexCleanupConfig.builder().build();
+    }
+
+    public static IndexCleanupConfig fromConfig() {
+        return IndexCleanupConfig.builder()
+                .tenants(Config.getIndexCleanupTenants())
+                .indexPatterns(Config.getIndexCleanupPattern())
+                .thresholdDays(Config.getIndexCleanupThresholdDays())
+                .build();
+    }
+}
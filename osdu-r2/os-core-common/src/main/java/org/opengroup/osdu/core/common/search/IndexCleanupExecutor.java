@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.opengroup.osdu.core.common.model.search.IndexInfo;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Deletes indices matching the cleanup patterns that are older than the threshold, for several
+ * tenants in parallel. Each tenant is listed with one request and its stale indices are deleted in
+ * batches; requests per tenant are rate limited so a cleanup run does not swamp a cluster. A tenant
+ * whose cleanup fails part way is reported as failed together with the indices already deleted.
+ */
+public class IndexCleanupExecutor implements AutoCloseable {
+
+    private final IndicesService indicesService;
+    private final Function<String, RestHighLevelClient> clientProvider;
+    private final IndexCleanupConfig config;
+    private final Clock clock;
+    private final ExecutorService executor;
+
+    public IndexCleanupExecutor(IndicesService indicesService, Function<String, RestHighLevelClient> clientProvider,
+                                IndexCleanupConfig config) {
+        this(indicesService, clientProvider, config, Clock.systemUTC());
+    }
+
+    IndexCleanupExecutor(IndicesService indicesService, Function<String, RestHighLevelClient> clientProvider,
+                         IndexCleanupConfig config, Clock clock) {
+        if (indicesService == null) {
+            throw new IllegalArgumentException("IndicesService cannot be empty");
+        }
+        if (clientProvider == null) {
+            throw new IllegalArgumentException("clientProvider cannot be empty");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("IndexCleanupConfig cannot be empty");
+        }
+        this.indicesService = indicesService;
+        this.clientProvider = clientProvider;
+        this.config = config;
+        this.clock = clock;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrentTenants()), runnable -> {
+            Thread thread = new Thread(runnable, "index-cleanup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public IndexCleanupSummary run() throws InterruptedException {
+        IndexCleanupSummary summary = new IndexCleanupSummary();
+        if (this.config.getIndexPatterns().length == 0) {
+            return summary;
+        }
+        Map<String, Future<?>> results = new LinkedHashMap<>();
+        Map<String, List<IndexInfo>> deleted = new LinkedHashMap<>();
+        Map<String, AtomicInteger> kept = new LinkedHashMap<>();
+        for (String tenant : this.config.getTenants()) {
+            String name = tenant.trim();
+            if (name.isEmpty() || results.containsKey(name)) continue;
+            // filled by the tenant's task and read here once it is done, whether it failed or not
+            List<IndexInfo> deletedIndices = new ArrayList<>();
+            AtomicInteger keptCount = new AtomicInteger();
+            deleted.put(name, deletedIndices);
+            kept.put(name, keptCount);
+            results.put(name, this.executor.submit(() -> cleanup(name, deletedIndices, keptCount)));
+        }
+        for (Map.Entry<String, Future<?>> result : results.entrySet()) {
+            String tenant = result.getKey();
+            try {
+                result.getValue().get();
+            } catch (ExecutionException e) {
+                summary.getFailedTenants().put(tenant, String.valueOf(e.getCause().getMessage()));
+            }
+            summary.getDeletedIndices().put(tenant, deleted.get(tenant));
+            summary.getKeptIndexCount().put(tenant, kept.get(tenant).get());
+        }
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private Void cleanup(String tenant, List<IndexInfo> deleted, AtomicInteger kept) throws Exception {
+        RateLimiter limiter = RateLimiter.create(this.config.getRequestsPerSecondPerTenant());
+        RestHighLevelClient client = this.clientProvider.apply(tenant);
+
+        limiter.acquire();
+        List<IndexInfo> indices = this.indicesService.getIndexInfo(client, String.join(",", this.config.getIndexPatterns()));
+        long cutoff = this.clock.millis() - TimeUnit.DAYS.toMillis(this.config.getThresholdDays());
+        List<IndexInfo> stale = new ArrayList<>();
+        if (indices != null) {
+            for (IndexInfo index : indices) {
+                if (isOlderThan(index, cutoff)) {
+                    stale.add(index);
+                } else {
+                    kept.incrementAndGet();
+                }
+            }
+        }
+
+        for (int from = 0; from < stale.size(); from += IndicesService.DELETE_BATCH_SIZE) {
+            List<IndexInfo> batch = stale.subList(from, Math.min(stale.size(), from + IndicesService.DELETE_BATCH_SIZE));
+            List<String> names = new ArrayList<>(batch.size());
+            batch.forEach(index -> names.add(index.getName()));
+            limiter.acquire();
+            if (this.indicesService.deleteIndices(client, names)) {
+                deleted.addAll(batch);
+            } else {
+                kept.addAndGet(batch.size());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOlderThan(IndexInfo index, long cutoffMillis) {
+        try {
+            return index.getCreationDate() != null && Long.parseLong(index.getCreationDate()) < cutoffMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
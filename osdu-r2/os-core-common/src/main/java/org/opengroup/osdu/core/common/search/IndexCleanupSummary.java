@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import lombok.Data;
+import org.opengroup.osdu.core.common.model.search.IndexInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+public class IndexCleanupSummary {
+
+    private Map<String, List<IndexInfo>> deletedIndices = new TreeMap<>();
+
+    private Map<String, Integer> keptIndexCount = new TreeMap<>();
+
+    private Map<String, String> failedTenants = new TreeMap<>();
+
+    public int getDeletedCount() {
+        return this.deletedIndices.values().stream().mapToInt(List::size).sum();
+    }
+}
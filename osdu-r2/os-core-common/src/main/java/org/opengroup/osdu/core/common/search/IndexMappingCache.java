@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.Getter;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.opengroup.osdu.core.common.util.JsonCodecs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Rendered index mappings keyed by kind and a hash of the schema they were built from, held as
+ * serialized JSON so they can be sent to the cluster as is. A new schema for a kind hashes
+ * differently and is rendered again.
+ */
+public class IndexMappingCache {
+
+    static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final Cache<String, RenderedMapping> mappings;
+
+    public IndexMappingCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public IndexMappingCache(int maximumSize) {
+        this.mappings = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public RenderedMapping getOrRender(String kind, String schema, Supplier<Map<String, Object>> mappingBuilder) {
+        String schemaHash = schemaHash(schema);
+        try {
+            return this.mappings.get(kind + '\n' + schemaHash, () -> render(kind, schemaHash, mappingBuilder.get()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new IllegalStateException(String.format("Unable to render index mapping for kind %s", kind), e.getCause());
+        }
+    }
+
+    public void invalidate(String kind, String schema) {
+        this.mappings.invalidate(kind + '\n' + schemaHash(schema));
+    }
+
+    static String schemaHash(String schema) {
+        return Hashing.murmur3_128().hashString(schema == null ? "" : schema, StandardCharsets.UTF_8).toString();
+    }
+
+    private static RenderedMapping render(String kind, String schemaHash, Map<String, Object> mapping)
+            throws JsonProcessingException {
+        if (mapping == null) {
+            throw new IllegalArgumentException("mapping cannot be empty");
+        }
+        return new RenderedMapping(kind, schemaHash, JsonCodecs.nonNullWriter().writeValueAsBytes(mapping));
+    }
+
+    @Getter
+    public static final class RenderedMapping {
+        private final String kind;
+        private final String schemaHash;
+        private final BytesReference json;
+
+        RenderedMapping(String kind, String schemaHash, byte[] json) {
+            this.kind = kind;
+            this.schemaHash = schemaHash;
+            this.json = new BytesArray(json);
+        }
+    }
+}
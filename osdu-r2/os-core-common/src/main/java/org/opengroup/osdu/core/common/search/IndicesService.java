@@ -18,11 +18,23 @@
 package org.opengroup.osdu.core.common.search;
 
 import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.template.delete.DeleteIndexTemplateRequest;
+import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.opengroup.osdu.core.common.model.search.IndexInfo;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -37,4 +49,103 @@ public interface IndicesService {
     boolean deleteIndex(String index) throws Exception;
 
     List<IndexInfo> getIndexInfo(RestHighLevelClient client, String indexPattern) throws IOException;
+
+    /**
+     * Number of index names sent in one delete request, which keeps the request line short.
+     */
+    int DELETE_BATCH_SIZE = 100;
+
+    /**
+     * Names of the existing indices matching any of the patterns, looked up with one request.
+     */
+    default List<String> getExistingIndices(RestHighLevelClient client, String... indexPatterns) throws IOException {
+        List<String> indices = new ArrayList<>();
+        if (indexPatterns == null || indexPatterns.length == 0) return indices;
+        List<IndexInfo> infos = getIndexInfo(client, String.join(",", indexPatterns));
+        if (infos != null) {
+            infos.forEach(info -> indices.add(info.getName()));
+        }
+        return indices;
+    }
+
+    /**
+     * Deletes the given indices with one request per {@link #DELETE_BATCH_SIZE} names. Indices that
+     * no longer exist are skipped.
+     */
+    default boolean deleteIndices(RestHighLevelClient client, List<String> indices) throws IOException {
+        boolean acknowledged = true;
+        for (int from = 0; from < indices.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batch = indices.subList(from, Math.min(indices.size(), from + DELETE_BATCH_SIZE));
+            DeleteIndexRequest request = new DeleteIndexRequest(batch.toArray(new String[0]));
+            request.indicesOptions(IndicesOptions.lenientExpandOpen());
+            acknowledged &= client.indices().delete(request, RequestOptions.DEFAULT).isAcknowledged();
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Creates an index with a mapping that is already serialized as JSON, such as one held by an
+     * {@link IndexMappingCache}. The mapping bytes are copied into the request body as they are,
+     * without being decoded to a string first.
+     */
+    default boolean createIndex(RestHighLevelClient client, String index, Settings settings, String type,
+                                BytesReference mapping) throws ElasticsearchStatusException, IOException {
+        CreateIndexRequest request = new CreateIndexRequest(index);
+        if (type != null && mapping != null) {
+            try (XContentBuilder body = XContentFactory.jsonBuilder();
+                 InputStream source = mapping.streamInput()) {
+                body.startObject().startObject("mappings").rawField(type, source, XContentType.JSON).endObject().endObject();
+                request.source(BytesReference.bytes(body), XContentType.JSON);
+            }
+        }
+        if (settings != null) {
+            request.settings(settings);
+        }
+        return client.indices().create(request, RequestOptions.DEFAULT).isAcknowledged();
+    }
+
+    /**
+     * Registers an index template so indices matching the patterns are created with the given
+     * settings and mapping by the cluster itself.
+     */
+    default boolean putIndexTemplate(RestHighLevelClient client, String name, List<String> indexPatterns, Settings settings,
+                                     String type, Map<String, Object> mapping) throws IOException {
+        PutIndexTemplateRequest request = new PutIndexTemplateRequest(name).patterns(indexPatterns);
+        if (settings != null) {
+            request.settings(settings);
+        }
+        if (type != null && mapping != null) {
+            request.mapping(type, mapping);
+        }
+        return client.indices().putTemplate(request, RequestOptions.DEFAULT).isAcknowledged();
+    }
+
+    /**
+     * Registers an index template whose mapping is already serialized as JSON.
+     */
+    default boolean putIndexTemplate(RestHighLevelClient client, String name, List<String> indexPatterns, Settings settings,
+                                     String type, BytesReference mapping) throws IOException {
+        PutIndexTemplateRequest request = new PutIndexTemplateRequest(name).patterns(indexPatterns);
+        if (settings != null) {
+            request.settings(settings);
+        }
+        if (type != null && mapping != null) {
+            request.mapping(type, mapping, XContentType.JSON);
+        }
+        return client.indices().putTemplate(request, RequestOptions.DEFAULT).isAcknowledged();
+    }
+
+    /**
+     * Removes an index template. Indices already created from it keep their settings and mapping.
+     */
+    default boolean deleteIndexTemplate(RestHighLevelClient client, String name) throws IOException {
+        return client.indices().deleteTemplate(new DeleteIndexTemplateRequest(name), RequestOptions.DEFAULT).isAcknowledged();
+    }
+
+    /**
+     * Creates an index that takes its settings and mapping from a matching index template.
+     */
+    default boolean createIndexFromTemplate(RestHighLevelClient client, String index) throws ElasticsearchStatusException, IOException {
+        return client.indices().create(new CreateIndexRequest(index), RequestOptions.DEFAULT).isAcknowledged();
+    }
 }
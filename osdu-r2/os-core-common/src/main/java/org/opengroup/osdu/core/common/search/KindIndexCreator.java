@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.settings.Settings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Creates kind indices with mappings from an {@link IndexMappingCache}. The mapping of a kind is
+ * built and serialized once per schema.
+ *
+ * <p>Each kind family, the kind without its version, gets one index template per schema hash. The
+ * template's patterns are the index names of the family's kinds seen with that schema, so versions
+ * of a family with different schemas never share a template, and indices created by the cluster on
+ * a first write pick up the right mapping. When a kind moves to another schema its index name is
+ * moved to the other template, and a template left without patterns is deleted.
+ *
+ * <p>The pattern lists are kept per client on this node, so another node can rewrite a template
+ * without some of them. Indices created here therefore still carry the cached mapping in the
+ * create request, which keeps them correct whatever the templates hold.
+ */
+public class KindIndexCreator {
+
+    // enough of the schema hash to tell the schemas of one family apart in a template name
+    private static final int TEMPLATE_HASH_LENGTH = 16;
+
+    private final IndicesService indicesService;
+    private final ElasticIndexNameResolver indexNameResolver;
+    private final IndexMappingCache mappingCache;
+    // clients are compared by identity, so a client rebuilt after a credential rotation registers again
+    private final Cache<RestHighLevelClient, Templates> templates = CacheBuilder.newBuilder().weakKeys().build();
+
+    public KindIndexCreator(IndicesService indicesService, ElasticIndexNameResolver indexNameResolver,
+                            IndexMappingCache mappingCache) {
+        if (indicesService == null) {
+            throw new IllegalArgumentException("IndicesService cannot be empty");
+        }
+        if (indexNameResolver == null) {
+            throw new IllegalArgumentException("ElasticIndexNameResolver cannot be empty");
+        }
+        if (mappingCache == null) {
+            throw new IllegalArgumentException("IndexMappingCache cannot be empty");
+        }
+        this.indicesService = indicesService;
+        this.indexNameResolver = indexNameResolver;
+        this.mappingCache = mappingCache;
+    }
+
+    /**
+     * Creates the index for the kind. The mapping is built only when the kind and schema are not
+     * cached yet, and the family template is sent only when the kind is new to it on this cluster.
+     */
+    public boolean createIndex(RestHighLevelClient client, String kind, String schema, Settings settings, String type,
+                               Supplier<Map<String, Object>> mappingBuilder) throws ElasticsearchStatusException, IOException {
+        String index = this.indexNameResolver.getIndexNameFromKind(kind);
+        IndexMappingCache.RenderedMapping mapping = this.mappingCache.getOrRender(kind, schema, mappingBuilder);
+        ensureTemplate(client, index, mapping, settings, type);
+        return this.indicesService.createIndex(client, index, settings, type, mapping.getJson());
+    }
+
+    /**
+     * Name of the template for the index's kind family and the schema hash, such as
+     * {@code tenant1-welldb-wellbore-5f1c0a3b9d2e7c44} for {@code tenant1-welldb-wellbore-1.0.0}.
+     */
+    static String templateName(String index, String schemaHash) {
+        int version = index.lastIndexOf('-');
+        String family = version > 0 ? index.substring(0, version) : index;
+        return family + '-' + schemaHash.substring(0, Math.min(TEMPLATE_HASH_LENGTH, schemaHash.length()));
+    }
+
+    private void ensureTemplate(RestHighLevelClient client, String index, IndexMappingCache.RenderedMapping mapping,
+                                Settings settings, String type) throws IOException {
+        Templates registered = templatesOf(client);
+        String name = templateName(index, mapping.getSchemaHash());
+        synchronized (registered) {
+            String previous = registered.templateOf.get(index);
+            if (name.equals(previous)) {
+                return;
+            }
+            Template template = registered.templates.computeIfAbsent(name,
+                    key -> new Template(settings, type, mapping));
+            template.patterns.add(index);
+            if (!put(client, name, template)) {
+                template.patterns.remove(index);
+                throw new IOException(String.format("Index template %s was not acknowledged", name));
+            }
+            if (previous != null) {
+                release(client, registered, previous, index);
+            }
+            registered.templateOf.put(index, name);
+        }
+    }
+
+    // the previous template keeps its mapping, so only its pattern list changes
+    private void release(RestHighLevelClient client, Templates registered, String name, String index) throws IOException {
+        Template template = registered.templates.get(name);
+        if (template == null) {
+            return;
+        }
+        template.patterns.remove(index);
+        boolean unused = template.patterns.isEmpty();
+        if (!(unused ? this.indicesService.deleteIndexTemplate(client, name) : put(client, name, template))) {
+            throw new IOException(String.format("Index template %s was not updated", name));
+        }
+        if (unused) {
+            registered.templates.remove(name);
+        }
+    }
+
+    private boolean put(RestHighLevelClient client, String name, Template template) throws IOException {
+        return this.indicesService.putIndexTemplate(client, name, new ArrayList<>(template.patterns), template.settings,
+                template.type, template.mapping.getJson());
+    }
+
+    private Templates templatesOf(RestHighLevelClient client) {
+        try {
+            return this.templates.get(client, Templates::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Templates {
+        final Map<String, String> templateOf = new HashMap<>();
+        final Map<String, Template> templates = new HashMap<>();
+    }
+
+    private static final class Template {
+        final Settings settings;
+        final String type;
+        final IndexMappingCache.RenderedMapping mapping;
+        final Set<String> patterns = new TreeSet<>();
+
+        Template(Settings settings, String type, IndexMappingCache.RenderedMapping mapping) {
+            this.settings = settings;
+            this.type = type;
+            this.mapping = mapping;
+        }
+    }
+}
@@ -17,8 +17,11 @@
 
 package org.opengroup.osdu.core.common.storage;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.jsonwebtoken.lang.Collections;
@@ -34,6 +37,10 @@ import java.util.List;
 public class PersistenceHelper {
 
 	private static final String DATA_PROPERTY = "data.";
+	private static final Gson GSON = new Gson();
+	private static final LoadingCache<List<String>, RecordDataProjection> PROJECTIONS = CacheBuilder.newBuilder()
+			.maximumSize(256)
+			.build(CacheLoader.from(RecordDataProjection::compile));
 
 	private PersistenceHelper() {
 		// private constructor
@@ -45,24 +52,11 @@ public class PersistenceHelper {
 			return record;
 		}
 
-		JsonObject recordJsonObject = record.getAsJsonObject();
-
-		JsonObject dataElement = recordJsonObject.get("data").getAsJsonObject();
-
-		JsonObject filteredData = new JsonObject();
-
-		for (String attribute : attributes) {
-
-			JsonElement property = getDataSubProperty(attribute, dataElement);
-			if (property != null) {
-				filteredData.add(attribute, property);
-			}
-		}
-
-		// Replace the data content
-		recordJsonObject.add("data", filteredData);
+		return PROJECTIONS.getUnchecked(ImmutableList.copyOf(attributes)).apply(record);
+	}
 
-		return recordJsonObject;
+	public static JsonElement filterRecordDataFields(JsonElement record, RecordDataProjection projection) {
+		return projection.apply(record);
 	}
 
 	public static List<String> getValidRecordAttributes(String[] attributes) {
@@ -85,24 +79,7 @@ public class PersistenceHelper {
 
 	public static String combineRecordMetaDataAndRecordData(JsonElement jsonRecord, RecordMetadata recordMetadata,
 			Long version) {
-		JsonObject jsonRecordObject = jsonRecord.getAsJsonObject();
-		jsonRecordObject.addProperty("id", recordMetadata.getId());
-		jsonRecordObject.addProperty("version", version);
-		jsonRecordObject.addProperty("kind", recordMetadata.getKind());
-
-		Gson gson = new GsonBuilder().create();
-		JsonElement json = gson.toJsonTree(recordMetadata.getAcl(), Acl.class);
-		jsonRecordObject.add("acl", json);
-
-		json = gson.toJsonTree(recordMetadata.getLegal(), Legal.class);
-		jsonRecordObject.add("legal", json);
-
-		if (recordMetadata.getAncestry() != null && !Collections.isEmpty(recordMetadata.getAncestry().getParents())) {
-			json = gson.toJsonTree(recordMetadata.getAncestry(), RecordAncestry.class);
-			jsonRecordObject.add("ancestry", json);
-		}
-
-		return jsonRecordObject.toString();
+		return combineRecordMetaDataAndRecordDataIntoJsonObject(jsonRecord, recordMetadata, version).toString();
 	}
 
 	public static JsonObject combineRecordMetaDataAndRecordDataIntoJsonObject(JsonElement jsonRecord,
@@ -113,42 +90,17 @@ public class PersistenceHelper {
 		jsonRecordObject.addProperty("version", version);
 		jsonRecordObject.addProperty("kind", recordMetadata.getKind());
 
-		Gson gson = new GsonBuilder().create();
-		JsonElement json = gson.toJsonTree(recordMetadata.getAcl(), Acl.class);
+		JsonElement json = GSON.toJsonTree(recordMetadata.getAcl(), Acl.class);
 		jsonRecordObject.add("acl", json);
 
-		json = gson.toJsonTree(recordMetadata.getLegal(), Legal.class);
+		json = GSON.toJsonTree(recordMetadata.getLegal(), Legal.class);
 		jsonRecordObject.add("legal", json);
 
 		if (recordMetadata.getAncestry() != null && !Collections.isEmpty(recordMetadata.getAncestry().getParents())) {
-			json = gson.toJsonTree(recordMetadata.getAncestry(), RecordAncestry.class);
+			json = GSON.toJsonTree(recordMetadata.getAncestry(), RecordAncestry.class);
 			jsonRecordObject.add("ancestry", json);
 		}
 
 		return jsonRecordObject;
 	}
-
-	private static JsonElement getDataSubProperty(String field, JsonObject data) {
-
-		if (field.contains(".")) {
-			String[] fieldArray = field.split("\\.", 2);
-			String subFieldParent = fieldArray[0];
-			String subFieldChild = fieldArray[1];
-
-			JsonElement subFieldParentElement = data.get(subFieldParent);
-
-			if (subFieldParentElement.isJsonObject()) {
-				JsonElement parentObjectValue = getDataSubProperty(subFieldChild,
-						subFieldParentElement.getAsJsonObject());
-
-				if (parentObjectValue != null) {
-					return parentObjectValue;
-				}
-			}
-
-			return null;
-		}
-
-		return data.get(field);
-	}
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A record data projection compiled once from a list of dotted attribute paths (relative to
+ * {@code data}) into a path trie, so that applying it to each record is a walk over the requested
+ * paths only. The projected {@code data} is keyed by the full attribute path, in request order.
+ */
+public final class RecordDataProjection {
+
+	private static final String DATA = "data";
+	private static final TypeAdapter<JsonElement> JSON_ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+	private final Node root = new Node();
+	private final String[] attributes;
+
+	private RecordDataProjection(List<String> attributes) {
+		Map<String, Integer> slots = new LinkedHashMap<>();
+		for (String attribute : attributes) {
+			if (slots.containsKey(attribute)) {
+				continue;
+			}
+			int slot = slots.size();
+			slots.put(attribute, slot);
+
+			Node node = this.root;
+			int start = 0;
+			int dot;
+			while ((dot = attribute.indexOf('.', start)) >= 0) {
+				node = node.child(attribute.substring(start, dot));
+				start = dot + 1;
+			}
+			node.child(attribute.substring(start)).slot = slot;
+		}
+		this.attributes = slots.keySet().toArray(new String[0]);
+	}
+
+	public static RecordDataProjection compile(List<String> attributes) {
+		if (attributes == null || attributes.isEmpty()) {
+			throw new IllegalArgumentException("attributes cannot be empty");
+		}
+		return new RecordDataProjection(attributes);
+	}
+
+	/**
+	 * Replaces the record's {@code data} with its projection, in place. A record without a
+	 * {@code data} object gets an empty one.
+	 */
+	public JsonObject apply(JsonElement record) {
+		JsonObject recordJsonObject = record.getAsJsonObject();
+		JsonElement data = recordJsonObject.get(DATA);
+		JsonElement[] values = new JsonElement[this.attributes.length];
+		if (data != null && data.isJsonObject()) {
+			collect(this.root, data.getAsJsonObject(), values);
+		}
+		recordJsonObject.add(DATA, toJsonObject(values));
+		return recordJsonObject;
+	}
+
+	/**
+	 * Reads a record from the stream, materializing only its top-level properties other than
+	 * {@code data} and the projected values; everything else in {@code data} is skipped unparsed.
+	 */
+	public JsonObject apply(JsonReader reader) throws IOException {
+		JsonObject record = new JsonObject();
+		JsonElement[] values = new JsonElement[this.attributes.length];
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if (DATA.equals(name)) {
+				if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+					stream(this.root, reader, values);
+				} else {
+					reader.skipValue();
+				}
+			} else {
+				record.add(name, JSON_ELEMENT_ADAPTER.read(reader));
+			}
+		}
+		reader.endObject();
+		record.add(DATA, toJsonObject(values));
+		return record;
+	}
+
+	private static void collect(Node node, JsonObject object, JsonElement[] values) {
+		for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+			JsonElement element = object.get(entry.getKey());
+			if (element != null) {
+				Node child = entry.getValue();
+				if (child.slot >= 0) {
+					values[child.slot] = element;
+				}
+				if (!child.children.isEmpty() && element.isJsonObject()) {
+					collect(child, element.getAsJsonObject(), values);
+				}
+			}
+		}
+	}
+
+	private static void stream(Node node, JsonReader reader, JsonElement[] values) throws IOException {
+		reader.beginObject();
+		while (reader.hasNext()) {
+			Node child = node.children.get(reader.nextName());
+			if (child == null) {
+				reader.skipValue();
+			} else if (child.slot >= 0) {
+				JsonElement element = JSON_ELEMENT_ADAPTER.read(reader);
+				values[child.slot] = element;
+				if (!child.children.isEmpty() && element.isJsonObject()) {
+					collect(child, element.getAsJsonObject(), values);
+				}
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				stream(child, reader, values);
+			} else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+	}
+
+	private JsonObject toJsonObject(JsonElement[] values) {
+		JsonObject data = new JsonObject();
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				data.add(this.attributes[i], values[i]);
+			}
+		}
+		return data;
+	}
+
+	private static final class Node {
+		private final Map<String, Node> children = new HashMap<>();
+		private int slot = -1;
+
+		private Node child(String name) {
+			return this.children.computeIfAbsent(name, key -> new Node());
+		}
+	}
+}
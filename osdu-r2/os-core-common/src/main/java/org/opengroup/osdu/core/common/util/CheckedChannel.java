@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Channel computing the {@link Crc32c} of everything read through it, in the spirit of
+ * {@link java.util.zip.CheckedInputStream}.
+ */
+public class CheckedChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+    private final Crc32c checksum;
+
+    public CheckedChannel(ReadableByteChannel channel) {
+        this(channel, new Crc32c());
+    }
+
+    public CheckedChannel(ReadableByteChannel channel, Crc32c checksum) {
+        this.channel = channel;
+        this.checksum = checksum;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int start = dst.position();
+        int read = channel.read(dst);
+        if (read > 0) {
+            ByteBuffer readBytes = dst.duplicate();
+            readBytes.position(start);
+            readBytes.limit(start + read);
+            checksum.update(readBytes);
+        }
+        return read;
+    }
+
+    public Crc32c getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
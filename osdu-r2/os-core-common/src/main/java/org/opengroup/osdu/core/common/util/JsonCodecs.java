@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.gson.Gson;
+
+/**
+ * Shared, pre-configured JSON readers and writers. Creating an ObjectMapper is expensive and each new
+ * one starts with empty serializer caches, so model classes take their readers and writers from here
+ * once, in static fields, instead of building a mapper per call. ObjectReader, ObjectWriter and Gson
+ * are immutable and thread-safe.
+ */
+public final class JsonCodecs {
+
+    private static final ObjectMapper CASE_INSENSITIVE_MAPPER = new ObjectMapper()
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
+    private static final ObjectMapper SORTED_MAPPER = new ObjectMapper()
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+    private static final ObjectWriter NON_NULL_WRITER = CASE_INSENSITIVE_MAPPER.copy()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL).writer();
+    private static final ObjectWriter SORTED_NON_NULL_WRITER = SORTED_MAPPER
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL).writer();
+
+    private static final Gson GSON = new Gson();
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * Reader matching property names regardless of case and failing on unknown properties.
+     */
+    public static ObjectReader caseInsensitiveReader(Class<?> type) {
+        return CASE_INSENSITIVE_MAPPER.readerFor(type);
+    }
+
+    /**
+     * Reader matching property names regardless of case and ignoring unknown properties.
+     */
+    public static ObjectReader lenientReader(Class<?> type) {
+        return CASE_INSENSITIVE_MAPPER.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Writer leaving out null properties. It serializes the runtime type of the value.
+     */
+    public static ObjectWriter nonNullWriter() {
+        return NON_NULL_WRITER;
+    }
+
+    /**
+     * Writer leaving out null properties and ordering properties alphabetically, giving a stable form.
+     */
+    public static ObjectWriter sortedNonNullWriter() {
+        return SORTED_NON_NULL_WRITER;
+    }
+
+    public static Gson gson() {
+        return GSON;
+    }
+}
@@ -19,7 +19,19 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertNotEquals;
 
 public class MultiTenantCacheTest {
@@ -35,4 +47,41 @@ public class MultiTenantCacheTest {
         assertEquals(sut.get(t2), sut.get(t2));
         assertNotEquals(sut.get(t1), sut.get(t2));
     }
+
+    @Test
+    public void should_returnSingleCachePerTenant_when_accessedConcurrently() throws Exception {
+        MultiTenantCache<String> sut = new MultiTenantCache<>(new VmCache<String, String>(60, 1000));
+        int threads = 64;
+        int tenants = 200;
+        List<Map<String, ICache<String, String>>> seen = new ArrayList<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            Map<String, ICache<String, String>> local = new HashMap<>();
+            seen.add(local);
+            tasks.add(() -> {
+                start.await();
+                for (int t = 0; t < tenants; t++) {
+                    local.put("tenant" + t, sut.get("tenant" + t));
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> results = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            results.add(executor.submit(task));
+        }
+        start.countDown();
+        for (Future<Void> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (Map<String, ICache<String, String>> local : seen) {
+            for (int t = 0; t < tenants; t++) {
+                assertSame(sut.get("tenant" + t), local.get("tenant" + t));
+            }
+        }
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class NearCacheTest {
+
+    private VmCache<String, String> shared;
+    private InMemoryInvalidationChannel channel;
+    private NearCache<String, String> node1;
+    private NearCache<String, String> node2;
+
+    @Before
+    public void setup() {
+        shared = spy(new VmCache<>(60, 100));
+        channel = new InMemoryInvalidationChannel();
+        node1 = new NearCache<>("kinds", shared, channel, String.class);
+        node2 = new NearCache<>("kinds", shared, channel, String.class);
+    }
+
+    @Test
+    public void should_serveRepeatedLookupsLocally() {
+        node1.put("key", "value");
+
+        assertEquals("value", node2.get("key"));
+        assertEquals("value", node2.get("key"));
+        assertEquals("value", node2.get("key"));
+
+        verify(shared, times(1)).get("key");
+        assertEquals(2, node2.getFirstLevelHits());
+        assertEquals(1, node2.getSecondLevelHits());
+        assertEquals(2.0 / 3, node2.getFirstLevelHitRatio(), 0.0001);
+    }
+
+    @Test
+    public void should_dropLocalCopy_when_otherNodeUpdatesKey() {
+        node1.put("key", "v1");
+        assertEquals("v1", node2.get("key"));
+
+        node1.put("key", "v2");
+
+        assertEquals("v2", node2.get("key"));
+        assertEquals(2, node2.getInvalidationsReceived());
+        assertEquals(0, node1.getInvalidationsReceived());
+    }
+
+    @Test
+    public void should_dropLocalCopies_when_otherNodeDeletesOrClears() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+        values.put("prefix-c", "3");
+        node1.putAll(values);
+        assertEquals(values, node2.getAll(values.keySet()));
+
+        node1.deleteAll(Arrays.asList("a"));
+        assertNull(node2.get("a"));
+        assertEquals("2", node2.get("b"));
+
+        node1.deleteByPrefix("prefix-");
+        assertNull(node2.get("prefix-c"));
+
+        node1.clearAll();
+        assertNull(node2.get("b"));
+    }
+
+    @Test
+    public void should_clearLocalCache_when_messageIsUnreadable() {
+        node1.put("key", "value");
+        assertEquals("value", node2.get("key"));
+        shared.put("key", "changed");
+
+        channel.publish("not json");
+
+        assertEquals("changed", node2.get("key"));
+    }
+
+    @Test
+    public void should_ignoreMessages_forOtherCacheName() {
+        NearCache<String, String> other = new NearCache<>("schemas", shared, channel, String.class);
+        node1.put("key", "value");
+        assertEquals("value", node2.get("key"));
+
+        other.delete("key");
+
+        assertEquals(1, node2.getInvalidationsReceived());
+        assertEquals("value", node2.get("key"));
+    }
+
+    @Test
+    public void should_clearLocalCache_when_keyIsUnreadable() {
+        NearCache<Integer, String> numbers = new NearCache<>("numbers", new VmCache<>(60, 100), channel, Integer.class);
+        numbers.put(1, "one");
+        assertEquals("one", numbers.get(1));
+
+        channel.publish("{\"name\":\"numbers\",\"origin\":\"other\",\"keys\":[\"not a number\"]}");
+
+        assertEquals("one", numbers.get(1));
+        assertEquals(1, numbers.getInvalidationsReceived());
+        assertEquals(1, numbers.getFirstLevelHits());
+        assertEquals(1, numbers.getSecondLevelHits());
+    }
+
+    @Test
+    public void should_deliverToOtherListeners_when_oneListenerFails() {
+        InMemoryInvalidationChannel channel = new InMemoryInvalidationChannel();
+        channel.subscribe(message -> {
+            throw new IllegalStateException("broken listener");
+        });
+        NearCache<String, String> writer = new NearCache<>("kinds", shared, channel, String.class);
+        NearCache<String, String> reader = new NearCache<>("kinds", shared, channel, String.class);
+        writer.put("key", "v1");
+        assertEquals("v1", reader.get("key"));
+
+        writer.put("key", "v2");
+
+        assertEquals("v2", reader.get("key"));
+    }
+
+    @Test
+    public void should_reloadFromRemote_after_stalenessWindow() throws InterruptedException {
+        NearCache<String, String> sut = new NearCache<>("kinds", shared, new InMemoryInvalidationChannel(), String.class,
+                NearCacheConfig.builder().maxStalenessSeconds(1).build());
+        sut.put("key", "v1");
+        // written by a node whose invalidation was lost
+        shared.put("key", "v2");
+        assertEquals("v1", sut.get("key"));
+
+        Thread.sleep(1100);
+
+        assertEquals("v2", sut.get("key"));
+    }
+
+    @Test
+    public void should_stopListening_when_closed() {
+        node1.put("key", "v1");
+        assertEquals("v1", node2.get("key"));
+
+        node2.close();
+        node1.put("key", "v2");
+
+        assertEquals("v1", node2.get("key"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_when_nameIsEmpty() {
+        new NearCache<>("", shared, channel, String.class);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.gson.Gson;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.search.IndexInfo;
+import org.opengroup.osdu.core.common.model.storage.Schema;
+import org.opengroup.osdu.core.common.model.storage.SchemaItem;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RedisCacheCodecTest {
+
+    @Test
+    public void should_roundTripValues_forEveryCompression() {
+        Groups groups = groups(20);
+        for (RedisCodecConfig.CompressionType compression : RedisCodecConfig.CompressionType.values()) {
+            for (int threshold : new int[]{0, 1_000_000}) {
+                RedisCacheCodec<String, Groups> sut = new RedisCacheCodec<>(String.class, Groups.class,
+                        RedisCodecConfig.builder().compression(compression).compressionThresholdBytes(threshold).build());
+
+                assertEquals(groups, sut.decodeValue(sut.encodeValue(groups)));
+                assertEquals("key", sut.decodeKey(sut.encodeKey("key")));
+            }
+        }
+    }
+
+    @Test
+    public void should_readLegacyGzipValues_withDefaultConfig() throws Exception {
+        Groups groups = groups(3);
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(legacy)) {
+            out.write(new Gson().toJson(groups).getBytes(StandardCharsets.UTF_8));
+        }
+        RedisCacheCodec<String, Groups> sut = new RedisCacheCodec<>(String.class, Groups.class, RedisCodecConfig.Default());
+
+        assertEquals(groups, sut.decodeValue(ByteBuffer.wrap(legacy.toByteArray())));
+        assertEquals(0x1f, sut.encodeValue(groups).get(0) & 0xff);
+    }
+
+    @Test
+    public void should_storeSmallValuesUncompressed_belowThreshold() {
+        RedisCacheCodec<String, String> sut = new RedisCacheCodec<>(String.class, String.class,
+                RedisCodecConfig.builder().compressionThresholdBytes(64).build());
+
+        ByteBuffer encoded = sut.encodeValue("abc");
+
+        assertEquals("\"abc\"".length() + 1, encoded.remaining());
+        assertEquals("abc", sut.decodeValue(encoded));
+    }
+
+    @Test
+    public void should_decodeFromDirectBuffer() {
+        RedisCacheCodec<String, Groups> sut = new RedisCacheCodec<>(String.class, Groups.class,
+                RedisCodecConfig.builder().compression(RedisCodecConfig.CompressionType.DEFLATE).build());
+        ByteBuffer heap = sut.encodeValue(groups(5));
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining());
+        direct.put(heap).flip();
+
+        assertEquals(groups(5), sut.decodeValue(direct));
+    }
+
+    @Test
+    public void should_returnNull_forEmptyOrCorruptValues() {
+        RedisCacheCodec<String, Groups> sut = new RedisCacheCodec<>(String.class, Groups.class, RedisCodecConfig.Default());
+
+        assertNull(sut.decodeValue(ByteBuffer.wrap(new byte[0])));
+        assertNull(sut.decodeValue(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+    }
+
+    @Test
+    public void should_compressCachedModels_withEveryCompression() {
+        Object[] values = {groups(50), indexInfos(200), schema(100)};
+        for (Object value : values) {
+            @SuppressWarnings("unchecked")
+            Class<Object> type = (Class<Object>) value.getClass();
+            int plainSize = new RedisCacheCodec<>(String.class, type,
+                    RedisCodecConfig.builder().compressionThresholdBytes(Integer.MAX_VALUE).build()).encodeValue(value).remaining();
+            for (RedisCodecConfig.CompressionType compression : RedisCodecConfig.CompressionType.values()) {
+                RedisCacheCodec<String, Object> sut = new RedisCacheCodec<>(String.class, type,
+                        RedisCodecConfig.builder().compression(compression).build());
+
+                ByteBuffer encoded = sut.encodeValue(value);
+
+                assertTrue(String.format("%s %s", type.getSimpleName(), compression), encoded.remaining() < plainSize);
+                assertEquals(new Gson().toJson(value), new Gson().toJson(sut.decodeValue(encoded)));
+            }
+        }
+    }
+
+    private static IndexInfo[] indexInfos(int count) {
+        IndexInfo[] indices = new IndexInfo[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = IndexInfo.builder().name("tenant1-wks-well-1.0." + i).documentCount(String.valueOf(i * 1000))
+                    .creationDate(String.valueOf(1_580_000_000_000L + i)).build();
+        }
+        return indices;
+    }
+
+    private static Schema schema(int count) {
+        SchemaItem[] items = new SchemaItem[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = new SchemaItem("data.attribute" + i, i % 3 == 0 ? "double" : "string", null);
+        }
+        return Schema.builder().kind("tenant1:wks:well:1.0.0").schema(items).build();
+    }
+
+    private static Groups groups(int count) {
+        Groups groups = new Groups();
+        groups.setMemberEmail("member@domain.com");
+        groups.setDesId("member@domain.com");
+        for (int i = 0; i < count; i++) {
+            GroupInfo info = new GroupInfo();
+            info.setName("data.group" + i);
+            info.setEmail("data.group" + i + "@tenant.domain.com");
+            info.setDescription("group " + i);
+            groups.getGroups().add(info);
+        }
+        return groups;
+    }
+}
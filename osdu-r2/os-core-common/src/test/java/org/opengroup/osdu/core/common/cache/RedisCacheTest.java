@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RedisCacheTest {
+
+    private FakeRedisServer server;
+    private RedisCache<String, String> sut;
+
+    @Before
+    public void setup() throws IOException {
+        server = new FakeRedisServer();
+        sut = new RedisCache<>("127.0.0.1", server.getPort(), 60, String.class, String.class);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        sut.close();
+        server.close();
+    }
+
+    @Test
+    public void should_fetchBatchWithSingleCommand_when_gettingAll() {
+        Map<String, String> values = values(50);
+        values.forEach(sut::put);
+        List<String> keys = new ArrayList<>(values.keySet());
+        keys.add("missing");
+        server.resetCounts();
+
+        Map<String, String> result = sut.getAll(keys);
+
+        assertEquals(values, result);
+        assertEquals(1, server.count("MGET"));
+        assertEquals(0, server.count("GET"));
+    }
+
+    @Test
+    public void should_setEveryEntryWithExpiry_when_puttingAll() {
+        Map<String, String> values = values(50);
+
+        sut.putAll(values);
+
+        assertEquals(50, server.count("SET"));
+        assertEquals(50, server.expiringSets.get());
+        values.forEach((k, v) -> assertEquals(v, sut.get(k)));
+    }
+
+    @Test
+    public void should_deleteBatchWithSingleCommand_when_deletingAll() {
+        Map<String, String> values = values(10);
+        sut.putAll(values);
+        server.resetCounts();
+
+        sut.deleteAll(values.keySet());
+
+        assertEquals(1, server.count("DEL"));
+        assertNull(sut.get("key1"));
+    }
+
+    @Test
+    public void should_sendNothing_when_batchIsEmpty() {
+        sut.putAll(new HashMap<>());
+        sut.deleteAll(new ArrayList<>());
+
+        assertEquals(0, sut.getAll(new ArrayList<>()).size());
+        assertEquals(0, server.count("SET") + server.count("DEL") + server.count("MGET"));
+    }
+
+    @Test
+    public void should_roundTripSingleEntries() {
+        sut.put("key", "value");
+        assertEquals("value", sut.get("key"));
+
+        sut.delete("key");
+        assertNull(sut.get("key"));
+        assertTrue(sut.getAll(Arrays.asList("key")).isEmpty());
+    }
+
+    private static Map<String, String> values(int count) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            values.put("key" + i, "value" + i);
+        }
+        return values;
+    }
+
+    /**
+     * Just enough of the Redis protocol for GET, SET, MGET and DEL, counting the commands it receives.
+     */
+    private static class FakeRedisServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final Map<ByteBuffer, byte[]> data = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final AtomicInteger expiringSets = new AtomicInteger();
+
+        FakeRedisServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "fake-redis");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int count(String command) {
+            AtomicInteger count = counts.get(command);
+            return count == null ? 0 : count.get();
+        }
+
+        void resetCounts() {
+            counts.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    Socket socket = serverSocket.accept();
+                    Thread worker = new Thread(() -> serve(socket), "fake-redis-connection");
+                    worker.setDaemon(true);
+                    worker.start();
+                }
+            } catch (IOException e) {
+                // server closed
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                OutputStream out = new BufferedOutputStream(s.getOutputStream());
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    handle(command, out);
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // connection closed
+            }
+        }
+
+        private void handle(List<byte[]> command, OutputStream out) throws IOException {
+            String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+            counts.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+            switch (name) {
+                case "GET":
+                    writeBulk(data.get(ByteBuffer.wrap(command.get(1))), out);
+                    break;
+                case "MGET":
+                    write("*" + (command.size() - 1), out);
+                    for (int i = 1; i < command.size(); i++) {
+                        writeBulk(data.get(ByteBuffer.wrap(command.get(i))), out);
+                    }
+                    break;
+                case "SET":
+                    data.put(ByteBuffer.wrap(command.get(1)), command.get(2));
+                    if (command.size() > 3 && "EX".equalsIgnoreCase(new String(command.get(3), StandardCharsets.UTF_8))) {
+                        expiringSets.incrementAndGet();
+                    }
+                    write("+OK", out);
+                    break;
+                case "DEL":
+                    int deleted = 0;
+                    for (int i = 1; i < command.size(); i++) {
+                        deleted += data.remove(ByteBuffer.wrap(command.get(i))) == null ? 0 : 1;
+                    }
+                    write(":" + deleted, out);
+                    break;
+                default:
+                    write("+OK", out);
+            }
+        }
+
+        private static List<byte[]> readCommand(DataInputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] part = new byte[Integer.parseInt(readLine(in).substring(1))];
+                in.readFully(part);
+                readLine(in);
+                parts.add(part);
+            }
+            return parts;
+        }
+
+        private static String readLine(DataInputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c == -1) {
+                    return null;
+                }
+                line.append((char) c);
+            }
+            in.read();
+            return line.toString();
+        }
+
+        private static void writeBulk(byte[] value, OutputStream out) throws IOException {
+            if (value == null) {
+                write("$-1", out);
+            } else {
+                write("$" + value.length, out);
+                out.write(value);
+                out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private static void write(String line, OutputStream out) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
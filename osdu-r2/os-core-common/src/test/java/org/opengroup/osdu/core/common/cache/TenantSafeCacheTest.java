@@ -18,7 +18,17 @@
 package org.opengroup.osdu.core.common.cache;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class TenantSafeCacheTest {
@@ -60,12 +70,97 @@ public class TenantSafeCacheTest {
 
 
     @Test
-    public void should_callWrappedClearCache() {
+    public void should_clearOnlyTenantEntries_when_clearingCache() {
         ICache wrapped = mock(ICache.class);
         TenantSafeCache<String> sut = new TenantSafeCache<String>("tenant1", wrapped);
 
         sut.clearAll();
 
-        verify(wrapped, times(1)).clearAll();
+        verify(wrapped, times(1)).deleteByPrefix("tenant1");
+        verify(wrapped, never()).clearAll();
+    }
+
+    @Test
+    public void should_keepOtherTenantEntries_when_clearingCache() {
+        VmCache<String, String> wrapped = new VmCache<>(60, 10);
+        TenantSafeCache<String> tenant1 = new TenantSafeCache<>("tenant1", wrapped);
+        TenantSafeCache<String> tenant2 = new TenantSafeCache<>("tenant2", wrapped);
+        tenant1.put("key", "value1");
+        tenant2.put("key", "value2");
+
+        tenant1.clearAll();
+
+        assertNull(tenant1.get("key"));
+        assertEquals("value2", tenant2.get("key"));
+    }
+
+    @Test
+    public void should_clearWrappedCache_when_itCannotDeleteByPrefix() {
+        VmCache<String, String> entries = new VmCache<>(60, 10);
+        ICache<String, String> wrapped = new ICache<String, String>() {
+            @Override
+            public void put(String k, String o) {
+                entries.put(k, o);
+            }
+
+            @Override
+            public String get(String k) {
+                return entries.get(k);
+            }
+
+            @Override
+            public void delete(String k) {
+                entries.delete(k);
+            }
+
+            @Override
+            public void clearAll() {
+                entries.clearAll();
+            }
+        };
+        TenantSafeCache<String> tenant1 = new TenantSafeCache<>("tenant1", wrapped);
+        TenantSafeCache<String> tenant2 = new TenantSafeCache<>("tenant2", wrapped);
+        tenant1.put("key", "value1");
+        tenant2.put("key", "value2");
+
+        tenant1.clearAll();
+
+        assertNull(tenant1.get("key"));
+        assertNull(tenant2.get("key"));
+    }
+
+    @Test
+    public void should_reuseTenantKey_when_keyIsRepeated() {
+        ICache<String, String> wrapped = mock(ICache.class);
+        TenantSafeCache<String> sut = new TenantSafeCache<>("tenant1", wrapped);
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+
+        sut.get("key");
+        sut.get("key");
+
+        verify(wrapped, times(2)).get(keys.capture());
+        assertEquals("tenant1key", keys.getAllValues().get(0));
+        assertSame(keys.getAllValues().get(0), keys.getAllValues().get(1));
+    }
+
+    @Test
+    public void should_prefixAndStripKeys_when_usingBatches() {
+        VmCache<String, String> wrapped = new VmCache<>(60, 10);
+        TenantSafeCache<String> tenant1 = new TenantSafeCache<>("tenant1", wrapped);
+        TenantSafeCache<String> tenant2 = new TenantSafeCache<>("tenant2", wrapped);
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+
+        tenant1.putAll(values);
+
+        assertEquals("1", wrapped.get("tenant1a"));
+        assertEquals(values, tenant1.getAll(Arrays.asList("a", "b", "c")));
+        assertTrue(tenant2.getAll(Arrays.asList("a", "b")).isEmpty());
+
+        tenant1.deleteAll(Collections.singletonList("a"));
+
+        assertNull(wrapped.get("tenant1a"));
+        assertEquals("2", wrapped.get("tenant1b"));
     }
 }
@@ -82,4 +82,18 @@ public class VmCacheTest {
 
         assertNull(sut.get(id));
     }
+
+    @Test
+    public void should_removeOnlyMatchingItems_when_deletingByPrefix() {
+        VmCache<String, String> sut = new VmCache<>(2, 10);
+        sut.put("tenant1-a", "a");
+        sut.put("tenant1-b", "b");
+        sut.put("tenant2-a", "c");
+
+        sut.deleteByPrefix("tenant1");
+
+        assertNull(sut.get("tenant1-a"));
+        assertNull(sut.get("tenant1-b"));
+        assertEquals("c", sut.get("tenant2-a"));
+    }
 }
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.junit.After;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryResponse;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.core.common.model.crs.Point;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchingCrsConverterServiceTest {
+
+    private final StubConverter stub = new StubConverter();
+    private BatchingCrsConverterService sut;
+
+    @After
+    public void teardown() {
+        if (this.sut != null) {
+            this.sut.close();
+        }
+    }
+
+    @Test
+    public void should_mergeRequestsWithinWindow_andSplitResponses() throws Exception {
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(200).build());
+
+        CompletableFuture<ConvertPointsResponse> first = this.sut.submit(request("A", "B", 1, 2));
+        CompletableFuture<ConvertPointsResponse> second = this.sut.submit(request("A", "B", 10, Double.NaN, 30));
+
+        ConvertPointsResponse firstResponse = first.get(5, TimeUnit.SECONDS);
+        ConvertPointsResponse secondResponse = second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, this.sut.getRemoteCallCount());
+        assertEquals(asList(2, 3), xs(firstResponse));
+        assertEquals(2, firstResponse.getSuccessCount().intValue());
+        assertEquals(3, secondResponse.getPoints().size());
+        assertEquals(31.0, secondResponse.getPoints().get(2).getX(), 0.0);
+        assertEquals(2, secondResponse.getSuccessCount().intValue());
+        assertEquals(Collections.singletonList("A to B"), secondResponse.getOperationsApplied());
+    }
+
+    @Test
+    public void should_notMergeRequests_withDifferentCrsPairs() throws Exception {
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(50).build());
+
+        CompletableFuture<ConvertPointsResponse> first = this.sut.submit(request("A", "B", 1));
+        CompletableFuture<ConvertPointsResponse> second = this.sut.submit(request("A", "C", 1));
+
+        assertEquals(Collections.singletonList("A to B"), first.get(5, TimeUnit.SECONDS).getOperationsApplied());
+        assertEquals(Collections.singletonList("A to C"), second.get(5, TimeUnit.SECONDS).getOperationsApplied());
+        assertEquals(2, this.sut.getRemoteCallCount());
+    }
+
+    @Test
+    public void should_sendBatch_when_sizeLimitIsReached() throws Exception {
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(60_000).maxPointsPerBatch(3).build());
+
+        CompletableFuture<ConvertPointsResponse> first = this.sut.submit(request("A", "B", 1, 2));
+        CompletableFuture<ConvertPointsResponse> second = this.sut.submit(request("A", "B", 3));
+        CompletableFuture<ConvertPointsResponse> large = this.sut.submit(request("A", "B", 4, 5, 6, 7));
+
+        assertEquals(asList(2, 3), xs(first.get(5, TimeUnit.SECONDS)));
+        assertEquals(asList(4), xs(second.get(5, TimeUnit.SECONDS)));
+        assertEquals(asList(5, 6, 7, 8), xs(large.get(5, TimeUnit.SECONDS)));
+        assertEquals(2, this.sut.getRemoteCallCount());
+    }
+
+    @Test
+    public void should_failEveryCallerInBatch_when_remoteCallFails() throws Exception {
+        this.stub.failure = new CrsConverterException("boom", null);
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(50).build());
+
+        CompletableFuture<ConvertPointsResponse> first = this.sut.submit(request("A", "B", 1));
+        try {
+            this.sut.convertPoints(request("A", "B", 2));
+            fail("expected exception");
+        } catch (CrsConverterException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        try {
+            first.get(5, TimeUnit.SECONDS);
+            fail("expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CrsConverterException);
+        }
+        // the merged call, then one call per request
+        assertEquals(3, this.sut.getRemoteCallCount());
+    }
+
+    @Test
+    public void should_answerOtherCallers_when_oneCallersPointsFailTheBatch() throws Exception {
+        this.stub.rejectedX = 13;
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(200).build());
+
+        CompletableFuture<ConvertPointsResponse> good = this.sut.submit(request("A", "B", 1, 2));
+        CompletableFuture<ConvertPointsResponse> bad = this.sut.submit(request("A", "B", 13));
+
+        assertEquals(asList(2, 3), xs(good.get(5, TimeUnit.SECONDS)));
+        try {
+            bad.get(5, TimeUnit.SECONDS);
+            fail("expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CrsConverterException);
+        }
+        assertEquals(3, this.sut.getRemoteCallCount());
+    }
+
+    @Test
+    public void should_failFast_when_tooManyBatchesAreWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        this.stub.release = release;
+        this.sut = new BatchingCrsConverterService(this.stub, CrsBatchingConfig.builder()
+                .maxPointsPerBatch(1).maxInFlightBatches(1).maxQueuedBatches(1).build());
+
+        CompletableFuture<ConvertPointsResponse> running = this.sut.submit(request("A", "B", 1));
+        CompletableFuture<ConvertPointsResponse> queued = this.sut.submit(request("A", "B", 2));
+        CompletableFuture<ConvertPointsResponse> rejected = this.sut.submit(request("A", "B", 3));
+
+        try {
+            rejected.get(5, TimeUnit.SECONDS);
+            fail("expected exception");
+        } catch (ExecutionException e) {
+            assertEquals(503, ((CrsConverterException) e.getCause()).getHttpResponse().getResponseCode());
+        }
+        release.countDown();
+        assertEquals(asList(2), xs(running.get(5, TimeUnit.SECONDS)));
+        assertEquals(asList(3), xs(queued.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void should_timeOut_when_batchDoesNotComplete() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        this.stub.release = release;
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(1).awaitTimeoutMillis(50).build());
+
+        try {
+            this.sut.convertPoints(request("A", "B", 1));
+            fail("expected exception");
+        } catch (CrsConverterException e) {
+            assertEquals(504, e.getHttpResponse().getResponseCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void should_sendOpenBatches_when_closed() throws Exception {
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(60_000).build());
+
+        CompletableFuture<ConvertPointsResponse> pending = this.sut.submit(request("A", "B", 1));
+        this.sut.close();
+
+        assertEquals(asList(2), xs(pending.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void should_rejectNewWork_when_closed() throws Exception {
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(60_000).maxPointsPerBatch(2).build());
+        this.sut.close();
+
+        CompletableFuture<ConvertPointsResponse> small = this.sut.submit(request("A", "B", 1));
+        CompletableFuture<ConvertPointsResponse> large = this.sut.submit(request("A", "B", 1, 2, 3));
+
+        for (CompletableFuture<ConvertPointsResponse> result : Arrays.asList(small, large)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("expected exception");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        try {
+            this.sut.convertPoints(request("A", "B", 1));
+            fail("expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("BatchingCrsConverterService is closed", e.getMessage());
+        }
+        assertEquals(0, this.sut.getRemoteCallCount());
+    }
+
+    @Test
+    public void should_batchOnlyCallsWithSameIdentity_when_shared() throws Exception {
+        Map<String, AtomicInteger> callsByToken = new ConcurrentHashMap<>();
+        ICrsConverterFactory factory = headers -> new StubConverter() {
+            @Override
+            public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+                callsByToken.computeIfAbsent(headers.getAuthorization(), token -> new AtomicInteger()).incrementAndGet();
+                return super.convertPoints(request);
+            }
+        };
+        this.sut = new BatchingCrsConverterService(factory,
+                CrsBatchingConfig.builder().batchWindowMillis(200).build());
+
+        CompletableFuture<ConvertPointsResponse> alice1 = CompletableFuture.supplyAsync(
+                () -> convert(this.sut.forCaller(headers("tenant1", "alice")), request("A", "B", 1)));
+        CompletableFuture<ConvertPointsResponse> alice2 = CompletableFuture.supplyAsync(
+                () -> convert(this.sut.forCaller(headers("tenant1", "alice")), request("A", "B", 2)));
+        CompletableFuture<ConvertPointsResponse> bob = CompletableFuture.supplyAsync(
+                () -> convert(this.sut.forCaller(headers("tenant1", "bob")), request("A", "B", 3)));
+
+        assertEquals(asList(2), xs(alice1.get(5, TimeUnit.SECONDS)));
+        assertEquals(asList(3), xs(alice2.get(5, TimeUnit.SECONDS)));
+        assertEquals(asList(4), xs(bob.get(5, TimeUnit.SECONDS)));
+        assertEquals(2, this.sut.getRemoteCallCount());
+        assertEquals(1, callsByToken.get("alice").get());
+        assertEquals(1, callsByToken.get("bob").get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_throw_when_sharedInstanceIsUsedWithoutCaller() throws Exception {
+        this.sut = new BatchingCrsConverterService(headers -> this.stub, CrsBatchingConfig.Default());
+
+        this.sut.convertPoints(request("A", "B", 1));
+    }
+
+    @Test
+    public void should_coalesceConcurrentCallers_underLoad() throws Exception {
+        int callers = 16;
+        int requestsPerCaller = 50;
+        this.stub.latencyMillis = 2;
+        this.sut = new BatchingCrsConverterService(this.stub,
+                CrsBatchingConfig.builder().batchWindowMillis(5).maxPointsPerBatch(200).maxInFlightBatches(4).build());
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int c = 0; c < callers; c++) {
+            int caller = c;
+            results.add(pool.submit(() -> {
+                start.await();
+                int verified = 0;
+                for (int r = 0; r < requestsPerCaller; r++) {
+                    double x = caller * 1000 + r;
+                    ConvertPointsResponse response = this.sut.convertPoints(request("A", "B", x, x + 0.5));
+                    if (response.getPoints().get(0).getX() == x + 1 && response.getPoints().get(1).getX() == x + 1.5) {
+                        verified++;
+                    }
+                }
+                return verified;
+            }));
+        }
+        start.countDown();
+        int verified = 0;
+        for (Future<Integer> result : results) {
+            verified += result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(callers * requestsPerCaller, verified);
+        assertTrue("expected calls to be merged but saw " + this.sut.getRemoteCallCount(),
+                this.sut.getRemoteCallCount() < callers * requestsPerCaller / 2);
+    }
+
+    private static ConvertPointsResponse convert(ICrsConverterService service, ConvertPointsRequest request) {
+        try {
+            return service.convertPoints(request);
+        } catch (CrsConverterException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DpsHeaders headers(String partition, String token) {
+        DpsHeaders headers = new DpsHeaders();
+        headers.put(DpsHeaders.DATA_PARTITION_ID, partition);
+        headers.put(DpsHeaders.AUTHORIZATION, token);
+        return headers;
+    }
+
+    private static ConvertPointsRequest request(String from, String to, double... xs) {
+        List<Point> points = new ArrayList<>();
+        for (double x : xs) {
+            points.add(Double.isNaN(x) ? new Point() : new Point(x, 0.0, 0.0));
+        }
+        return new ConvertPointsRequest(from, to, points);
+    }
+
+    private static List<Double> xs(ConvertPointsResponse response) {
+        List<Double> xs = new ArrayList<>();
+        response.getPoints().forEach(point -> xs.add(point.getX()));
+        return xs;
+    }
+
+    private static List<Double> asList(double... values) {
+        List<Double> list = new ArrayList<>();
+        for (double value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static class StubConverter implements ICrsConverterService {
+        volatile CrsConverterException failure;
+        volatile long latencyMillis;
+        volatile CountDownLatch release;
+        volatile double rejectedX = Double.NaN;
+
+        @Override
+        public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+            if (this.latencyMillis > 0) {
+                try {
+                    Thread.sleep(this.latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (this.release != null) {
+                try {
+                    this.release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            for (Point point : request.getPoints()) {
+                if (Point.isValid(point) && point.getX() == this.rejectedX) {
+                    throw new CrsConverterException("bad point", null);
+                }
+            }
+            List<Point> converted = new ArrayList<>();
+            int successCount = 0;
+            for (Point point : request.getPoints()) {
+                if (Point.isValid(point)) {
+                    converted.add(new Point(point.getX() + 1, point.getY(), point.getZ()));
+                    successCount++;
+                } else {
+                    converted.add(new Point());
+                }
+            }
+            return new ConvertPointsResponse(successCount, converted,
+                    Collections.singletonList(request.getFromCRS() + " to " + request.getToCRS()));
+        }
+
+        @Override
+        public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) {
+            return new ConvertTrajectoryResponse();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryRequest;
+import org.opengroup.osdu.core.common.model.crs.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalCrsConverterServiceTest {
+
+    private static final String LATE_BOUND_UTM_15N = "{\"wkt\":\"PROJCS[\\\"WGS_1984_UTM_Zone_15N\\\"]\","
+            + "\"authCode\":{\"auth\":\"EPSG\",\"code\":\"32615\"},\"type\":\"LBC\"}";
+    private static final String EARLY_BOUND = "{\"lateBoundCRS\":{},\"authCode\":{\"auth\":\"EPSG\",\"code\":\"32615\"},\"type\":\"EBC\"}";
+
+    private final ICrsConverterService remote = mock(ICrsConverterService.class);
+    private final LocalCrsConverterService sut = new LocalCrsConverterService(remote);
+
+    // reference values from EPSG Guidance Note 7-2
+
+    @Test
+    public void should_matchEpsgExample_forTransverseMercator() {
+        double[] xy = project(27700, 0.5, 50.5);
+
+        assertEquals(577274.99, xy[0], 0.01);
+        assertEquals(69740.50, xy[1], 0.01);
+    }
+
+    @Test
+    public void should_matchEpsgExample_forLambertTwoParallels_inUsSurveyFeet() {
+        double[] xy = project(32040, -96, 28.5);
+
+        assertEquals(2963503.91, xy[0], 0.01);
+        assertEquals(254759.80, xy[1], 0.01);
+    }
+
+    @Test
+    public void should_matchEpsgExample_forLambertOneParallel() {
+        MapProjection jamaica = LambertConformalConic.oneParallel(Ellipsoid.CLARKE_1866, Math.toRadians(18),
+                Math.toRadians(-77), 1.0, 250000, 150000);
+        double[] x = {Math.toRadians(-(76 + 56 / 60.0 + 37.26 / 3600))};
+        double[] y = {Math.toRadians(17 + 55 / 60.0 + 55.80 / 3600)};
+
+        jamaica.forward(x, y, 1);
+
+        assertEquals(255966.58, x[0], 0.01);
+        assertEquals(142493.51, y[0], 0.01);
+    }
+
+    @Test
+    public void should_matchEpsgExample_forPositionVectorHelmert() {
+        Helmert wgs72 = new Helmert("WGS 72 to WGS 84", 0, 0, 4.5, 0, 0, 0.554, 0.219);
+        double[] x = {3657660.66};
+        double[] y = {255768.55};
+        double[] z = {5201382.11};
+
+        wgs72.toWgs84(x, y, z, 1);
+
+        assertEquals(3657660.78, x[0], 0.01);
+        assertEquals(255778.43, y[0], 0.01);
+        assertEquals(5201387.75, z[0], 0.01);
+
+        wgs72.fromWgs84(x, y, z, 1);
+
+        assertEquals(3657660.66, x[0], 1e-6);
+        assertEquals(255768.55, y[0], 1e-6);
+        assertEquals(5201382.11, z[0], 1e-6);
+    }
+
+    @Test
+    public void should_putCentralMeridianOnFalseEasting_forUtm() {
+        double[] xy = project(32631, 3, 45);
+
+        assertEquals(500000.0, xy[0], 1e-6);
+        // 0.9996 times the WGS 84 meridian arc to 45 degrees
+        assertEquals(4982950.40, xy[1], 0.01);
+    }
+
+    @Test
+    public void should_roundTrip_betweenProjectedAndGeographic() {
+        int[] codes = {32615, 32733, 26915, 26715, 23031, 25832, 27700, 2154, 3034, 32040};
+        double[][] lonLat = {{-93.5, 30.2}, {14.9, -22.5}, {-95.1, 44.0}, {-92.4, 35.0}, {1.2, 50.0}, {8.8, 52.0},
+                {-3.0, 53.0}, {2.35, 48.85}, {12.0, 48.0}, {-97.1, 29.5}};
+        for (int i = 0; i < codes.length; i++) {
+            String to = "EPSG:" + codes[i];
+            String from = "EPSG:" + geographicCodeOf(codes[i]);
+            double[] x = {lonLat[i][0]};
+            double[] y = {lonLat[i][1]};
+
+            assertTrue(to, sut.convertPoints(from, to, x, y, 1));
+            assertTrue(to, sut.convertPoints(to, from, x, y, 1));
+
+            assertEquals(to, lonLat[i][0], x[0], 1e-9);
+            assertEquals(to, lonLat[i][1], y[0], 1e-9);
+        }
+    }
+
+    @Test
+    public void should_shiftDatum_andRoundTrip() {
+        double[] x = {1.2};
+        double[] y = {50.0};
+
+        assertTrue(sut.convertPoints("EPSG:4230", "EPSG:4326", x, y, 1));
+        // ED50 sits roughly 100 m north-east of WGS 84 in western Europe
+        double shiftEast = Math.toRadians(x[0] - 1.2) * 6378137 * Math.cos(Math.toRadians(50));
+        double shiftNorth = Math.toRadians(y[0] - 50.0) * 6378137;
+        assertTrue(shiftEast < -50 && shiftEast > -150);
+        assertTrue(shiftNorth < -50 && shiftNorth > -150);
+
+        // heights are not carried between the two legs, which costs a few millimetres
+        assertTrue(sut.convertPoints("EPSG:4326", "EPSG:4230", x, y, 1));
+        assertEquals(1.2, x[0], 1e-7);
+        assertEquals(50.0, y[0], 1e-7);
+    }
+
+    @Test
+    public void should_convertRequest_andReportOperations() throws Exception {
+        List<Point> points = new ArrayList<>();
+        points.add(new Point(-93.0, 30.0, 12.0));
+        points.add(new Point());
+        ConvertPointsRequest request = new ConvertPointsRequest("EPSG:4267", LATE_BOUND_UTM_15N, points);
+
+        ConvertPointsResponse response = sut.convertPoints(request);
+
+        assertEquals(1, response.getSuccessCount().intValue());
+        assertEquals(500000.0, response.getPoints().get(0).getX(), 200);
+        assertEquals(12.0, response.getPoints().get(0).getZ(), 0.0);
+        assertFalse(Point.isValid(response.getPoints().get(1)));
+        assertEquals(Arrays.asList("transformation NAD27 to WGS 84 (4) [EPSG:1173]",
+                "conversion from WGS 84 to WGS 84 / UTM zone 15N"), response.getOperationsApplied());
+        verify(remote, never()).convertPoints(any());
+    }
+
+    @Test
+    public void should_useRemoteService_forUnknownOrEarlyBoundCrs() throws Exception {
+        ConvertPointsResponse remoteResponse = new ConvertPointsResponse();
+        when(remote.convertPoints(any())).thenReturn(remoteResponse);
+        List<Point> points = new ArrayList<>();
+        points.add(new Point(1.0, 2.0, 0.0));
+
+        assertSame(remoteResponse, sut.convertPoints(new ConvertPointsRequest("EPSG:4326", "EPSG:9999999", points)));
+        assertSame(remoteResponse, sut.convertPoints(new ConvertPointsRequest("EPSG:4326", EARLY_BOUND, points)));
+        assertFalse(sut.isSupported("EPSG:4326", "not a crs"));
+        assertTrue(sut.isSupported("urn:ogc:def:crs:EPSG::4326", "epsg:32615"));
+
+        sut.convertTrajectory(new ConvertTrajectoryRequest());
+        verify(remote).convertTrajectory(any());
+    }
+
+    @Test
+    public void should_reuseCachedPlan() {
+        assertSame(LocalCrsConverterService.getPlan("EPSG:4326", "EPSG:32615"),
+                LocalCrsConverterService.getPlan("EPSG:4326", "EPSG:32615"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_when_fallbackIsMissing() {
+        new LocalCrsConverterService(null);
+    }
+
+    private double[] project(int code, double lon, double lat) {
+        double[] x = {lon};
+        double[] y = {lat};
+        CrsDefinition crs = CrsRegistry.byEpsgCode(code);
+        new CrsTransformPlan(CrsDefinition.geographic("test", crs.ellipsoid, crs.toWgs84), crs).transform(x, y, 1);
+        return new double[]{x[0], y[0]};
+    }
+
+    private static int geographicCodeOf(int projected) {
+        if (projected / 100 == 326 || projected / 100 == 327) return 4326;
+        if (projected / 100 == 269) return 4269;
+        if (projected / 100 == 267 || projected == 32040) return 4267;
+        if (projected / 100 == 230) return 4230;
+        if (projected / 100 == 258 || projected == 3034) return 4258;
+        if (projected == 27700) return 4277;
+        return 4171;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConversionRecord;
+import org.opengroup.osdu.core.common.model.crs.ConvertStatus;
+import org.opengroup.osdu.core.common.model.units.IUnit;
+import org.opengroup.osdu.core.common.model.units.ReferenceConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UnitConversionImplTest {
+    private static final String DEG_F = "{\"scaleOffset\":{\"scale\":0.5555555555555556,\"offset\":-459.67},\"symbol\":\"degF\",\"baseMeasurement\":{\"ancestry\":\"Temperature\",\"type\":\"UM\"},\"type\":\"USO\"}";
+    private static final String FT = "{\"scaleOffset\":{\"scale\":0.3048,\"offset\":0.0},\"symbol\":\"ft\",\"baseMeasurement\":{\"ancestry\":\"Length\",\"type\":\"UM\"},\"type\":\"USO\"}";
+
+    private final UnitConversionImpl sut = new UnitConversionImpl();
+
+    @Test
+    public void should_convertEveryRecord_sharingReference() {
+        List<ConversionRecord> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(record(i));
+        }
+        String baseUnit = ReferenceConverter.parseUnitReference(FT).getBaseUnit();
+
+        sut.convertUnitsToSI(records);
+
+        for (int i = 0; i < records.size(); i++) {
+            ConversionRecord record = records.get(i);
+            JsonObject json = record.getRecordJsonObject();
+            assertEquals(ConvertStatus.SUCCESS, record.getConvertStatus());
+            assertEquals(0.3048 * i, json.getAsJsonObject("data").get("depth").getAsDouble(), 0.0);
+            assertEquals(baseUnit, json.getAsJsonArray("meta").get(0).getAsJsonObject().get("persistableReference").getAsString());
+        }
+    }
+
+    @Test
+    public void should_reportInvalidReference() {
+        ConversionRecord record = record(1);
+        record.getRecordJsonObject().getAsJsonArray("meta").get(0).getAsJsonObject()
+                .addProperty("persistableReference", "{broken}");
+        List<ConversionRecord> records = new ArrayList<>();
+        records.add(record);
+
+        sut.convertUnitsToSI(records);
+
+        assertEquals(ConvertStatus.ERROR, record.getConvertStatus());
+        assertTrue(record.getConversionMessages().contains(UnitConversionImpl.INVALID_REFERENCE));
+    }
+
+    @Test
+    public void should_convertValueBlocks() {
+        double[] values = {0.0, 1.0, 10.0};
+        double[] expected = values.clone();
+        IUnit unit = ReferenceConverter.parseUnitReference(FT);
+        unit.convertToSI(expected);
+
+        assertTrue(sut.convertValuesToSI(FT, values));
+        assertArrayEquals(expected, values, 0.0);
+
+        double[] untouched = {1.0};
+        assertFalse(sut.convertValuesToSI("{broken}", untouched));
+        assertEquals(1.0, untouched[0], 0.0);
+    }
+
+    @Test
+    public void should_convertMixedUnitsAcrossBatch_andKeepPropertyOrder() {
+        List<ConversionRecord> records = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ConversionRecord record = record(i);
+            JsonObject json = record.getRecordJsonObject();
+            json.getAsJsonObject("data").addProperty("temperature", 32.0 + i);
+            json.getAsJsonObject("data").addProperty("name", "well " + i);
+            JsonArray propertyNames = new JsonArray();
+            propertyNames.add("temperature");
+            JsonObject meta = new JsonObject();
+            meta.addProperty("kind", "Unit");
+            meta.add("propertyNames", propertyNames);
+            meta.addProperty("persistableReference", DEG_F);
+            json.getAsJsonArray("meta").add(meta);
+            records.add(record);
+        }
+        IUnit degF = ReferenceConverter.parseUnitReference(DEG_F);
+
+        sut.convertUnitsToSI(records);
+
+        for (int i = 0; i < records.size(); i++) {
+            JsonObject data = records.get(i).getRecordJsonObject().getAsJsonObject("data");
+            assertEquals(ConvertStatus.SUCCESS, records.get(i).getConvertStatus());
+            assertEquals(0.3048 * i, data.get("depth").getAsDouble(), 0.0);
+            assertEquals(degF.convertToSI(32.0 + i), data.get("temperature").getAsDouble(), 0.0);
+            assertEquals(Arrays.asList("depth", "temperature", "name"), new ArrayList<>(data.keySet()));
+        }
+    }
+
+    @Test
+    public void should_convertTwice_when_propertyIsListedTwice() {
+        ConversionRecord record = record(10);
+        record.getRecordJsonObject().getAsJsonArray("meta").get(0).getAsJsonObject()
+                .getAsJsonArray("propertyNames").add("depth");
+
+        sut.convertUnitsToSI(Collections.singletonList(record));
+
+        assertEquals(0.3048 * (0.3048 * 10), record.getRecordJsonObject().getAsJsonObject("data").get("depth").getAsDouble(), 0.0);
+    }
+
+    @Test
+    public void should_reportBadValues_andStillConvertOthers() {
+        ConversionRecord record = record(10);
+        JsonObject json = record.getRecordJsonObject();
+        json.getAsJsonObject("data").addProperty("bad", "abc");
+        JsonArray propertyNames = json.getAsJsonArray("meta").get(0).getAsJsonObject().getAsJsonArray("propertyNames");
+        propertyNames.add("bad");
+        propertyNames.add("missing");
+
+        sut.convertUnitsToSI(Collections.singletonList(record));
+
+        assertEquals(ConvertStatus.ERROR, record.getConvertStatus());
+        assertEquals(Arrays.asList(String.format(UnitConversionImpl.ILLEGAL_PROPERTY_VALUE, "bad"),
+                String.format(UnitConversionImpl.MISSING_PROPERTY, "missing"), UnitConversionImpl.UNIT_CONVERSION_FAILURE),
+                record.getConversionMessages());
+        assertEquals(0.3048 * 10, json.getAsJsonObject("data").get("depth").getAsDouble(), 0.0);
+        assertEquals(FT, json.getAsJsonArray("meta").get(0).getAsJsonObject().get("persistableReference").getAsString());
+    }
+
+    private static ConversionRecord record(int depth) {
+        JsonObject data = new JsonObject();
+        data.addProperty("depth", depth);
+        JsonArray propertyNames = new JsonArray();
+        propertyNames.add("depth");
+        JsonObject meta = new JsonObject();
+        meta.addProperty("kind", "Unit");
+        meta.add("propertyNames", propertyNames);
+        meta.addProperty("persistableReference", FT);
+        JsonArray metaArray = new JsonArray();
+        metaArray.add(meta);
+        JsonObject json = new JsonObject();
+        json.addProperty("id", "tenant:well:" + depth);
+        json.add("data", data);
+        json.add("meta", metaArray);
+        ConversionRecord record = new ConversionRecord();
+        record.setRecordJsonObject(json);
+        return record;
+    }
+}
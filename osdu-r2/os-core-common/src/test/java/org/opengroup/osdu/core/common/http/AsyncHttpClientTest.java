@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncHttpClientTest {
+
+    private static final byte[] RESPONSE = "{\"name\":\"test data\"}".getBytes(StandardCharsets.UTF_8);
+    private static final int DELAY_MILLIS = 200;
+
+    private HttpServer server;
+    private String url;
+    private AsyncHttpClient sut;
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(exchange.getRequestURI().getPath().startsWith("/slow") ? 5 * DELAY_MILLIS : DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.start();
+        url = String.format("http://localhost:%s", server.getAddress().getPort());
+        sut = new AsyncHttpClient(AsyncHttpClientConfig.builder().ioThreadCount(1).build());
+    }
+
+    @After
+    public void teardown() throws Exception {
+        sut.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void should_overlapCalls_when_fanningOutOnSingleIoThread() {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<HttpResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(sut.sendAsync(HttpRequest.get().url(url + "/test").build()));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+
+        for (CompletableFuture<HttpResponse> call : calls) {
+            assertEquals(200, call.join().getResponseCode());
+            assertEquals("{\"name\":\"test data\"}", call.join().getBody());
+        }
+        assertTrue(System.currentTimeMillis() - start < 20 * DELAY_MILLIS / 2);
+    }
+
+    @Test
+    public void should_parseBody_when_sendingWithResponseType() {
+        HttpResponse response = sut.send(HttpRequest.get().url(url + "/test").build(), ResponseTest.class);
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("test data", response.parseBody(ResponseTest.class).name);
+    }
+
+    @Test
+    public void should_reportTimeout_when_deadlineExceeded() {
+        HttpResponse response = sut.sendAsync(HttpRequest.get().url(url + "/slow").build(), null, DELAY_MILLIS).join();
+
+        assertTrue(response.hasException());
+        assertEquals(TimeoutException.class, response.getException().getClass());
+        assertFalse(response.isSuccessCode());
+    }
+
+    private class ResponseTest {
+        String name;
+    }
+}
@@ -20,6 +20,7 @@ package org.opengroup.osdu.core.common.http;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
+import org.apache.http.HttpVersion;
 import org.apache.http.client.ServiceUnavailableRetryStrategy;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
@@ -28,6 +29,8 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -48,6 +51,8 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
@@ -140,4 +145,24 @@ public class HttpClientHandlerTest {
             fail("Should not get different exception");
         }
     }
+
+    @Test
+    public void should_retryOnlyOverloadAndGatewayErrors_withBoundedBackoff() {
+        ServiceUnavailableRetryStrategy retryStrategy = HttpClientHandler.getRetryStrategy();
+
+        for (int status : new int[]{429, 502, 503, 504}) {
+            assertTrue(retryStrategy.retryRequest(response(status), 1, null));
+            assertTrue(retryStrategy.getRetryInterval() <= 200);
+        }
+        for (int status : new int[]{400, 500, 501}) {
+            assertFalse(retryStrategy.retryRequest(response(status), 1, null));
+        }
+        assertTrue(retryStrategy.retryRequest(response(503), 3, null));
+        assertTrue(retryStrategy.getRetryInterval() <= 800);
+        assertFalse(retryStrategy.retryRequest(response(503), 4, null));
+    }
+
+    private static org.apache.http.HttpResponse response(int status) {
+        return new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, status, null));
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpClientPoolTest {
+
+    private static final byte[] RESPONSE = "{\"name\":\"test data\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private String url;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.start();
+        url = String.format("http://localhost:%s/test", server.getAddress().getPort());
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void should_reuseSingleConnection_when_sendingSequentialRequests() throws Exception {
+        try (HttpClientPool sut = new HttpClientPool(HttpClientPoolConfig.Default(), null)) {
+            for (int i = 0; i < 20; i++) {
+                try (CloseableHttpResponse response = sut.getHttpClient().execute(new HttpGet(url))) {
+                    assertEquals(200, response.getStatusLine().getStatusCode());
+                    EntityUtils.consume(response.getEntity());
+                }
+            }
+
+            assertEquals(1, clientPorts.size());
+            assertEquals(0, sut.getLeasedConnections());
+            assertEquals(0, sut.getPendingConnections());
+            assertEquals(1, sut.getAvailableConnections());
+        }
+    }
+
+    @Test
+    public void should_capConnectionsPerRoute_when_configured() throws Exception {
+        HttpClientPoolConfig config = HttpClientPoolConfig.builder().maxConnectionsPerRoute(2).build();
+        try (HttpClientPool sut = new HttpClientPool(config, null)) {
+            CloseableHttpResponse first = sut.getHttpClient().execute(new HttpGet(url));
+            CloseableHttpResponse second = sut.getHttpClient().execute(new HttpGet(url));
+
+            assertEquals(2, sut.getLeasedConnections());
+
+            EntityUtils.consume(first.getEntity());
+            EntityUtils.consume(second.getEntity());
+            first.close();
+            second.close();
+
+            assertEquals(0, sut.getLeasedConnections());
+            assertEquals(2, sut.getAvailableConnections());
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.opengroup.osdu.core.common.http;
 
+import com.google.gson.JsonSyntaxException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -222,6 +223,42 @@ public class HttpClientTest {
         assertEquals("test data", response.parseBody(ResponseTest.class).name);
     }
 
+    @Test
+    public void should_parseBodyFromStream_when_sendingWithResponseType() throws Exception {
+
+        HttpRequest request = HttpRequest.get().url(URL).headers(HEADERS).build();
+        createMockHtppConnection(200, request);
+        HttpResponse response = this.sut.send(request, ResponseTest.class);
+
+        assertEquals("", response.getBody());
+        assertEquals("test data", response.parseBody(ResponseTest.class).name);
+    }
+
+    @Test
+    public void should_bufferErrorBody_when_sendingWithResponseTypeAndNon200Response() throws Exception {
+
+        HttpRequest request = HttpRequest.get().url(URL).headers(HEADERS).build();
+        createMockHtppConnection(404, request);
+        HttpResponse response = this.sut.send(request, ResponseTest.class);
+
+        assertEquals("{\"name\":\"test data\"}", response.getBody());
+        assertEquals(404, response.getResponseCode());
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void should_throwFromParseBody_when_streamedBodyIsInvalidJson() throws Exception {
+
+        HttpRequest request = HttpRequest.get().url(URL).headers(HEADERS).build();
+        HttpURLConnection connection = getHttpURLConnection(200);
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream("{\"name\":".getBytes()));
+        when(this.sut.createConnection(request)).thenReturn(connection);
+
+        HttpResponse response = this.sut.send(request, ResponseTest.class);
+
+        assertTrue(response.hasException());
+        response.parseBody(ResponseTest.class);
+    }
+
     private void createMockHtppConnection(int returnCode, HttpRequest request) throws IOException {
         HttpURLConnection connection = getHttpURLConnection(returnCode);
         when(this.sut.createConnection(request)).thenReturn(connection);
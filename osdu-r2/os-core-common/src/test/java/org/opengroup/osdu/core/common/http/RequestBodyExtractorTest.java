@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.search.RecordChangedMessages;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestBodyExtractorTest {
+
+    private static final String ATTRIBUTES = "\"attributes\":{\"account-id\":\"tenant1\",\"Correlation-Id\":\"c1\"}";
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+    @InjectMocks
+    private RequestBodyExtractor sut;
+
+    @Test
+    public void should_decodeAttributesAndData_when_validPushMessage() throws Exception {
+        String data = "[{\"id\":\"tenant1:doc:1\",\"kind\":\"tenant1:ds:doc:1.0.0\",\"op\":\"create\",\"name\":\"café\"}]";
+        givenBody("{\"subscription\":\"projects/p/subscriptions/s\",\"message\":{" + ATTRIBUTES
+                + ",\"data\":\"" + base64(data) + "\",\"messageId\":\"m1\",\"publishTime\":\"2020-01-01T00:00:00Z\","
+                + "\"unknown\":{\"nested\":[1,2,3]}}}");
+
+        Map<String, String> attributes = this.sut.extractAttributesFromRequestBody();
+        assertEquals("tenant1", attributes.get("account-id"));
+        assertEquals("c1", attributes.get("correlation-id"));
+        assertEquals(data, this.sut.extractDataFromRequestBody());
+
+        PubSubPushMessage message = this.sut.extractPushMessageFromRequestBody();
+        assertEquals("m1", message.getMessageId());
+        assertEquals("2020-01-01T00:00:00Z", message.getPublishTime());
+        try (Reader reader = message.getDataAsReader()) {
+            assertEquals(data, CharStreams.toString(reader));
+        }
+        RecordChangedMessages recordChangedMessages = message.toRecordChangedMessages();
+        assertEquals(data, recordChangedMessages.getData());
+        assertEquals("tenant1", recordChangedMessages.getAttributes().get("account-id"));
+
+        verify(this.httpServletRequest, times(1)).getInputStream();
+    }
+
+    @Test
+    public void should_acceptUnpaddedBase64() {
+        givenBody("{\"message\":{" + ATTRIBUTES + ",\"data\":\"eyJkYXRhIjoiMSJ9\"}}");
+        assertEquals("{\"data\":\"1\"}", this.sut.extractDataFromRequestBody());
+
+        for (String data : Arrays.asList("a", "ab", "abcd", "abcde")) {
+            String unpadded = base64(data).replace("=", "");
+            assertArrayEquals(data.getBytes(StandardCharsets.UTF_8), decodeData(unpadded));
+        }
+    }
+
+    @Test
+    public void should_decodeLargePayloads() {
+        for (int size : new int[]{1 << 20, 10 << 20}) {
+            byte[] payload = new byte[size];
+            for (int i = 0; i < size; i++) {
+                payload[i] = (byte) ('a' + i % 26);
+            }
+            byte[] decoded = decodeData(Base64.getEncoder().encodeToString(payload));
+            assertArrayEquals(payload, decoded);
+        }
+    }
+
+    @Test
+    public void should_throw400_when_bodyIsNotJsonObject() {
+        assertBadRequest("[1,2]", "RequestBody is not JsonObject.");
+    }
+
+    @Test
+    public void should_throw400_when_messageMissing() {
+        assertBadRequest("{\"subscription\":\"s\"}", "message object not found");
+    }
+
+    @Test
+    public void should_throw400_when_attributesMissingOrEmpty() {
+        assertBadRequest("{\"message\":{\"data\":\"e30=\"}}", "attribute map not found");
+        assertBadRequest("{\"message\":{\"attributes\":{},\"data\":\"e30=\"}}", "attribute map not found");
+    }
+
+    @Test
+    public void should_throw400_when_noTenantAttribute() {
+        assertBadRequest("{\"message\":{\"attributes\":{\"correlation-id\":\"c1\"},\"data\":\"e30=\"}}",
+                "No tenant information from pubsub message.");
+    }
+
+    @Test
+    public void should_throw400_when_dataIsNotBase64() {
+        assertBadRequest("{\"message\":{" + ATTRIBUTES + ",\"data\":\"not*base64\"}}", "message data is not valid Base64");
+    }
+
+    @Test
+    public void should_throw400_when_bodyIsMalformedJson() {
+        assertBadRequest("{\"message\":{" + ATTRIBUTES, "Unable to parse request payload.");
+    }
+
+    @Test
+    public void should_cacheMessage_acrossCalls() throws Exception {
+        givenBody("{\"message\":{" + ATTRIBUTES + ",\"data\":\"e30=\"}}");
+        PubSubPushMessage message = this.sut.extractPushMessageFromRequestBody();
+        assertSame(message, this.sut.extractPushMessageFromRequestBody());
+        assertEquals("{}", this.sut.extractDataFromRequestBody());
+        verify(this.httpServletRequest, times(1)).getInputStream();
+    }
+
+    private byte[] decodeData(String base64) {
+        try {
+            PubSubPushMessage message = new PubSubPushMessageDecoder().decode(new ByteArrayInputStream(
+                    ("{\"message\":{" + ATTRIBUTES + ",\"data\":\"" + base64 + "\"}}").getBytes(StandardCharsets.UTF_8)));
+            return ByteStreams.toByteArray(message.getDataAsStream());
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void assertBadRequest(String body, String expectedMessage) {
+        try {
+            new PubSubPushMessageDecoder().decode(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            fail("Should throw exception");
+        } catch (AppException e) {
+            assertEquals(400, e.getError().getCode());
+            assertTrue(e.getError().getReason().equals(expectedMessage) || e.getError().getMessage().equals(expectedMessage));
+        } catch (Exception e) {
+            fail("Should not throw this exception " + e.getMessage());
+        }
+    }
+
+    private void givenBody(String body) {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        try {
+            when(this.httpServletRequest.getInputStream()).thenReturn(new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return bytes.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                }
+
+                @Override
+                public int read() {
+                    return bytes.read();
+                }
+            });
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String base64(String data) {
+        return Base64.getEncoder().encodeToString(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
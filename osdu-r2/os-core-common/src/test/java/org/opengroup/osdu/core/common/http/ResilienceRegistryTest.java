@@ -0,0 +1,385 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResilienceRegistryTest {
+
+    private static final byte[] RESPONSE = "{\"name\":\"test data\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String DEPENDENCY = "stub";
+
+    /**
+     * Faults served in order, as {status, millis the clock advances}; a healthy answer once exhausted.
+     * A negative delay holds the answer until the next request reaches the server.
+     */
+    private final Queue<int[]> faults = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch secondHit = new CountDownLatch(1);
+    private final AtomicLong clock = new AtomicLong();
+    private HttpServer server;
+    private String url;
+    private ResilienceRegistry sut;
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            if (hits.incrementAndGet() == 2) {
+                secondHit.countDown();
+            }
+            int[] fault = faults.poll();
+            int status = fault == null ? 200 : fault[0];
+            if (fault != null && fault[1] < 0) {
+                try {
+                    secondHit.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if (fault != null) {
+                advance(fault[1]);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.start();
+        url = String.format("http://localhost:%s/api", server.getAddress().getPort());
+    }
+
+    @After
+    public void teardown() {
+        if (sut != null) {
+            sut.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void should_retryGatewayErrors_withBackoff() {
+        IHttpClient client = client(policy().build());
+        fault(503, 0);
+        fault(502, 0);
+
+        HttpResponse response = client.send(HttpRequest.get().url(url).build());
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals(3, hits.get());
+        assertEquals(2, sut.getMetrics().get(DEPENDENCY).getRetries());
+    }
+
+    @Test
+    public void should_notRetry_when_notIdempotentOrNotRetryable() {
+        IHttpClient client = client(policy().build());
+        fault(503, 0);
+        assertEquals(503, client.send(HttpRequest.post().url(url).body("{}").build()).getResponseCode());
+        fault(500, 0);
+        assertEquals(500, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void should_retryPost_onlyWhen_requestIsMarkedIdempotent() {
+        IHttpClient client = client(policy().build());
+        fault(503, 0);
+
+        assertEquals(200, client.send(HttpRequest.post().url(url).body("{}").idempotent(true).build()).getResponseCode());
+        assertEquals(2, hits.get());
+        fault(503, 0);
+        assertEquals(503, client.send(HttpRequest.post().url(url).body("{}").build()).getResponseCode());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    public void should_stopRetrying_when_budgetIsSpent() {
+        IHttpClient client = client(policy().retryBudgetMaxTokens(1).retryBudgetRatio(0).build());
+        for (int i = 0; i < 4; i++) {
+            fault(503, 0);
+        }
+
+        assertEquals(503, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+        assertEquals(503, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+
+        assertEquals(3, hits.get());
+        ResilienceMetrics metrics = sut.getMetrics().get(DEPENDENCY);
+        assertEquals(1, metrics.getRetries());
+        assertEquals(2, metrics.getRetriesDeniedByBudget());
+    }
+
+    @Test
+    public void should_openBreaker_onErrorRate_andCloseAfterTrialCalls() {
+        IHttpClient client = client(policy().maxAttempts(1).breakerMinimumCalls(4).breakerWindowSize(4)
+                .breakerOpenMillis(200).breakerHalfOpenCalls(2).build());
+        fault(500, 0);
+        fault(500, 0);
+        client.send(HttpRequest.get().url(url).build());
+        client.send(HttpRequest.get().url(url).build());
+        client.send(HttpRequest.get().url(url).build());
+        client.send(HttpRequest.get().url(url).build());
+        assertEquals(CircuitBreaker.State.OPEN, sut.getCircuitBreaker(DEPENDENCY).getState());
+
+        HttpResponse rejected = client.send(HttpRequest.get().url(url).build());
+        assertEquals(503, rejected.getResponseCode());
+        assertTrue(rejected.getException() instanceof CircuitBreakerOpenException);
+        assertEquals(4, hits.get());
+
+        advance(250);
+        assertEquals(200, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, sut.getCircuitBreaker(DEPENDENCY).getState());
+        assertEquals(200, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+        assertEquals(CircuitBreaker.State.CLOSED, sut.getCircuitBreaker(DEPENDENCY).getState());
+
+        ResilienceMetrics metrics = sut.getMetrics().get(DEPENDENCY);
+        assertEquals(1, metrics.getBreakerOpenedCount());
+        assertEquals(1, metrics.getRejectedCalls());
+    }
+
+    @Test
+    public void should_openBreaker_onSlowCalls_andReopen_when_trialFails() {
+        IHttpClient client = client(policy().maxAttempts(1).breakerMinimumCalls(2).breakerWindowSize(2)
+                .breakerSlowCallMillis(100).breakerSlowCallRateThreshold(1.0).breakerOpenMillis(100).build());
+        fault(200, 150);
+        fault(200, 150);
+        client.send(HttpRequest.get().url(url).build());
+        client.send(HttpRequest.get().url(url).build());
+        assertEquals(CircuitBreaker.State.OPEN, sut.getCircuitBreaker(DEPENDENCY).getState());
+
+        advance(150);
+        fault(503, 0);
+        client.send(HttpRequest.get().url(url).build());
+        assertEquals(CircuitBreaker.State.OPEN, sut.getCircuitBreaker(DEPENDENCY).getState());
+        assertEquals(2, sut.getMetrics().get(DEPENDENCY).getBreakerOpenedCount());
+    }
+
+    @Test
+    public void should_hedgeSlowGet_andKeepFirstAnswer() {
+        IHttpClient client = client(policy().hedgeAfterMillis(50).build());
+        fault(503, -1);
+
+        HttpResponse response = client.send(HttpRequest.get().url(url).build());
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals(2, hits.get());
+        assertEquals(1, sut.getMetrics().get(DEPENDENCY).getHedgedRequests());
+    }
+
+    @Test
+    public void should_skipHedge_when_hedgeBudgetIsSpent() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        IHttpClient client = client(policy().hedgeAfterMillis(20).hedgeBudgetMaxTokens(1).hedgeBudgetRatio(0).build(),
+                request -> {
+                    calls.incrementAndGet();
+                    try {
+                        // the first call of a request stalls so that a hedge is due; a hedge answers at once
+                        if (inFlight.incrementAndGet() == 1) {
+                            new CountDownLatch(1).await(200, TimeUnit.MILLISECONDS);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                    return ok();
+                });
+
+        assertEquals(200, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+        assertEquals(200, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+
+        assertEquals(3, calls.get());
+        ResilienceMetrics metrics = sut.getMetrics().get(DEPENDENCY);
+        assertEquals(1, metrics.getHedgedRequests());
+        assertEquals(1, metrics.getHedgesSkipped());
+    }
+
+    @Test
+    public void should_sendOnCallerThread_when_hedgingThreadsAreBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> sender = new AtomicReference<>();
+        sut = new ResilienceRegistry(ResilienceConfig.builder().maxHedgingThreads(1)
+                .defaultPolicy(policy().hedgeAfterMillis(10_000).build()).build(), clock::get);
+        IHttpClient client = sut.wrap(DEPENDENCY, request -> {
+            if (started.getCount() > 0) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                sender.set(Thread.currentThread());
+            }
+            return ok();
+        });
+        Thread busy = new Thread(() -> client.send(HttpRequest.get().url(url).build()));
+        busy.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(200, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+        assertSame(Thread.currentThread(), sender.get());
+
+        release.countDown();
+        busy.join(5000);
+        assertEquals(1, sut.getMetrics().get(DEPENDENCY).getHedgesSkipped());
+    }
+
+    @Test
+    public void should_releaseHalfOpenPermit_when_clientThrows() {
+        AtomicInteger calls = new AtomicInteger();
+        IHttpClient client = client(policy().maxAttempts(1).breakerMinimumCalls(1).breakerWindowSize(1)
+                .breakerOpenMillis(100).breakerHalfOpenCalls(1).build(), request -> {
+            switch (calls.incrementAndGet()) {
+                case 1:
+                    HttpResponse response = ok();
+                    response.setResponseCode(500);
+                    return response;
+                case 2:
+                    throw new IllegalStateException("connection reset");
+                default:
+                    return ok();
+            }
+        });
+        client.send(HttpRequest.get().url(url).build());
+        assertEquals(CircuitBreaker.State.OPEN, sut.getCircuitBreaker(DEPENDENCY).getState());
+
+        advance(150);
+        try {
+            client.send(HttpRequest.get().url(url).build());
+        } catch (IllegalStateException expected) {
+            // the trial call fails with the client's exception
+        }
+        assertEquals(CircuitBreaker.State.OPEN, sut.getCircuitBreaker(DEPENDENCY).getState());
+
+        advance(150);
+        assertEquals(200, client.send(HttpRequest.get().url(url).build()).getResponseCode());
+        assertEquals(CircuitBreaker.State.CLOSED, sut.getCircuitBreaker(DEPENDENCY).getState());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void should_streamThroughDelegate_andRetryBeforeBodyIsRead() {
+        IHttpClient client = client(policy().build());
+        fault(503, 0);
+        AtomicReference<String> body = new AtomicReference<>();
+
+        HttpResponse response = client.stream(HttpRequest.get().url(url).build(),
+                in -> body.set(new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8)));
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals(2, hits.get());
+        assertEquals(new String(RESPONSE, StandardCharsets.UTF_8), body.get());
+        // the delegate streamed it; the buffering fallback would have kept the body
+        assertEquals("", response.getBody());
+    }
+
+    @Test
+    public void should_notRetryStream_when_readerHasSeenBody() {
+        IHttpClient client = client(policy().build());
+        AtomicInteger reads = new AtomicInteger();
+
+        HttpResponse response = client.stream(HttpRequest.get().url(url).build(), in -> {
+            reads.incrementAndGet();
+            throw new IOException("truncated");
+        });
+
+        assertTrue(response.getException() instanceof IOException);
+        assertEquals(1, reads.get());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    public void should_stayAsync_andRetryOnScheduler() throws Exception {
+        try (AsyncHttpClient async = new AsyncHttpClient(AsyncHttpClientConfig.builder().ioThreadCount(1).build())) {
+            IHttpClient client = client(policy().build(), async);
+            fault(503, 0);
+
+            assertTrue(client instanceof IAsyncHttpClient);
+            HttpResponse response = ((IAsyncHttpClient) client)
+                    .sendAsync(HttpRequest.get().url(url).build()).get(5, TimeUnit.SECONDS);
+
+            assertEquals(200, response.getResponseCode());
+            assertEquals(2, hits.get());
+            ResilienceMetrics metrics = sut.getMetrics().get(DEPENDENCY);
+            assertEquals(1, metrics.getRetries());
+        }
+    }
+
+    @Test
+    public void should_usePerDependencyPolicies() {
+        ResilienceConfig config = ResilienceConfig.builder()
+                .legal(ResiliencePolicy.builder().maxAttempts(5).build())
+                .build();
+
+        assertEquals(5, config.getPolicy(ResilienceConfig.LEGAL).getMaxAttempts());
+        assertEquals(30000, config.getPolicy(ResilienceConfig.CRS).getBreakerSlowCallMillis());
+        assertEquals(ResiliencePolicy.Default(), config.getPolicy("other"));
+    }
+
+    private IHttpClient client(ResiliencePolicy policy) {
+        return client(policy, new HttpClient());
+    }
+
+    private IHttpClient client(ResiliencePolicy policy, IHttpClient delegate) {
+        sut = new ResilienceRegistry(ResilienceConfig.builder().defaultPolicy(policy).build(), clock::get);
+        return sut.wrap(DEPENDENCY, delegate);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static HttpResponse ok() {
+        HttpResponse response = new HttpResponse();
+        response.setResponseCode(200);
+        return response;
+    }
+
+    private static ResiliencePolicy.ResiliencePolicyBuilder policy() {
+        return ResiliencePolicy.builder().initialBackoffMillis(1).maxBackoffMillis(5);
+    }
+
+    private void fault(int status, int delayMillis) {
+        faults.add(new int[]{status, delayMillis});
+    }
+}
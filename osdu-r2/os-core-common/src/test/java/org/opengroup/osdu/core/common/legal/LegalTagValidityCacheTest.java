@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.legal;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.cache.InMemoryInvalidationChannel;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LegalTagValidityCacheTest {
+
+    private final LegalTagValidityCache sut = new LegalTagValidityCache();
+    private final List<Set<String>> loaded = new ArrayList<>();
+
+    @Test
+    public void should_loadOnlyUnknownTags() {
+        assertNames(this.sut.getInvalidLegalTags("tenant1", tags("a", "bad1"), this::load), "bad1");
+        assertNames(this.sut.getInvalidLegalTags("tenant1", tags("a", "b", "bad1", "bad2"), this::load), "bad1", "bad2");
+        assertNames(this.sut.getInvalidLegalTags("tenant1", tags("b", "bad2"), this::load), "bad2");
+
+        assertEquals(Arrays.asList(new HashSet<>(tags("a", "bad1")), new HashSet<>(tags("b", "bad2"))), this.loaded);
+        assertEquals(2, this.sut.getLoadCount());
+        assertEquals(4, this.sut.getHitCount());
+        assertEquals(4, this.sut.getMissCount());
+    }
+
+    @Test
+    public void should_keepPartitionsApart() {
+        this.sut.getInvalidLegalTags("tenant1", tags("a"), this::load);
+        this.sut.getInvalidLegalTags("tenant2", tags("a"), this::load);
+
+        assertEquals(2, this.loaded.size());
+    }
+
+    @Test
+    public void should_reloadChangedTags_when_complianceChangeArrives() {
+        this.sut.getInvalidLegalTags("tenant1", tags("a", "b"), this::load);
+
+        this.sut.invalidate("tenant1", changes("a"));
+        this.sut.getInvalidLegalTags("tenant1", tags("a", "b"), this::load);
+
+        assertEquals(new HashSet<>(tags("a")), this.loaded.get(1));
+    }
+
+    @Test
+    public void should_notCacheAnswer_when_invalidatedWhileLoading() {
+        this.sut.getInvalidLegalTags("tenant1", tags("a"), names -> {
+            this.sut.invalidate("tenant1", changes("a"));
+            return this.load(names);
+        });
+        this.sut.getInvalidLegalTags("tenant1", tags("a"), this::load);
+
+        // the answer that raced with the change was not cached, so Legal is asked again
+        assertEquals(2, this.loaded.size());
+        assertEquals(2, this.sut.getLoadCount());
+    }
+
+    @Test
+    public void should_notCacheAnswer_when_partitionInvalidatedWhileLoading() {
+        this.sut.getInvalidLegalTags("tenant1", tags("a"), this::load);
+        this.sut.getInvalidLegalTags("tenant1", tags("b"), names -> {
+            this.sut.invalidatePartition("tenant1");
+            return load(names);
+        });
+
+        this.sut.getInvalidLegalTags("tenant1", tags("a", "b"), this::load);
+
+        assertEquals(new HashSet<>(tags("a", "b")), this.loaded.get(2));
+    }
+
+    @Test
+    public void should_dropStatusesOnOtherNodes_when_invalidated() {
+        InMemoryInvalidationChannel channel = new InMemoryInvalidationChannel();
+        LegalTagValidityCache node1 = new LegalTagValidityCache(LegalTagCacheConfig.Default(), channel);
+        LegalTagValidityCache node2 = new LegalTagValidityCache(LegalTagCacheConfig.Default(), channel);
+        node1.getInvalidLegalTags("tenant1", tags("a", "b"), this::load);
+        node2.getInvalidLegalTags("tenant1", tags("a", "b"), this::load);
+        node2.getInvalidLegalTags("tenant2", tags("a"), this::load);
+
+        node1.invalidate("tenant1", changes("a"));
+        assertEquals(tags("a"), new ArrayList<>(node2.lookup("tenant1", tags("a", "b")).getUnknown()));
+
+        node1.invalidatePartition("tenant1");
+        assertEquals(tags("a", "b"), new ArrayList<>(node2.lookup("tenant1", tags("a", "b")).getUnknown()));
+        assertTrue(node2.lookup("tenant2", tags("a")).isComplete());
+
+        node1.invalidateAll();
+        assertEquals(tags("a"), new ArrayList<>(node2.lookup("tenant2", tags("a")).getUnknown()));
+    }
+
+    @Test
+    public void should_stopListening_when_closed() {
+        InMemoryInvalidationChannel channel = new InMemoryInvalidationChannel();
+        LegalTagValidityCache node1 = new LegalTagValidityCache(LegalTagCacheConfig.Default(), channel);
+        LegalTagValidityCache node2 = new LegalTagValidityCache(LegalTagCacheConfig.Default(), channel);
+        node2.getInvalidLegalTags("tenant1", tags("a"), this::load);
+
+        node2.close();
+        node1.invalidateAll();
+
+        assertTrue(node2.lookup("tenant1", tags("a")).isComplete());
+    }
+
+    @Test
+    public void should_expireEntries() throws Exception {
+        LegalTagValidityCache cache = new LegalTagValidityCache(LegalTagCacheConfig.builder().expirySeconds(0).build());
+        cache.getInvalidLegalTags("tenant1", tags("a"), this::load);
+        cache.getInvalidLegalTags("tenant1", tags("a"), this::load);
+
+        assertEquals(2, this.loaded.size());
+    }
+
+    @Test
+    public void should_callLegalOncePerNewTag_acrossIngestionRun() {
+        ILegalService legalService = mock(ILegalService.class);
+        when(legalService.getInvalidLegalTags(any())).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Set<String> names = (Set<String>) invocation.getArguments()[0];
+            return load(names);
+        });
+        CachingLegalService cachingLegalService = new CachingLegalService(legalService, this.sut, headers("tenant1"));
+
+        int records = 10_000;
+        int invalidRecords = 0;
+        for (int i = 0; i < records; i++) {
+            Set<String> recordTags = new HashSet<>(tags("tenant1-tag" + i % 20, i % 100 == 0 ? "bad-tag" + i % 3 : "tenant1-common"));
+            invalidRecords += cachingLegalService.getInvalidLegalTags(recordTags).length > 0 ? 1 : 0;
+        }
+
+        // without the cache every record would have been one call to Legal
+        verify(legalService, times((int) this.sut.getLoadCount())).getInvalidLegalTags(any());
+        assertTrue("legal calls: " + this.sut.getLoadCount(), this.sut.getLoadCount() <= 23);
+        assertEquals(100, invalidRecords);
+        assertEquals(24, this.sut.getMissCount());
+    }
+
+    @Test
+    public void should_onlyCacheSuccessfulValidation() {
+        ILegalService legalService = mock(ILegalService.class);
+        CachingLegalService cachingLegalService = new CachingLegalService(legalService, this.sut, headers("tenant1"));
+
+        cachingLegalService.validateLegalTags(new HashSet<>(tags("a", "b")));
+        cachingLegalService.validateLegalTags(new HashSet<>(tags("a", "b")));
+        verify(legalService, times(1)).validateLegalTags(any());
+
+        doThrow(new IllegalStateException("invalid")).when(legalService).validateLegalTags(any());
+        for (int i = 0; i < 2; i++) {
+            try {
+                cachingLegalService.validateLegalTags(new HashSet<>(tags("a", "bad1")));
+            } catch (IllegalStateException expected) {
+                // reported by the delegate
+            }
+        }
+        verify(legalService, times(3)).validateLegalTags(any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_when_partitionIsEmpty() {
+        this.sut.lookup("", tags("a"));
+    }
+
+    private InvalidTagWithReason[] load(Set<String> names) {
+        this.loaded.add(new HashSet<>(names));
+        List<InvalidTagWithReason> invalid = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith("bad")) {
+                InvalidTagWithReason tag = new InvalidTagWithReason();
+                tag.setName(name);
+                tag.setReason("Expired");
+                invalid.add(tag);
+            }
+        }
+        return invalid.toArray(new InvalidTagWithReason[0]);
+    }
+
+    private static void assertNames(InvalidTagWithReason[] invalid, String... expected) {
+        Set<String> names = new HashSet<>();
+        for (InvalidTagWithReason tag : invalid) {
+            names.add(tag.getName());
+            assertEquals("Expired", tag.getReason());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(expected)), names);
+    }
+
+    private static List<String> tags(String... names) {
+        return Arrays.asList(names);
+    }
+
+    private static LegalTagChangedCollection changes(String... names) {
+        LegalTagChangedCollection changes = new LegalTagChangedCollection();
+        for (String name : names) {
+            LegalTagChanged change = new LegalTagChanged();
+            change.setChangedTagName(name);
+            change.setChangedTagStatus("incompliant");
+            changes.getStatusChangedTags().add(change);
+        }
+        return changes;
+    }
+
+    private static DpsHeaders headers(String partition) {
+        DpsHeaders headers = new DpsHeaders();
+        headers.put(DpsHeaders.DATA_PARTITION_ID, partition);
+        return headers;
+    }
+}
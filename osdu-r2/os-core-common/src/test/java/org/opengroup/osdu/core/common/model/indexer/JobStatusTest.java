@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.indexer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Stack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class JobStatusTest {
+
+    private JobStatus sut;
+
+    @Before
+    public void setup() {
+        this.sut = new JobStatus();
+        this.sut.setJaxRsDpsLog(mock(JaxRsDpsLog.class));
+        this.sut.initialize(Arrays.asList(
+                new RecordInfo("tenant:doc:1", "tenant:wks:well:1.0.0", "create"),
+                new RecordInfo("tenant:doc:2", "tenant:wks:well:1.0.0", "update"),
+                new RecordInfo("tenant:doc:3", "tenant:wks:log:1.0.0", "delete"),
+                new RecordInfo("tenant:doc:4", "tenant:wks:log:1.0.0", "create")));
+    }
+
+    @Test
+    public void should_findRecords_ignoringCase() {
+        assertEquals("tenant:wks:log:1.0.0", this.sut.getRecordKindById("TENANT:DOC:3"));
+        assertSame(this.sut.getStatusesList().get(1), this.sut.getJobStatusByRecordId("Tenant:Doc:2"));
+        assertNull(this.sut.getRecordKindById("tenant:doc:5"));
+    }
+
+    @Test
+    public void should_onlyMakeStatusWorse_andKeepListOrder() {
+        this.sut.addOrUpdateRecordStatus(Arrays.asList("tenant:doc:4", "TENANT:DOC:1"), IndexingStatus.SUCCESS, 200, "indexed");
+        this.sut.addOrUpdateRecordStatus("tenant:doc:4", IndexingStatus.FAIL, 400, "bad mapping");
+        this.sut.addOrUpdateRecordStatus("tenant:doc:4", IndexingStatus.WARN, 200, null);
+
+        assertEquals(Arrays.asList("tenant:doc:2", "tenant:doc:3"), this.sut.getIdsByIndexingStatus(IndexingStatus.PROCESSING));
+        assertEquals(Collections.singletonList("tenant:doc:1"), this.sut.getIdsByIndexingStatus(IndexingStatus.SUCCESS));
+        RecordStatus status = this.sut.getJobStatusByRecordId("tenant:doc:4");
+        assertEquals(IndexingStatus.FAIL, status.getStatus());
+        assertEquals(200, status.getIndexProgress().getStatusCode());
+        assertEquals("bad mapping", status.getLatestTrace());
+    }
+
+    @Test
+    public void should_addUnknownRecord() {
+        this.sut.addOrUpdateRecordStatus("tenant:doc:9", IndexingStatus.SKIP, 404, "not found", "debug");
+
+        assertEquals(5, this.sut.getStatusesList().size());
+        assertEquals(Collections.singletonList("tenant:doc:9"), this.sut.getIdsByIndexingStatus(IndexingStatus.SKIP));
+        assertEquals(Collections.singletonList("debug"), this.sut.getDebugInfos());
+    }
+
+    @Test
+    public void should_filterByStatusAndOperationType() {
+        this.sut.addOrUpdateRecordStatus("tenant:doc:1", IndexingStatus.SUCCESS, 200, null);
+
+        List<RecordStatus> created = this.sut.getRecordStatuses(IndexingStatus.PROCESSING, OperationType.create);
+
+        assertEquals(1, created.size());
+        assertEquals("tenant:doc:4", created.get(0).getId());
+        assertTrue(this.sut.getRecordStatuses(IndexingStatus.FAIL, OperationType.purge).isEmpty());
+    }
+
+    @Test
+    public void should_failUnprocessedRecords_onFinalize() {
+        this.sut.addOrUpdateRecordStatus("tenant:doc:2", IndexingStatus.SUCCESS, 200, null);
+
+        this.sut.finalizeRecordStatus("timed out");
+
+        assertTrue(this.sut.getIdsByIndexingStatus(IndexingStatus.PROCESSING).isEmpty());
+        assertEquals(Arrays.asList("tenant:doc:1", "tenant:doc:3", "tenant:doc:4"),
+                this.sut.getIdsByIndexingStatus(IndexingStatus.FAIL));
+        assertEquals("timed out", this.sut.getJobStatusByRecordId("tenant:doc:3").getLatestTrace());
+    }
+
+    @Test
+    public void should_pickUpRecords_addedToListDirectly() {
+        this.sut.getStatusesList().add(RecordStatus.builder().id("tenant:doc:7").kind("k").operationType("purge")
+                .status(IndexingStatus.WARN).indexProgress(IndexProgress.builder().trace(new Stack<>()).build()).build());
+
+        assertEquals("k", this.sut.getRecordKindById("TENANT:DOC:7"));
+        assertEquals(1, this.sut.getRecordStatuses(IndexingStatus.WARN, OperationType.purge).size());
+
+        this.sut.setStatusesList(new ArrayList<>());
+        assertNull(this.sut.getJobStatusByRecordId("tenant:doc:1"));
+        assertTrue(this.sut.getIdsByIndexingStatus(IndexingStatus.PROCESSING).isEmpty());
+    }
+
+    @Test
+    public void should_reportCurrentStatus_when_recordIsChangedDirectly() {
+        RecordStatus record = this.sut.getJobStatusByRecordId("tenant:doc:1");
+        record.setStatus(IndexingStatus.SUCCESS);
+        record.setOperationType("update");
+
+        assertEquals(Arrays.asList("tenant:doc:2", "tenant:doc:3", "tenant:doc:4"),
+                this.sut.getIdsByIndexingStatus(IndexingStatus.PROCESSING));
+        assertEquals(1, this.sut.getRecordStatuses(IndexingStatus.SUCCESS, OperationType.update).size());
+        assertTrue(this.sut.getRecordStatuses(IndexingStatus.PROCESSING, OperationType.create).stream()
+                .noneMatch(status -> status == record));
+    }
+
+    @Test
+    public void should_updateLargeBatch() {
+        List<RecordInfo> records = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            records.add(new RecordInfo("tenant:batch:" + i, "tenant:wks:well:1.0.0", "create"));
+            ids.add("TENANT:BATCH:" + i);
+        }
+        this.sut.initialize(records);
+
+        this.sut.addOrUpdateRecordStatus(ids, IndexingStatus.SUCCESS, 200, "indexed");
+
+        assertEquals(50_000, this.sut.getRecordStatuses(IndexingStatus.SUCCESS, OperationType.create).size());
+        assertEquals(4, this.sut.getIdsByIndexingStatus(IndexingStatus.PROCESSING).size());
+    }
+
+    @Test
+    public void should_capTrace() {
+        for (int i = 0; i < IndexProgress.MAX_TRACE_SIZE + 10; i++) {
+            this.sut.addOrUpdateRecordStatus("tenant:doc:1", IndexingStatus.WARN, 200, "retry " + i);
+        }
+
+        Stack<String> trace = this.sut.getJobStatusByRecordId("tenant:doc:1").getIndexProgress().getTrace();
+        assertEquals(IndexProgress.MAX_TRACE_SIZE, trace.size());
+        assertEquals("retry 10", trace.firstElement());
+        assertEquals("retry " + (IndexProgress.MAX_TRACE_SIZE + 9), trace.peek());
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.storage;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.http.IHttpClient;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MultiRecordStreamFetcherTest {
+
+    private MultiRecordStreamFetcher sut;
+
+    @After
+    public void teardown() {
+        if (this.sut != null) {
+            this.sut.close();
+        }
+    }
+
+    @Test
+    public void should_roundTripChunks_asNdjson() throws IOException {
+        StringWriter out = new StringWriter();
+        MultiRecordChunkWriter writer = new MultiRecordChunkWriter(out);
+        writer.write(MultiRecordChunk.builder()
+                .records(Arrays.asList("{\"id\":\"t:doc:1\",\"data\":{\"depth\":12.5}}", "{\"id\":\"t:doc:2\"}"))
+                .notFound(Collections.singletonList("t:doc:3"))
+                .build());
+        writer.write(MultiRecordChunk.builder()
+                .conversionStatuses(Collections.singletonList(
+                        ConversionStatus.builder().id("t:doc:1").status("SUCCESS").errors(new ArrayList<>()).build()))
+                .cursor("next")
+                .build());
+
+        String ndjson = out.toString();
+        assertEquals(2, ndjson.split("\n").length);
+
+        MultiRecordChunkReader reader = new MultiRecordChunkReader(new StringReader(ndjson));
+        MultiRecordChunk first = reader.next();
+        MultiRecordChunk second = reader.next();
+        assertFalse(reader.hasNext());
+
+        assertEquals(Arrays.asList("{\"id\":\"t:doc:1\",\"data\":{\"depth\":12.5}}", "{\"id\":\"t:doc:2\"}"), first.getRecords());
+        assertEquals(Collections.singletonList("t:doc:3"), first.getNotFound());
+        assertTrue(second.getRecords().isEmpty());
+        assertEquals("SUCCESS", second.getConversionStatuses().get(0).getStatus());
+        assertEquals("next", second.getCursor());
+    }
+
+    @Test
+    public void should_fetchAllIds_withBoundedConcurrency() throws IOException {
+        StubStore store = new StubStore(50_000, 250);
+        this.sut = new MultiRecordStreamFetcher(store,
+                MultiRecordStreamConfig.builder().pageSize(2000).maxInFlightPages(3).build());
+        List<String> ids = new ArrayList<>(store.ids);
+        ids.add("t:doc:missing");
+        Set<String> seen = new HashSet<>();
+        List<String> notFound = new ArrayList<>();
+
+        int count = this.sut.fetch(ids, null, chunk -> {
+            chunk.getRecords().forEach(record -> assertTrue(seen.add(record)));
+            notFound.addAll(chunk.getNotFound());
+        });
+
+        assertEquals(50_000, count);
+        assertEquals(50_000, seen.size());
+        assertEquals(Collections.singletonList("t:doc:missing"), notFound);
+        assertEquals(26, store.requests.get());
+        assertTrue(store.maxConcurrent.get() <= 3);
+    }
+
+    @Test
+    public void should_followCursor_whenFetchingByKind() throws IOException {
+        StubStore store = new StubStore(2_500, 100);
+        this.sut = new MultiRecordStreamFetcher(store, MultiRecordStreamConfig.builder().pageSize(1000).build());
+        List<String> records = new ArrayList<>();
+
+        int count = this.sut.fetchKind("t:wks:well:1.0.0", new String[]{"data.depth"},
+                chunk -> records.addAll(chunk.getRecords()));
+
+        assertEquals(2_500, count);
+        assertEquals(2_500, new HashSet<>(records).size());
+        assertEquals(3, store.requests.get());
+    }
+
+    @Test
+    public void should_propagateFirstFailure() {
+        this.sut = new MultiRecordStreamFetcher((request, chunks) -> {
+            throw new IOException("store unavailable");
+        });
+
+        try {
+            this.sut.fetch(Arrays.asList("t:doc:1", "t:doc:2"), null, chunk -> { });
+            fail("expected exception");
+        } catch (IOException e) {
+            assertEquals("store unavailable", e.getMessage());
+        }
+    }
+
+    @Test
+    public void should_readChunks_fromHttpResponse() throws IOException {
+        Queue<HttpResponse> responses = new ArrayDeque<>();
+        IHttpClient httpClient = request -> responses.remove();
+        HttpResponse ok = new HttpResponse();
+        ok.setResponseCode(200);
+        ok.setBody("{\"records\":[{\"id\":\"t:doc:1\"}],\"notFound\":[]}\n{\"records\":[{\"id\":\"t:doc:2\"}],\"notFound\":[]}\n");
+        HttpResponse forbidden = new HttpResponse();
+        forbidden.setResponseCode(403);
+        forbidden.setBody("denied");
+        responses.add(ok);
+        responses.add(forbidden);
+        HttpMultiRecordStreamSource source = new HttpMultiRecordStreamSource(httpClient,
+                "https://storage/api/storage/v2/query/records:stream", Collections.emptyMap());
+        List<String> records = new ArrayList<>();
+
+        source.fetch(MultiRecordStreamRequest.builder().kind("t:wks:well:1.0.0").build(),
+                chunk -> records.addAll(chunk.getRecords()));
+
+        assertEquals(Arrays.asList("{\"id\":\"t:doc:1\"}", "{\"id\":\"t:doc:2\"}"), records);
+        try {
+            source.fetch(MultiRecordStreamRequest.builder().kind("t:wks:well:1.0.0").build(), chunk -> { });
+            fail("expected exception");
+        } catch (AppException e) {
+            assertEquals(403, e.getError().getCode());
+        }
+    }
+
+    @Test
+    public void should_passChunksToSink_beforeResponseIsComplete() throws Exception {
+        CountDownLatch firstChunkReceived = new CountDownLatch(1);
+        AtomicBoolean streamed = new AtomicBoolean();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write("{\"records\":[{\"id\":\"t:doc:1\"}]}\n".getBytes(StandardCharsets.UTF_8));
+                body.flush();
+                // the second chunk is only written once the client has seen the first
+                streamed.set(firstChunkReceived.await(5, TimeUnit.SECONDS));
+                body.write("{\"records\":[{\"id\":\"t:doc:2\"}]}\n".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        try {
+            HttpMultiRecordStreamSource source = new HttpMultiRecordStreamSource(new HttpClient(),
+                    String.format("http://localhost:%s/records:stream", server.getAddress().getPort()), null);
+            List<String> records = new ArrayList<>();
+
+            source.fetch(MultiRecordStreamRequest.builder().kind("t:wks:well:1.0.0").build(), chunk -> {
+                records.addAll(chunk.getRecords());
+                firstChunkReceived.countDown();
+            });
+
+            assertTrue(streamed.get());
+            assertEquals(Arrays.asList("{\"id\":\"t:doc:1\"}", "{\"id\":\"t:doc:2\"}"), records);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static class StubStore implements IMultiRecordStreamSource {
+        final List<String> ids = new ArrayList<>();
+        final int chunkSize;
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        StubStore(int count, int chunkSize) {
+            for (int i = 0; i < count; i++) {
+                this.ids.add("t:doc:" + i);
+            }
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void fetch(MultiRecordStreamRequest request, Consumer<MultiRecordChunk> chunks) {
+            this.requests.incrementAndGet();
+            this.maxConcurrent.accumulateAndGet(this.concurrent.incrementAndGet(), Math::max);
+            try {
+                List<String> page;
+                String next = null;
+                if (request.isByKind()) {
+                    int from = request.getCursor() == null ? 0 : Integer.parseInt(request.getCursor());
+                    int to = Math.min(this.ids.size(), from + request.getLimit());
+                    page = this.ids.subList(from, to);
+                    next = to < this.ids.size() ? String.valueOf(to) : null;
+                } else {
+                    page = request.getRecords();
+                }
+                for (int from = 0; from < page.size(); from += this.chunkSize) {
+                    MultiRecordChunk chunk = new MultiRecordChunk();
+                    for (String id : page.subList(from, Math.min(page.size(), from + this.chunkSize))) {
+                        if (id.endsWith("missing")) {
+                            chunk.getNotFound().add(id);
+                        } else {
+                            chunk.getRecords().add("{\"id\":\"" + id + "\"}");
+                        }
+                    }
+                    if (from + this.chunkSize >= page.size()) {
+                        chunk.setCursor(next);
+                    }
+                    chunks.accept(chunk);
+                }
+            } finally {
+                this.concurrent.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.units;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UnitConversionPlanTest {
+    private static final String DEG_F_S_1 = "%7B%22ScaleOffset%22%3A%7B%22Scale%22%3A0.5555555555555556%2C%22Offset%22%3A-459.67%7D%2C%22Symbol%22%3A%22degF%22%2C%22BaseMeasurement%22%3A%22%257B%2522Ancestry%2522%253A%2522Temperature%2522%257D%22%7D";
+    private static final String DEG_F_E_2 = "{\"abcd\":{\"a\":2298.35,\"b\":5.0,\"c\":9.0,\"d\":0.0},\"symbol\":\"degF\",\"baseMeasurement\":{\"ancestry\":\"K\",\"type\":\"UM\"},\"type\":\"UAD\"}";
+    private static final String CUSTOM_1 = "{\"scaleOffset\":{\"scale\":1000000.0,\"offset\":0.0},\"symbol\":\"MMUSD\",\"baseMeasurement\":{\"ancestry\":\"CurrencyUSD\",\"type\":\"UM\"},\"type\":\"USO\"}";
+
+    private static final double[] VALUES = {-40.0, 0.0, 32.0, 131.0, 1.0e6};
+
+    @Test
+    public void should_convertExactlyLikeParsedUnit() {
+        for (String reference : new String[]{DEG_F_S_1, DEG_F_E_2, CUSTOM_1}) {
+            IUnit unit = ReferenceConverter.parseUnitReference(reference);
+            UnitConversionPlan sut = UnitConversionPlan.forReference(reference);
+
+            assertTrue(sut.isValid());
+            assertEquals(unit.getBaseUnit(), sut.getBaseUnit());
+            for (double value : VALUES) {
+                assertEquals(unit.convertToSI(value), sut.convertToSI(value), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void should_reusePlan_forSameReference() {
+        assertSame(UnitConversionPlan.forReference(DEG_F_E_2), UnitConversionPlan.forReference(DEG_F_E_2));
+    }
+
+    @Test
+    public void should_convertArraysInPlace() {
+        IUnit unit = ReferenceConverter.parseUnitReference(DEG_F_S_1);
+        double[] expected = VALUES.clone();
+        unit.convertToSI(expected);
+
+        double[] values = VALUES.clone();
+        UnitConversionPlan.forReference(DEG_F_S_1).convertToSI(values);
+        assertArrayEquals(expected, values, 0.0);
+
+        double[] partial = VALUES.clone();
+        UnitConversionPlan.forReference(DEG_F_S_1).convertToSI(partial, 1, 2);
+        assertEquals(VALUES[0], partial[0], 0.0);
+        assertEquals(expected[1], partial[1], 0.0);
+        assertEquals(expected[2], partial[2], 0.0);
+        assertEquals(VALUES[3], partial[3], 0.0);
+    }
+
+    @Test
+    public void should_returnInvalidPlan_forBadReferences() {
+        for (String reference : new String[]{null, "", "not a unit", CUSTOM_1.replace("{", "")}) {
+            UnitConversionPlan sut = UnitConversionPlan.forReference(reference);
+            assertFalse(sut.isValid());
+            assertNull(sut.getBaseUnit());
+            assertTrue(Double.isNaN(sut.convertToSI(1.0)));
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void should_throw_when_rangeIsOutsideArray() {
+        UnitConversionPlan.forReference(DEG_F_S_1).convertToSI(new double[2], 1, 2);
+    }
+}
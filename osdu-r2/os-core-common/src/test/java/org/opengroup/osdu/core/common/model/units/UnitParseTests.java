@@ -245,4 +245,14 @@ public class UnitParseTests {
         double cu_v = custom_bu.convertToUnit(custom, si_v);
         assertEquals(1234.5, cu_v, 1.0e-10);
     }
+
+    @Test
+    public void testPersistableReferenceRoundTrip() {
+        String shuffled = "{\"type\":\"USO\",\"extra\":1,\"symbol\":\"degF\",\"scaleOffset\":{\"offset\":-459.67,\"scale\":0.5555555555555556},\"baseMeasurement\":{\"type\":\"UM\",\"ancestry\":\"Temperature\"}}";
+        org.opengroup.osdu.core.common.model.units.impl.PersistableReference reference =
+                org.opengroup.osdu.core.common.model.units.impl.PersistableReference.createInstance(shuffled);
+        assertNotNull(reference);
+        assertEquals("{\"baseMeasurement\":{\"ancestry\":\"Temperature\"},\"scaleOffset\":{\"offset\":-459.67,\"scale\":0.5555555555555556},\"symbol\":\"degF\",\"type\":\"USO\"}",
+                reference.toJsonString());
+    }
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.multitenancy;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TenantInfoMemoryRepoTest {
+
+    private final MapCache cache = new MapCache();
+    private final CountingRepo wrapped = new CountingRepo();
+
+    @Test
+    public void should_findTenant_byAnyAccountId() {
+        this.wrapped.tenants.add(tenant("opendes", "opendes", "opendes-legacy"));
+        this.wrapped.tenants.add(tenant("common", "common"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+
+        assertEquals("opendes", sut.get("opendes-legacy").getName());
+        assertEquals("common", sut.get("common").getName());
+        assertSame(sut.get("opendes"), sut.get("opendes-legacy"));
+        assertEquals(1, this.wrapped.listCalls.get());
+    }
+
+    @Test
+    public void should_reloadOnMiss_andFindNewTenant() {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+        assertEquals("opendes", sut.get("opendes").getName());
+
+        this.wrapped.tenants.add(tenant("newtenant", "newtenant"));
+
+        assertEquals("newtenant", sut.get("newtenant").getName());
+        assertEquals(2, this.wrapped.listCalls.get());
+    }
+
+    @Test
+    public void should_notReloadRepeatedly_forUnknownTenants() {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertNull(sut.get("typo" + (i % 100)));
+        }
+
+        // the initial load plus one reload for the first miss, everything else is rate limited
+        assertEquals(2, this.wrapped.listCalls.get());
+    }
+
+    @Test
+    public void should_reloadOnce_forConcurrentMisses() throws Exception {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+        sut.get("opendes");
+        this.wrapped.tenants.add(tenant("newtenant", "newtenant"));
+        this.wrapped.delayMillis = 100;
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TenantInfo>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return sut.get("newtenant");
+            }));
+        }
+        start.countDown();
+        for (Future<TenantInfo> result : results) {
+            assertEquals("newtenant", result.get(5, TimeUnit.SECONDS).getName());
+        }
+        pool.shutdown();
+
+        assertEquals(2, this.wrapped.listCalls.get());
+    }
+
+    @Test
+    public void should_refreshStaleSnapshot_inBackground() throws Exception {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped,
+                TenantInfoMemoryRepoConfig.builder().snapshotRefreshSeconds(0).build());
+        TenantInfo before = sut.get("opendes");
+        this.cache.delete(TenantInfoMemoryRepo.TENANT_INFO_LIST);
+        this.wrapped.tenants.set(0, tenant("opendes", "opendes"));
+
+        sut.get("opendes");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sut.get("opendes") == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(sut.get("opendes") != before);
+    }
+
+    @Test(expected = AppException.class)
+    public void should_propagateLoadFailure() {
+        this.wrapped.failure = new AppException(500, "Server error", "tenant store unavailable");
+        new TenantInfoMemoryRepo(this.cache, this.wrapped).get("opendes");
+    }
+
+    @Test(timeout = 5_000)
+    public void should_reloadAgain_after_loadFailsWithError() {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        this.wrapped.error = new StackOverflowError();
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+        try {
+            sut.get("opendes");
+            fail("expected the load error");
+        } catch (CompletionException e) {
+            assertSame(this.wrapped.error, e.getCause());
+        }
+
+        this.wrapped.error = null;
+
+        assertEquals("opendes", sut.get("opendes").getName());
+    }
+
+    @Test
+    public void should_returnNull_forNullTenantName() {
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+
+        assertNull(sut.get(null));
+        assertEquals(0, this.wrapped.listCalls.get());
+    }
+
+    @Test
+    public void should_notRememberUnknownTenant_when_reloadWasRateLimited() throws Exception {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped,
+                TenantInfoMemoryRepoConfig.builder().minMissRefreshIntervalSeconds(1).build());
+        assertNull(sut.get("typo"));
+        assertNull(sut.get("newtenant"));
+        this.wrapped.tenants.add(tenant("newtenant", "newtenant"));
+
+        Thread.sleep(1_100);
+
+        assertEquals("newtenant", sut.get("newtenant").getName());
+        assertEquals(3, this.wrapped.listCalls.get());
+    }
+
+    @Test
+    public void should_reloadPastSharedCache_when_missJoinsBackgroundRefresh() {
+        this.wrapped.tenants.add(tenant("opendes", "opendes"));
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped,
+                TenantInfoMemoryRepoConfig.builder().snapshotRefreshSeconds(0).build());
+        sut.get("opendes");
+        // the shared list is now stale, and the background refresh started by the next lookup reads it
+        this.wrapped.tenants.add(tenant("newtenant", "newtenant"));
+        this.cache.delayMillis = 100;
+
+        assertEquals("newtenant", sut.get("newtenant").getName());
+    }
+
+    @Test
+    public void should_serveLookups_withUnknownIdMix() {
+        for (int i = 0; i < 1_000; i++) {
+            this.wrapped.tenants.add(tenant("tenant" + i, "tenant" + i));
+        }
+        TenantInfoMemoryRepo sut = new TenantInfoMemoryRepo(this.cache, this.wrapped);
+
+        int found = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String name = i % 10 == 0 ? "unknown" + (i % 500) : "tenant" + (i % 1_000);
+            if (sut.get(name) != null) {
+                found++;
+            }
+        }
+
+        assertEquals(90_000, found);
+        assertEquals(2, this.wrapped.listCalls.get());
+    }
+
+    private static TenantInfo tenant(String name, String... accountIds) {
+        TenantInfo tenantInfo = new TenantInfo();
+        tenantInfo.setName(name);
+        tenantInfo.setCrmAccountIds(Arrays.asList(accountIds));
+        return tenantInfo;
+    }
+
+    private static class CountingRepo implements ITenantInfoRepo {
+        final List<TenantInfo> tenants = new ArrayList<>();
+        final AtomicInteger listCalls = new AtomicInteger();
+        volatile long delayMillis;
+        volatile RuntimeException failure;
+        volatile Error error;
+
+        @Override
+        public TenantInfo get(String tenantName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Collection<TenantInfo> list() {
+            this.listCalls.incrementAndGet();
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            if (this.error != null) {
+                throw this.error;
+            }
+            if (this.delayMillis > 0) {
+                try {
+                    Thread.sleep(this.delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ArrayList<>(this.tenants);
+        }
+    }
+
+    private static class MapCache implements ICache<String, Collection<TenantInfo>> {
+        private final Map<String, Collection<TenantInfo>> entries = new ConcurrentHashMap<>();
+        volatile long delayMillis;
+
+        @Override
+        public void put(String key, Collection<TenantInfo> value) {
+            this.entries.put(key, value);
+        }
+
+        @Override
+        public Collection<TenantInfo> get(String key) {
+            if (this.delayMillis > 0) {
+                try {
+                    Thread.sleep(this.delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return this.entries.get(key);
+        }
+
+        @Override
+        public void delete(String key) {
+            this.entries.remove(key);
+        }
+
+        @Override
+        public void clearAll() {
+            this.entries.clear();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import com.sun.net.httpserver.HttpServer;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.search.ClusterSettings;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.provider.interfaces.IElasticRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ElasticClientPoolTest {
+
+    private static final byte[] BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final IElasticRepository elasticRepository = mock(IElasticRepository.class);
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private ElasticClientPool sut;
+
+    @Before
+    public void setup() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", exchange -> {
+            this.authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(BODY);
+            }
+        });
+        this.server.start();
+    }
+
+    @After
+    public void teardown() {
+        if (this.sut != null) {
+            this.sut.close();
+        }
+        this.server.stop(0);
+    }
+
+    @Test
+    public void should_reuseClient_acrossRequests() throws Exception {
+        when(this.elasticRepository.getElasticClusterSettings(any())).thenReturn(settings("user:secret"));
+        this.sut = new ElasticClientPool(this.elasticRepository);
+
+        // GET rather than ping: the JDK stand-in server closes the connection after a HEAD response
+        RestHighLevelClient first = this.sut.getClient(tenant("tenant1"));
+        assertEquals(200, get(first));
+        RestHighLevelClient second = this.sut.getClient(tenant("tenant1"));
+        assertEquals(200, get(second));
+
+        assertSame(first, second);
+        assertEquals("Basic dXNlcjpzZWNyZXQ=", this.authorizations.get(0));
+        ElasticClientPoolStats stats = this.sut.getStats();
+        assertEquals(1, stats.getOpenClients());
+        assertEquals(1, stats.getClientsCreated());
+        assertEquals(1, stats.getClientsReused());
+        assertEquals(1, stats.getAvailableConnections());
+        assertEquals(0, stats.getLeasedConnections());
+    }
+
+    @Test
+    public void should_closeIdleConnections_when_sweeping() throws Exception {
+        when(this.elasticRepository.getElasticClusterSettings(any())).thenReturn(settings("user:secret"));
+        this.sut = new ElasticClientPool(this.elasticRepository,
+                ElasticClientPoolConfig.builder().connectionIdleTimeoutSeconds(0).build());
+        RestHighLevelClient client = this.sut.getClient(tenant("tenant1"));
+        assertEquals(200, get(client));
+        assertEquals(1, this.sut.getStats().getAvailableConnections());
+
+        this.sut.evictIdle();
+
+        assertEquals(0, this.sut.getStats().getAvailableConnections());
+        assertEquals(1, this.sut.getStats().getOpenClients());
+        assertEquals(200, get(client));
+    }
+
+    @Test
+    public void should_keepSeparateClients_perTenant() {
+        when(this.elasticRepository.getElasticClusterSettings(any())).thenReturn(settings("user:secret"));
+        this.sut = new ElasticClientPool(this.elasticRepository);
+
+        assertNotSame(this.sut.getClient(tenant("tenant1")), this.sut.getClient(tenant("tenant2")));
+        assertEquals(2, this.sut.getStats().getOpenClients());
+    }
+
+    @Test
+    public void should_rebuildClient_when_credentialsRotate() throws Exception {
+        when(this.elasticRepository.getElasticClusterSettings(any()))
+                .thenReturn(settings("user:old"), settings("user:new"));
+        this.sut = new ElasticClientPool(this.elasticRepository,
+                ElasticClientPoolConfig.builder().retiredClientGraceSeconds(0).build());
+
+        RestHighLevelClient before = this.sut.getClient(tenant("tenant1"));
+        RestHighLevelClient after = this.sut.getClient(tenant("tenant1"));
+        assertEquals(200, get(after));
+
+        assertNotSame(before, after);
+        assertEquals("Basic dXNlcjpuZXc=", this.authorizations.get(0));
+        assertEquals(1, this.sut.getStats().getClientsRebuilt());
+        assertEquals(1, this.sut.getStats().getRetiredClients());
+
+        this.sut.evictIdle();
+        assertEquals(0, this.sut.getStats().getRetiredClients());
+        try {
+            before.ping(RequestOptions.DEFAULT);
+            fail("expected the retired client to be closed");
+        } catch (Exception e) {
+            // closed
+        }
+    }
+
+    @Test
+    public void should_retireIdleClients_untilGracePeriodEnds() throws Exception {
+        when(this.elasticRepository.getElasticClusterSettings(any())).thenReturn(settings("user:secret"));
+        this.sut = new ElasticClientPool(this.elasticRepository,
+                ElasticClientPoolConfig.builder().idleTimeoutSeconds(0).build());
+        RestHighLevelClient first = this.sut.getClient(tenant("tenant1"));
+
+        this.sut.evictIdle();
+
+        assertEquals(0, this.sut.getStats().getOpenClients());
+        assertEquals(1, this.sut.getStats().getRetiredClients());
+        assertEquals(1, this.sut.getStats().getClientsEvicted());
+        // a caller still holding the evicted client can finish its request
+        assertEquals(200, get(first));
+        assertNotSame(first, this.sut.getClient(tenant("tenant1")));
+    }
+
+    @Test(expected = AppException.class)
+    public void should_throw_when_clusterSettingsAreMissing() {
+        this.sut = new ElasticClientPool(this.elasticRepository);
+        this.sut.getClient(tenant("tenant1"));
+    }
+
+    private static int get(RestHighLevelClient client) throws IOException {
+        return client.getLowLevelClient().performRequest(new Request("GET", "/")).getStatusLine().getStatusCode();
+    }
+
+    private ClusterSettings settings(String userNameAndPassword) {
+        return ClusterSettings.builder()
+                .host("127.0.0.1")
+                .port(this.server.getAddress().getPort())
+                .userNameAndPassword(userNameAndPassword)
+                .https(false)
+                .build();
+    }
+
+    private static TenantInfo tenant(String name) {
+        TenantInfo tenant = new TenantInfo();
+        tenant.setName(name);
+        return tenant;
+    }
+}
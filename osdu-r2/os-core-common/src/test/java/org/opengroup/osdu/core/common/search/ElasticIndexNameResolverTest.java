@@ -23,7 +23,16 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ElasticIndexNameResolverTest {
@@ -45,4 +54,60 @@ public class ElasticIndexNameResolverTest {
     public void test_correct_kind_from_index() {
         assertEquals("tenant1:welldb-v2:wellbore:2.0.0", this.sut.getKindFromIndexName("tenant1-welldb-v2-wellbore-2.0.0"));
     }
+
+    @Test
+    public void test_same_index_returned_on_cache_hit() {
+        String kind = "tenant1:welldb:wellbore:1.0.0";
+        assertSame(this.sut.getIndexNameFromKind(kind), this.sut.getIndexNameFromKind(kind));
+    }
+
+    @Test
+    public void test_correct_kind_from_uncached_index() {
+        assertEquals("tenant1:welldb:well:1.0.0", this.sut.getKindFromIndexName("tenant1-welldb-well-1.0.0"));
+    }
+
+    @Test
+    public void test_multi_kind_resolved_to_distinct_indices() {
+        assertEquals(Arrays.asList("*-*-*-*", "tenant1-welldb-v2-wellbore-2.0.0", "tenant1-welldb-*-*"),
+                this.sut.getIndexNamesFromKinds("*:*:*:*, Tenant1:welldb-v2:wellbore:2.0.0,tenant1:welldb:*:*,*:*:*:*"));
+        assertEquals(Arrays.asList("tenant1-welldb-well-1.0.0"),
+                this.sut.getIndexNamesFromKinds(Arrays.asList("tenant1:welldb:well:1.0.0", "tenant1:welldb:well:1.0.0")));
+    }
+
+    @Test
+    public void test_mapping_is_bounded_in_both_directions() {
+        ElasticIndexNameResolver bounded = new ElasticIndexNameResolver(100);
+        for (int i = 0; i < 1_000; i++) {
+            bounded.getIndexNameFromKind("tenant1:WellDb:well:" + i + ".0.0");
+        }
+
+        assertTrue(bounded.size() <= 100);
+        // recently used kinds keep their original casing through the reverse mapping
+        assertEquals("tenant1:WellDb:well:999.0.0", bounded.getKindFromIndexName("tenant1-welldb-well-999.0.0"));
+        assertEquals("tenant1:welldb:well:0.0.0", bounded.getKindFromIndexName("tenant1-welldb-well-0.0.0"));
+    }
+
+    @Test
+    public void test_concurrent_resolution_of_distinct_kinds() throws Exception {
+        ElasticIndexNameResolver resolver = new ElasticIndexNameResolver();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < 32; t++) {
+            int offset = t;
+            results.add(pool.submit(() -> {
+                boolean correct = true;
+                for (int i = 0; i < 10_000; i++) {
+                    int n = (i + offset * 311) % 10_000;
+                    String index = resolver.getIndexNameFromKind("tenant1:db:kind" + n + ":1.0.0");
+                    correct &= index.equals("tenant1-db-kind" + n + "-1.0.0");
+                }
+                return correct;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        pool.shutdown();
+        assertEquals(10_000, resolver.size());
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.After;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.search.IndexInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class IndexCleanupExecutorTest {
+
+    private static final long NOW = Instant.parse("2020-06-01T00:00:00Z").toEpochMilli();
+
+    private final RestHighLevelClient client = mock(RestHighLevelClient.class);
+    private final Map<String, RestHighLevelClient> clients = new ConcurrentHashMap<>();
+    private IndexCleanupExecutor sut;
+
+    @After
+    public void teardown() {
+        if (this.sut != null) {
+            this.sut.close();
+        }
+    }
+
+    @Test
+    public void should_deleteStaleIndices_acrossTenants_inBatches() throws Exception {
+        StubIndicesService indices = new StubIndicesService(2_500, null);
+        this.sut = new IndexCleanupExecutor(indices, this::clientFor, IndexCleanupConfig.builder()
+                .tenants(new String[]{"tenant1", "tenant2", " tenant3", "tenant4", "tenant1"})
+                .indexPatterns(new String[]{"*-test-*", "*-it-*"})
+                .thresholdDays(3)
+                .maxConcurrentTenants(2)
+                .requestsPerSecondPerTenant(10_000)
+                .build(), Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+        IndexCleanupSummary summary = this.sut.run();
+
+        // every fifth synthetic index is recent enough to keep
+        assertEquals(8_000, summary.getDeletedCount());
+        assertEquals(Integer.valueOf(500), summary.getKeptIndexCount().get("tenant3"));
+        assertEquals(Arrays.asList("tenant1", "tenant2", "tenant3", "tenant4"), new ArrayList<>(summary.getDeletedIndices().keySet()));
+        assertEquals("*-test-*,*-it-*", indices.patterns.get(0));
+        assertEquals(4, indices.patterns.size());
+        assertEquals(4 * 20, indices.deleteRequests.get());
+        assertTrue(summary.getFailedTenants().isEmpty());
+    }
+
+    @Test
+    public void should_reportFailedTenant_andContinue() throws Exception {
+        StubIndicesService indices = new StubIndicesService(10, "tenant2");
+        this.sut = new IndexCleanupExecutor(indices, this::clientFor, IndexCleanupConfig.builder()
+                .tenants(new String[]{"tenant1", "tenant2"})
+                .indexPatterns(new String[]{"*-test-*"})
+                .build(), Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+        IndexCleanupSummary summary = this.sut.run();
+
+        assertEquals(8, summary.getDeletedCount());
+        assertEquals("cluster unavailable", summary.getFailedTenants().get("tenant2"));
+    }
+
+    @Test
+    public void should_reportDeletedIndices_when_tenantFailsPartWay() throws Exception {
+        StubIndicesService indices = new StubIndicesService(250, "tenant1");
+        indices.batchesBeforeFailure = 1;
+        this.sut = new IndexCleanupExecutor(indices, this::clientFor, IndexCleanupConfig.builder()
+                .tenants(new String[]{"tenant1"})
+                .indexPatterns(new String[]{"*-test-*"})
+                .requestsPerSecondPerTenant(10_000)
+                .build(), Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+        IndexCleanupSummary summary = this.sut.run();
+
+        assertEquals("cluster unavailable", summary.getFailedTenants().get("tenant1"));
+        assertEquals(100, summary.getDeletedIndices().get("tenant1").size());
+        assertEquals(Integer.valueOf(50), summary.getKeptIndexCount().get("tenant1"));
+    }
+
+    @Test
+    public void should_doNothing_withoutPatterns() throws Exception {
+        StubIndicesService indices = new StubIndicesService(10, null);
+        this.sut = new IndexCleanupExecutor(indices, this::clientFor, IndexCleanupConfig.builder()
+                .tenants(new String[]{"tenant1"}).build());
+
+        assertEquals(0, this.sut.run().getDeletedCount());
+        assertTrue(indices.patterns.isEmpty());
+    }
+
+    @Test
+    public void should_deleteIndices_inBatchedRequests() throws Exception {
+        List<String> paths = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            paths.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            byte[] body = "{\"acknowledged\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (RestHighLevelClient realClient = new RestHighLevelClient(
+                RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")))) {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                names.add("tenant1-test-" + i);
+            }
+
+            StubIndicesService indices = new StubIndicesService(0, null);
+            indices.useClusterForDelete = true;
+
+            assertTrue(indices.deleteIndices(realClient, names));
+
+            assertEquals(2, paths.size());
+            assertTrue(paths.get(0).startsWith("DELETE /tenant1-test-0,tenant1-test-1,"));
+            assertTrue(paths.get(0).contains("ignore_unavailable=true"));
+            assertTrue(paths.get(1).startsWith("DELETE /tenant1-test-100,"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void should_listExistingIndices_withOneRequest() throws Exception {
+        StubIndicesService indices = new StubIndicesService(3, null);
+
+        assertEquals(3, indices.getExistingIndices(this.client, "a-*", "b-*").size());
+        assertEquals(Arrays.asList("a-*,b-*"), indices.patterns);
+    }
+
+    private RestHighLevelClient clientFor(String tenant) {
+        return this.clients.computeIfAbsent(tenant, name -> mock(RestHighLevelClient.class, name));
+    }
+
+    private static class StubIndicesService implements IndicesService {
+        final int indicesPerTenant;
+        final String failingTenant;
+        final List<String> patterns = new CopyOnWriteArrayList<>();
+        final AtomicInteger deleteRequests = new AtomicInteger();
+        boolean useClusterForDelete;
+        int batchesBeforeFailure;
+
+        StubIndicesService(int indicesPerTenant, String failingTenant) {
+            this.indicesPerTenant = indicesPerTenant;
+            this.failingTenant = failingTenant;
+        }
+
+        @Override
+        public List<IndexInfo> getIndexInfo(RestHighLevelClient client, String indexPattern) throws IOException {
+            this.patterns.add(indexPattern);
+            String tenant = client.toString();
+            List<IndexInfo> infos = new ArrayList<>();
+            for (int i = 0; i < this.indicesPerTenant; i++) {
+                long age = i % 5 == 0 ? TimeUnit.DAYS.toMillis(1) : TimeUnit.DAYS.toMillis(10);
+                infos.add(IndexInfo.builder().name(tenant + "-test-" + i).documentCount("0")
+                        .creationDate(String.valueOf(NOW - age)).build());
+            }
+            return infos;
+        }
+
+        @Override
+        public boolean deleteIndices(RestHighLevelClient client, List<String> indices) throws IOException {
+            if (this.useClusterForDelete) {
+                return IndicesService.super.deleteIndices(client, indices);
+            }
+            if (this.failingTenant != null && indices.get(0).startsWith(this.failingTenant)
+                    && this.batchesBeforeFailure-- <= 0) {
+                throw new IOException("cluster unavailable");
+            }
+            this.deleteRequests.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean createIndex(RestHighLevelClient client, String index, org.elasticsearch.common.settings.Settings settings,
+                                   String type, java.util.Map<String, Object> mapping) {
+            return false;
+        }
+
+        @Override
+        public boolean isIndexExist(RestHighLevelClient client, String index) {
+            return false;
+        }
+
+        @Override
+        public boolean deleteIndex(RestHighLevelClient client, String index) {
+            return false;
+        }
+
+        @Override
+        public boolean deleteIndex(String index) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.search;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.search.IndexInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class KindIndexCreatorTest {
+
+    private static final String KIND = "tenant1:welldb:wellbore:1.0.0";
+    private static final String INDEX = "tenant1-welldb-wellbore-1.0.0";
+    private static final String NEXT_KIND = "tenant1:welldb:wellbore:2.0.0";
+    private static final String NEXT_INDEX = "tenant1-welldb-wellbore-2.0.0";
+
+    private final AtomicInteger mappingBuilds = new AtomicInteger();
+    private final Supplier<Map<String, Object>> mappingBuilder = () -> {
+        this.mappingBuilds.incrementAndGet();
+        Map<String, Object> depth = new HashMap<>();
+        depth.put("type", "double");
+        return Collections.singletonMap("properties", Collections.singletonMap("depth", depth));
+    };
+
+    @Test
+    public void should_renderMappingOnce_perKindAndSchema() {
+        IndexMappingCache cache = new IndexMappingCache();
+
+        IndexMappingCache.RenderedMapping first = cache.getOrRender(KIND, "{\"v\":1}", this.mappingBuilder);
+        IndexMappingCache.RenderedMapping second = cache.getOrRender(KIND, "{\"v\":1}", this.mappingBuilder);
+        IndexMappingCache.RenderedMapping changed = cache.getOrRender(KIND, "{\"v\":2}", this.mappingBuilder);
+
+        assertSame(first, second);
+        assertNotSame(first, changed);
+        assertEquals(2, this.mappingBuilds.get());
+        assertEquals("{\"properties\":{\"depth\":{\"type\":\"double\"}}}", first.getJson().utf8ToString());
+    }
+
+    @Test
+    public void should_buildMappingOnce_andSendCachedBytes() throws Exception {
+        StubIndicesService indices = new StubIndicesService();
+        KindIndexCreator sut = new KindIndexCreator(indices, new ElasticIndexNameResolver(), new IndexMappingCache());
+        RestHighLevelClient cluster = mock(RestHighLevelClient.class);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(sut.createIndex(cluster, KIND, "{\"v\":1}", Settings.EMPTY, "_doc", this.mappingBuilder));
+        }
+        sut.createIndex(cluster, KIND, "{\"v\":2}", Settings.EMPTY, "_doc", this.mappingBuilder);
+
+        assertEquals(2, this.mappingBuilds.get());
+        assertEquals(6, indices.created.size());
+        assertEquals(INDEX, indices.created.get(0));
+        assertSame(indices.mappings.get(0), indices.mappings.get(4));
+        assertNotSame(indices.mappings.get(0), indices.mappings.get(5));
+    }
+
+    @Test
+    public void should_shareFamilyTemplate_onlyBetweenKindsWithSameSchema() throws Exception {
+        StubIndicesService indices = new StubIndicesService();
+        KindIndexCreator sut = new KindIndexCreator(indices, new ElasticIndexNameResolver(), new IndexMappingCache());
+        RestHighLevelClient cluster = mock(RestHighLevelClient.class);
+        String sameSchema = KindIndexCreator.templateName(INDEX, IndexMappingCache.schemaHash("{\"v\":1}"));
+        String otherSchema = KindIndexCreator.templateName(INDEX, IndexMappingCache.schemaHash("{\"v\":2}"));
+
+        sut.createIndex(cluster, KIND, "{\"v\":1}", Settings.EMPTY, "_doc", this.mappingBuilder);
+        sut.createIndex(cluster, KIND, "{\"v\":1}", Settings.EMPTY, "_doc", this.mappingBuilder);
+        sut.createIndex(cluster, NEXT_KIND, "{\"v\":1}", Settings.EMPTY, "_doc", this.mappingBuilder);
+        sut.createIndex(cluster, "tenant1:welldb:wellbore:3.0.0", "{\"v\":2}", Settings.EMPTY, "_doc", this.mappingBuilder);
+
+        assertTrue(sameSchema, sameSchema.startsWith("tenant1-welldb-wellbore-"));
+        assertNotEquals(sameSchema, otherSchema);
+        assertEquals(3, indices.templates.size());
+        assertEquals(Arrays.asList(INDEX), indices.templates.get(0).getValue());
+        assertEquals(Arrays.asList(INDEX, NEXT_INDEX), indices.templates.get(1).getValue());
+        assertEquals(sameSchema, indices.templates.get(1).getKey());
+        assertEquals(otherSchema, indices.templates.get(2).getKey());
+        assertEquals(Arrays.asList("tenant1-welldb-wellbore-3.0.0"), indices.templates.get(2).getValue());
+        assertEquals(4, indices.created.size());
+    }
+
+    @Test
+    public void should_moveKindOutOfOldTemplate_when_schemaChanges() throws Exception {
+        StubIndicesService indices = new StubIndicesService();
+        KindIndexCreator sut = new KindIndexCreator(indices, new ElasticIndexNameResolver(), new IndexMappingCache());
+        RestHighLevelClient cluster = mock(RestHighLevelClient.class);
+        String first = KindIndexCreator.templateName(INDEX, IndexMappingCache.schemaHash("{\"v\":1}"));
+        String second = KindIndexCreator.templateName(INDEX, IndexMappingCache.schemaHash("{\"v\":2}"));
+
+        sut.createIndex(cluster, KIND, "{\"v\":1}", Settings.EMPTY, "_doc", this.mappingBuilder);
+        sut.createIndex(cluster, NEXT_KIND, "{\"v\":1}", Settings.EMPTY, "_doc", this.mappingBuilder);
+        indices.templates.clear();
+        sut.createIndex(cluster, KIND, "{\"v\":2}", Settings.EMPTY, "_doc", this.mappingBuilder);
+
+        assertEquals(2, indices.templates.size());
+        assertEquals(second, indices.templates.get(0).getKey());
+        assertEquals(Arrays.asList(INDEX), indices.templates.get(0).getValue());
+        assertEquals(first, indices.templates.get(1).getKey());
+        assertEquals(Arrays.asList(NEXT_INDEX), indices.templates.get(1).getValue());
+        assertTrue(indices.deletedTemplates.isEmpty());
+
+        sut.createIndex(cluster, NEXT_KIND, "{\"v\":2}", Settings.EMPTY, "_doc", this.mappingBuilder);
+
+        assertEquals(Arrays.asList(INDEX, NEXT_INDEX), indices.templates.get(2).getValue());
+        assertEquals(Collections.singletonList(first), indices.deletedTemplates);
+    }
+
+    @Test
+    public void should_sendRenderedMapping_inCreateIndexRequest() throws Exception {
+        List<String> requests = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + " "
+                    + new String(ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8));
+            byte[] body = ("{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"" + INDEX + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (RestHighLevelClient client = new RestHighLevelClient(
+                RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")))) {
+            KindIndexCreator sut = new KindIndexCreator(new StubIndicesService().onCluster(),
+                    new ElasticIndexNameResolver(), new IndexMappingCache());
+
+            assertTrue(sut.createIndex(client, KIND, "{}", null, "_doc", this.mappingBuilder));
+
+            assertEquals(2, requests.size());
+            String template = requests.get(0);
+            assertTrue(template, template.startsWith("PUT /_template/tenant1-welldb-wellbore-"));
+            assertTrue(template, template.contains("\"index_patterns\":[\"" + INDEX + "\"]"));
+            String request = requests.get(1);
+            assertTrue(request, request.startsWith("PUT /" + INDEX + " "));
+            assertTrue(request, request.contains("\"_doc\":{\"properties\":{\"depth\":{\"type\":\"double\"}}}"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static class StubIndicesService implements IndicesService {
+        final List<String> created = new CopyOnWriteArrayList<>();
+        final List<BytesReference> mappings = new CopyOnWriteArrayList<>();
+        final List<Map.Entry<String, List<String>>> templates = new CopyOnWriteArrayList<>();
+        final List<String> deletedTemplates = new CopyOnWriteArrayList<>();
+
+        // sends the create request with the default implementation instead of recording it
+        boolean onCluster;
+
+        IndicesService onCluster() {
+            this.onCluster = true;
+            return this;
+        }
+
+        @Override
+        public boolean createIndex(RestHighLevelClient client, String index, Settings settings, String type,
+                                   BytesReference mapping) throws IOException {
+            if (this.onCluster) {
+                return IndicesService.super.createIndex(client, index, settings, type, mapping);
+            }
+            this.created.add(index);
+            this.mappings.add(mapping);
+            return true;
+        }
+
+        @Override
+        public boolean putIndexTemplate(RestHighLevelClient client, String name, List<String> indexPatterns,
+                                        Settings settings, String type, BytesReference mapping) throws IOException {
+            if (this.onCluster) {
+                return IndicesService.super.putIndexTemplate(client, name, indexPatterns, settings, type, mapping);
+            }
+            this.templates.add(new AbstractMap.SimpleImmutableEntry<>(name, indexPatterns));
+            return true;
+        }
+
+        @Override
+        public boolean deleteIndexTemplate(RestHighLevelClient client, String name) {
+            this.deletedTemplates.add(name);
+            return true;
+        }
+
+        @Override
+        public boolean createIndex(RestHighLevelClient client, String index, Settings settings, String type,
+                                   Map<String, Object> mapping) {
+            return false;
+        }
+
+        @Override
+        public boolean isIndexExist(RestHighLevelClient client, String index) {
+            return false;
+        }
+
+        @Override
+        public boolean deleteIndex(RestHighLevelClient client, String index) {
+            return false;
+        }
+
+        @Override
+        public boolean deleteIndex(String index) {
+            return false;
+        }
+
+        @Override
+        public List<IndexInfo> getIndexInfo(RestHighLevelClient client, String indexPattern) {
+            return Collections.emptyList();
+        }
+    }
+}
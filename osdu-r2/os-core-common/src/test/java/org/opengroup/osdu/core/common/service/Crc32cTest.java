@@ -20,11 +20,20 @@
 package org.opengroup.osdu.core.common.service;
 
 import org.junit.Test;
+import org.opengroup.osdu.core.common.util.CheckedChannel;
 import org.opengroup.osdu.core.common.util.Crc32c;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
 import java.util.UUID;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
@@ -54,4 +63,86 @@ public class Crc32cTest {
         String input = UUID.randomUUID().toString();
         Crc32c.hashToBase64EncodedString(input, "UTF-17");
     }
+
+    @Test
+    public void should_matchKnownCheckValue(){
+        Crc32c sut = new Crc32c();
+        sut.update("123456789".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0xe3069283L, sut.getValue());
+    }
+    @Test
+    public void should_matchBitwiseReference_forAnyOffsetAndLength(){
+        Random random = new Random(42);
+        byte[] data = new byte[4099];
+        random.nextBytes(data);
+        for (int off = 0; off < 9; off++) {
+            for (int len : new int[]{0, 1, 7, 8, 9, 15, 16, 17, 1000, data.length - 9}) {
+                Crc32c sut = new Crc32c();
+                sut.update(data, off, len);
+                assertEquals(reference(data, off, len), sut.getValue());
+            }
+        }
+    }
+    @Test
+    public void should_giveSameValue_forSplitUpdatesAndSingleBytes(){
+        byte[] data = new byte[1000];
+        new Random(7).nextBytes(data);
+        Crc32c whole = new Crc32c();
+        whole.update(data, 0, data.length);
+        Crc32c split = new Crc32c();
+        split.update(data, 0, 333);
+        split.update(data[333]);
+        split.update(data, 334, data.length - 334);
+        assertEquals(whole.getValue(), split.getValue());
+
+        split.reset();
+        split.update(data, 0, data.length);
+        assertEquals(whole.getValue(), split.getValue());
+    }
+    @Test
+    public void should_consumeHeapAndDirectBuffers(){
+        byte[] data = new byte[10_003];
+        new Random(3).nextBytes(data);
+        long expected = reference(data, 5, 9_990);
+
+        ByteBuffer heap = ByteBuffer.wrap(data, 5, 9_990);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).position(5).limit(9_995);
+        for (ByteBuffer buffer : new ByteBuffer[]{heap, direct, heap.duplicate().slice()}) {
+            int limit = buffer.limit();
+            Crc32c sut = new Crc32c();
+            sut.update(buffer);
+            assertEquals(expected, sut.getValue());
+            assertEquals(limit, buffer.position());
+        }
+    }
+    @Test
+    public void should_computeChecksum_whileCopying() throws IOException {
+        byte[] data = new byte[200_000];
+        new Random(11).nextBytes(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Crc32c copied = Crc32c.copy(new ByteArrayInputStream(data), out);
+
+        assertArrayEquals(data, out.toByteArray());
+        assertEquals(reference(data, 0, data.length), copied.getValue());
+
+        CheckedChannel channel = new CheckedChannel(Channels.newChannel(new ByteArrayInputStream(data)));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        while (channel.read(buffer) != -1) {
+            buffer.clear();
+        }
+        assertEquals(reference(data, 0, data.length), channel.getChecksum().getValue());
+    }
+
+    private static long reference(byte[] data, int off, int len) {
+        int crc = ~0;
+        for (int i = off; i < off + len; i++) {
+            crc ^= data[i] & 0xff;
+            for (int k = 0; k < 8; k++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0x82f63b78 : crc >>> 1;
+            }
+        }
+        return ~crc & 0xffffffffL;
+    }
 }
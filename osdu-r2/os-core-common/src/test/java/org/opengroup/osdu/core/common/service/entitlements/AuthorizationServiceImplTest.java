@@ -120,6 +120,30 @@ public class AuthorizationServiceImplTest {
         }
     }
 
+    @Test
+    public void should_authorizeOnTenantGroups_andReturnAllGroups_when_tenantGiven() throws EntitlementsException {
+        Groups groups = new Groups();
+        groups.setMemberEmail("akelham@bbc.com");
+        groups.setGroups(new ArrayList<>());
+        for (String email : new String[]{"service.legal.user@tenant1.com", "service.legal.editor@tenant2.com"}) {
+            GroupInfo group = new GroupInfo();
+            group.setName(email.substring(0, email.indexOf('@')));
+            group.setEmail(email);
+            groups.getGroups().add(group);
+        }
+        when(service.getGroups()).thenReturn(groups);
+
+        AuthorizationResponse result = sut.authorizeAny("tenant1", DpsHeaders.createFromMap(new HashMap<>()), "service.legal.user");
+
+        assertEquals(2, result.getGroups().getGroups().size());
+        try {
+            sut.authorizeAny("tenant1", DpsHeaders.createFromMap(new HashMap<>()), "service.legal.editor");
+            fail("expected exception");
+        } catch (AppException ex) {
+            assertEquals(401, ex.getError().getCode());
+        }
+    }
+
     private AuthorizationServiceImpl createSut(String... roles) throws EntitlementsException {
         List<GroupInfo> groupInfos = new ArrayList<>();
 
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.service.entitlements;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.entitlements.EntitlementsAndCacheServiceImpl;
+import org.opengroup.osdu.core.common.entitlements.IEntitlementsFactory;
+import org.opengroup.osdu.core.common.entitlements.IEntitlementsService;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntitlementsAndCacheServiceImplTest {
+
+    private IEntitlementsFactory factory;
+    private IEntitlementsService service;
+    private EntitlementsAndCacheServiceImpl sut;
+
+    @Before
+    public void setup() {
+        factory = mock(IEntitlementsFactory.class);
+        service = mock(IEntitlementsService.class);
+        when(factory.create(any())).thenReturn(service);
+        sut = new EntitlementsAndCacheServiceImpl(factory, new VmCache<>(60, 100, true));
+    }
+
+    @Test
+    public void should_callEntitlementsOnce_when_sameTokenAndPartitionRequestedTwice() throws Exception {
+        when(service.getGroups()).thenReturn(createGroups("service.legal.user"));
+
+        Groups first = sut.getGroups(createHeaders("token1", "tenant1"));
+        Groups second = sut.getGroups(createHeaders("token1", "tenant1"));
+
+        assertSame(first, second);
+        verify(service, times(1)).getGroups();
+        assertEquals(1, sut.getHitCount());
+        assertEquals(1, sut.getMissCount());
+        assertEquals(1, sut.getLoadCount());
+    }
+
+    @Test
+    public void should_callEntitlementsAgain_when_partitionDiffers() throws Exception {
+        when(service.getGroups()).thenReturn(createGroups("service.legal.user"));
+
+        sut.getGroups(createHeaders("token1", "tenant1"));
+        sut.getGroups(createHeaders("token1", "tenant2"));
+
+        verify(service, times(2)).getGroups();
+    }
+
+    @Test
+    public void should_cacheUnauthorizedResponse_when_entitlementsReturns401() throws Exception {
+        HttpResponse response = new HttpResponse();
+        response.setResponseCode(401);
+        when(service.getGroups()).thenThrow(new EntitlementsException("", response));
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                sut.authorize(createHeaders("bad-token", "tenant1"), "service.legal.user");
+                fail("expected exception");
+            } catch (AppException e) {
+                assertEquals(401, e.getError().getCode());
+            }
+        }
+        verify(service, times(1)).getGroups();
+        assertEquals(2, sut.getUnauthorizedHitCount());
+    }
+
+    @Test
+    public void should_notCacheServerError_when_entitlementsReturns500() throws Exception {
+        HttpResponse response = new HttpResponse();
+        response.setResponseCode(500);
+        when(service.getGroups()).thenThrow(new EntitlementsException("", response));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                sut.getGroups(createHeaders("token1", "tenant1"));
+                fail("expected exception");
+            } catch (EntitlementsException e) {
+                assertEquals(500, e.getHttpResponse().getResponseCode());
+            }
+        }
+        verify(service, times(2)).getGroups();
+    }
+
+    @Test
+    public void should_shareSingleLoad_when_concurrentMissesOnSameKey() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Groups groups = createGroups("service.legal.user");
+        when(service.getGroups()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return groups;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Groups>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> sut.getGroups(createHeaders("token1", "tenant1"))));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (Future<Groups> result : results) {
+            assertSame(groups, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        verify(service, times(1)).getGroups();
+    }
+
+    @Test
+    public void should_returnFetchedGroups_when_cacheFails() throws Exception {
+        ICache<String, Groups> broken = mock(ICache.class);
+        when(broken.get(any())).thenThrow(new IllegalStateException("redis is down"));
+        doThrow(new IllegalStateException("redis is down")).when(broken).put(any(), any());
+        sut = new EntitlementsAndCacheServiceImpl(factory, broken);
+        Groups groups = createGroups("service.legal.user");
+        when(service.getGroups()).thenReturn(groups);
+
+        assertSame(groups, sut.getGroups(createHeaders("token1", "tenant1")));
+        assertSame(groups, sut.getGroups(createHeaders("token1", "tenant1")));
+        assertEquals(1, sut.getLoadCount());
+    }
+
+    @Test
+    public void should_returnMemberEmail_when_userHasRole() throws Exception {
+        when(service.getGroups()).thenReturn(createGroups("service.legal.user"));
+
+        assertEquals("member@domain.com", sut.authorize(createHeaders("token1", "tenant1"), "service.legal.user"));
+    }
+
+    private static DpsHeaders createHeaders(String token, String partition) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.AUTHORIZATION, token);
+        headers.put(DpsHeaders.DATA_PARTITION_ID, partition);
+        return DpsHeaders.createFromMap(headers);
+    }
+
+    private static Groups createGroups(String... roles) {
+        List<GroupInfo> groupInfos = new ArrayList<>();
+        for (String role : roles) {
+            GroupInfo group = new GroupInfo();
+            group.setName(role);
+            group.setEmail(role + "@tenant1.domain.com");
+            groupInfos.add(group);
+        }
+        Groups groups = new Groups();
+        groups.setMemberEmail("member@domain.com");
+        groups.setGroups(groupInfos);
+        return groups;
+    }
+}
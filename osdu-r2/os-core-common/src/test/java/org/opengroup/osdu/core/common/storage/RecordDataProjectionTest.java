@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.storage;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RecordDataProjectionTest {
+
+    private static final JsonParser PARSER = new JsonParser();
+
+    private static final String RECORD = "{\"id\":\"tenant1:doc:1\",\"kind\":\"tenant1:ds:doc:1.0.0\","
+            + "\"acl\":{\"viewers\":[\"v@x\"],\"owners\":[\"o@x\"]},"
+            + "\"data\":{\"name\":\"well 1\",\"depth\":{\"value\":12.5,\"unit\":\"m\"},\"tags\":[1,2],"
+            + "\"location\":\"surface\",\"empty\":null,\"nested\":{\"a\":{\"b\":{\"c\":\"deep\"}}}}}";
+
+    @Test
+    public void should_projectFlatAndNestedPaths_inRequestOrder() {
+        List<String> attributes = Arrays.asList("nested.a.b.c", "name", "depth.unit", "tags", "empty");
+        JsonObject expected = PARSER.parse("{\"nested.a.b.c\":\"deep\",\"name\":\"well 1\",\"depth.unit\":\"m\","
+                + "\"tags\":[1,2],\"empty\":null}").getAsJsonObject();
+
+        JsonObject record = RecordDataProjection.compile(attributes).apply(PARSER.parse(RECORD));
+
+        assertEquals(expected, record.get("data"));
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(record.getAsJsonObject("data").keySet()));
+        assertEquals("tenant1:doc:1", record.get("id").getAsString());
+        assertEquals(PARSER.parse(RECORD).getAsJsonObject().get("acl"), record.get("acl"));
+    }
+
+    @Test
+    public void should_skipPaths_whenParentIsMissingOrNotAnObject() {
+        List<String> attributes = Arrays.asList("missing.child", "name.child", "tags.0", "depth.missing", "location");
+
+        JsonObject record = RecordDataProjection.compile(attributes).apply(PARSER.parse(RECORD));
+
+        assertEquals(PARSER.parse("{\"location\":\"surface\"}"), record.get("data"));
+    }
+
+    @Test
+    public void should_projectParentAndChild_whenBothRequested() {
+        List<String> attributes = Arrays.asList("depth", "depth.value", "depth");
+
+        JsonObject record = RecordDataProjection.compile(attributes).apply(PARSER.parse(RECORD));
+
+        assertEquals(PARSER.parse("{\"depth\":{\"value\":12.5,\"unit\":\"m\"},\"depth.value\":12.5}"), record.get("data"));
+    }
+
+    @Test
+    public void should_returnEmptyData_when_recordHasNoData() {
+        JsonObject record = RecordDataProjection.compile(Collections.singletonList("name"))
+                .apply(PARSER.parse("{\"id\":\"1\"}"));
+
+        assertEquals(new JsonObject(), record.get("data"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_when_attributesAreEmpty() {
+        RecordDataProjection.compile(Collections.emptyList());
+    }
+
+    @Test
+    public void should_keepRecord_when_persistenceHelperGetsNoAttributes() {
+        JsonElement record = PARSER.parse(RECORD);
+        assertSame(record, PersistenceHelper.filterRecordDataFields(record, Collections.emptyList()));
+        assertEquals(PARSER.parse(RECORD), record);
+    }
+
+    @Test
+    public void should_streamAndTreeProjectionsMatchPreviousBehaviour_acrossLargeBatches() throws Exception {
+        Random random = new Random(42);
+        for (int fieldCount : new int[]{5, 50}) {
+            List<String> attributes = new ArrayList<>();
+            for (int i = 0; i < fieldCount; i++) {
+                attributes.add(i % 3 == 0 ? "group" + i % 7 + ".field" + i : "field" + i);
+            }
+            RecordDataProjection projection = RecordDataProjection.compile(attributes);
+
+            for (int r = 0; r < 10_000; r++) {
+                String json = randomRecord(random, r);
+
+                JsonObject expected = PARSER.parse(json).getAsJsonObject();
+                expected.add("data", previousProjection(expected.getAsJsonObject("data"), attributes));
+
+                assertEquals(expected, PersistenceHelper.filterRecordDataFields(PARSER.parse(json), attributes));
+                assertEquals(expected, projection.apply(new JsonReader(new StringReader(json))));
+            }
+        }
+    }
+
+    private static String randomRecord(Random random, int index) {
+        StringBuilder data = new StringBuilder("{");
+        for (int i = 0; i < 60; i++) {
+            if (random.nextInt(4) == 0) {
+                continue;
+            }
+            data.append("\"field").append(i).append("\":").append(random.nextInt(1000)).append(',');
+        }
+        for (int g = 0; g < 7; g++) {
+            data.append("\"group").append(g).append("\":");
+            if (random.nextInt(5) == 0) {
+                data.append("\"scalar\",");
+                continue;
+            }
+            data.append('{');
+            for (int i = 0; i < 60; i += 3) {
+                data.append("\"field").append(i).append("\":{\"v\":").append(random.nextInt(1000)).append("},");
+            }
+            data.append("\"blob\":[1,2,3]},");
+        }
+        data.setLength(data.length() - 1);
+        data.append('}');
+        return "{\"id\":\"tenant1:doc:" + index + "\",\"version\":" + index + ",\"data\":" + data + "}";
+    }
+
+    private static JsonObject previousProjection(JsonObject data, List<String> attributes) {
+        JsonObject filtered = new JsonObject();
+        for (String attribute : attributes) {
+            JsonElement current = data;
+            for (String segment : attribute.split("\\.")) {
+                current = current != null && current.isJsonObject() ? current.getAsJsonObject().get(segment) : null;
+            }
+            if (current != null) {
+                filtered.add(attribute, current);
+            }
+        }
+        return filtered;
+    }
+}
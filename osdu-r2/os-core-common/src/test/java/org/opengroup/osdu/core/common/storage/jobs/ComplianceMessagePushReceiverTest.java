@@ -19,13 +19,17 @@ package org.opengroup.osdu.core.common.storage.jobs;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.legal.LegalTagValidityCache;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.MessageContent;
 import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceMessagePushReceiver;
 import org.opengroup.osdu.core.common.model.legal.jobs.ILegalComplianceChangeService;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
 import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagConsistencyValidator;
 import org.opengroup.osdu.core.common.http.RequestBodyExtractor;
 
@@ -33,6 +37,12 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
 @RunWith(MockitoJUnitRunner.class)
 public class ComplianceMessagePushReceiverTest {
     private final String DATA_ENCODED = "eyJzdGF0dXNDaGFuZ2VkVGFncyI6W3siY2hhbmdlZFRhZ05hbWUiOiJiaWdvaWwtbGVnYWx0YWdzdGF0dXMtam9iIiwiY2hhbmdlZFRhZ1N0YXR1cyI6ImluY29tcGxpYW50In1dfQ";
@@ -52,6 +62,9 @@ public class ComplianceMessagePushReceiverTest {
     @Mock
     private ILegalComplianceChangeService legalComplianceChangeService;
 
+    @Mock
+    private LegalTagValidityCache legalTagValidityCache;
+
     @Test
     public void shouldThrowException_whenNoAccountIDInRequest() {
         MessageContent messageContent = new MessageContent();
@@ -65,4 +78,19 @@ public class ComplianceMessagePushReceiverTest {
 
         this.sut.receiveMessageFromHttpRequest();
     }
+
+    @Test
+    public void should_invalidateCachedStatuses_beforeCheckingWithLegal() {
+        String decoded = new String(Base64.getDecoder().decode(this.DATA_ENCODED));
+        when(this.requestBodyExtractor.extractDataFromRequestBody()).thenReturn(decoded);
+        when(this.dpsHeaders.getPartitionIdWithFallbackToAccountId()).thenReturn("opendes");
+
+        this.sut.receiveMessageFromHttpRequest();
+
+        ArgumentCaptor<LegalTagChangedCollection> changes = ArgumentCaptor.forClass(LegalTagChangedCollection.class);
+        InOrder order = inOrder(this.legalTagValidityCache, this.legalTagConsistencyValidator);
+        order.verify(this.legalTagValidityCache).invalidate(eq("opendes"), changes.capture());
+        order.verify(this.legalTagConsistencyValidator).checkLegalTagStatusWithLegalService(any(LegalTagChangedCollection.class));
+        assertEquals("bigoil-legaltagstatus-job", changes.getValue().getStatusChangedTags().get(0).getChangedTagName());
+    }
 }
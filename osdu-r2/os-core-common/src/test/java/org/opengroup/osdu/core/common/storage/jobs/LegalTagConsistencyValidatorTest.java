@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.storage.jobs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.legal.ILegalService;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagConsistencyValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LegalTagConsistencyValidatorTest {
+
+    @InjectMocks
+    private LegalTagConsistencyValidator sut;
+
+    @Mock
+    private ILegalService legalService;
+
+    @Mock
+    private JaxRsDpsLog logger;
+
+    @Test
+    public void should_dropEveryInconsistentTag_includingAdjacentOnes() {
+        InvalidTagWithReason invalid = new InvalidTagWithReason();
+        invalid.setName("expired");
+        when(this.legalService.getInvalidLegalTags(any())).thenReturn(new InvalidTagWithReason[]{invalid});
+
+        LegalTagChangedCollection dto = new LegalTagChangedCollection();
+        dto.setStatusChangedTags(new ArrayList<>(Arrays.asList(
+                change("valid1", "incompliant"),
+                change("valid2", "incompliant"),
+                change("expired", "incompliant"),
+                change("expired", "compliant"),
+                change("valid3", "compliant"))));
+
+        List<LegalTagChanged> output = this.sut.checkLegalTagStatusWithLegalService(dto).getStatusChangedTags();
+
+        assertEquals(Arrays.asList(change("expired", "incompliant"), change("valid3", "compliant")), output);
+    }
+
+    private static LegalTagChanged change(String name, String status) {
+        LegalTagChanged change = new LegalTagChanged();
+        change.setChangedTagName(name);
+        change.setChangedTagStatus(status);
+        return change;
+    }
+}